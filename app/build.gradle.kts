@@ -17,7 +17,13 @@ android {
     }
 
     buildTypes {
+        // TraceRecorder 的开关。buildConfigField 生成的是字面常量（BuildConfig.DEBUG 不是），
+        // release 里 if (BuildConfig.TRACE) 整段会被 javac 去掉
+        debug {
+            buildConfigField("boolean", "TRACE", "true")
+        }
         release {
+            buildConfigField("boolean", "TRACE", "false")
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -32,9 +38,38 @@ android {
     
     buildFeatures {
         viewBinding = true
+        buildConfig = true
+    }
+
+    // 胜率表需要通过 AssetManager.openFd 做内存映射，不能被压缩
+    androidResources {
+        noCompress += "bin"
     }
 }
 
+// 生成翻牌前胜率表：只编译不依赖 Android 的 models/equity 包，在 JVM 上运行生成器
+val preflopGeneratorClasses = layout.buildDirectory.dir("preflopGenerator/classes")
+
+val compilePreflopGenerator by tasks.registering(JavaCompile::class) {
+    source = fileTree("src/main/java") {
+        include("com/example/texasholdem/models/**", "com/example/texasholdem/equity/**")
+    }
+    classpath = files()
+    destinationDirectory.set(preflopGeneratorClasses)
+    sourceCompatibility = "11"
+    targetCompatibility = "11"
+    options.encoding = "UTF-8"
+}
+
+tasks.register<JavaExec>("generatePreflopTable") {
+    group = "build"
+    description = "Regenerates src/main/assets/preflop_equity.bin"
+    dependsOn(compilePreflopGenerator)
+    classpath = files(preflopGeneratorClasses)
+    mainClass.set("com.example.texasholdem.equity.PreflopTableGenerator")
+    args(file("src/main/assets/preflop_equity.bin").absolutePath)
+}
+
 dependencies {
     implementation(libs.appcompat)
     implementation(libs.material)
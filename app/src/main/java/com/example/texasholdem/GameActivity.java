@@ -1,6 +1,10 @@
 package com.example.texasholdem;
 
+import android.content.Intent;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
@@ -8,13 +12,19 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.example.texasholdem.models.Card;
+import com.example.texasholdem.metrics.TraceRecorder;
 import com.example.texasholdem.models.GameState;
 import com.example.texasholdem.models.Player;
 import com.example.texasholdem.network.GameSocketManager;
-import com.example.texasholdem.views.CardView;
-import com.example.texasholdem.views.PlayerView;
+import com.example.texasholdem.views.BoundLabel;
+import com.example.texasholdem.views.CardAtlas;
+import com.example.texasholdem.views.GameStateBinder;
+import com.example.texasholdem.views.TableView;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class GameActivity extends AppCompatActivity implements GameSocketManager.GameSocketListener {
@@ -28,8 +38,10 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
     private TextView tvCurrentBet;
     private TextView tvCurrentPlayer;
     
-    private CardView[] communityCardViews = new CardView[5];
-    private PlayerView[] playerViews = new PlayerView[8];
+    private TableView tableView;
+    // 只更新和上次显示不同的字段
+    private GameStateBinder binder;
+    private BoundLabel callLabel;
     
     private Button btnFold;
     private Button btnCall;
@@ -37,8 +49,19 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
     private Button btnAllIn;
     private Button btnLeaveGame;
     
-    private GameState currentGameState;
-    private Player currentPlayer;
+    // 操作延迟浮层，显示时每秒刷新一次
+    private static final long OVERLAY_REFRESH_MS = 1000;
+    // 导出时附带的追踪事件时长
+    private static final long TRACE_DUMP_MS = 30000;
+    private TextView tvLatencyOverlay;
+    private final Handler overlayHandler = new Handler(Looper.getMainLooper());
+    private final Runnable refreshOverlay = new Runnable() {
+        @Override
+        public void run() {
+            tvLatencyOverlay.setText(socketManager.getLatencyTracker().summary());
+            overlayHandler.postDelayed(this, OVERLAY_REFRESH_MS);
+        }
+    };
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -59,22 +82,8 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
         tvCurrentBet = findViewById(R.id.tv_current_bet);
         tvCurrentPlayer = findViewById(R.id.tv_current_player);
         
-        // 初始化公共牌视图
-        communityCardViews[0] = findViewById(R.id.card_community_1);
-        communityCardViews[1] = findViewById(R.id.card_community_2);
-        communityCardViews[2] = findViewById(R.id.card_community_3);
-        communityCardViews[3] = findViewById(R.id.card_community_4);
-        communityCardViews[4] = findViewById(R.id.card_community_5);
-        
-        // 初始化玩家视图
-        playerViews[0] = findViewById(R.id.player_1);
-        playerViews[1] = findViewById(R.id.player_2);
-        playerViews[2] = findViewById(R.id.player_3);
-        playerViews[3] = findViewById(R.id.player_4);
-        playerViews[4] = findViewById(R.id.player_5);
-        playerViews[5] = findViewById(R.id.player_6);
-        playerViews[6] = findViewById(R.id.player_7);
-        playerViews[7] = findViewById(R.id.player_8);
+        // 公共牌和所有座位
+        tableView = findViewById(R.id.table_view);
         
         // 初始化按钮
         btnFold = findViewById(R.id.btn_fold);
@@ -83,6 +92,11 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
         btnAllIn = findViewById(R.id.btn_all_in);
         btnLeaveGame = findViewById(R.id.btn_leave_game);
         
+        tvLatencyOverlay = findViewById(R.id.tv_latency_overlay);
+        
+        binder = new GameStateBinder(tvGamePhase, tvPot, tvCurrentBet, tvCurrentPlayer, tableView);
+        callLabel = new BoundLabel(btnCall, "跟注 (", ")");
+        
         setupButtonListeners();
     }
     
@@ -92,27 +106,84 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
         btnRaise.setOnClickListener(v -> raise());
         btnAllIn.setOnClickListener(v -> allIn());
         btnLeaveGame.setOnClickListener(v -> leaveGame());
+        tableView.setOnSeatClickListener(this::showPlayerInfo);
+        
+        // 长按顶部信息栏切换延迟浮层，长按浮层导出数据
+        findViewById(R.id.ll_game_info).setOnLongClickListener(v -> {
+            toggleLatencyOverlay();
+            return true;
+        });
+        tvLatencyOverlay.setOnLongClickListener(v -> {
+            exportLatency();
+            return true;
+        });
     }
     
     private void setupSocketManager() {
-        socketManager = new GameSocketManager(this);
-        socketManager.connect();
-        
-        // 等待连接成功后加入房间
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-                runOnUiThread(() -> {
-                    if (socketManager.isConnected()) {
-                        socketManager.joinRoom(roomId, playerName);
-                    } else {
-                        Toast.makeText(this, "连接服务器失败", Toast.LENGTH_SHORT).show();
-                    }
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        // 沿用 RoomActivity 的连接和房间，只有界面被系统重建、已经不在房间里时才重新加入
+        socketManager = GameSocketManager.getInstance();
+        if (!roomId.equals(socketManager.getCurrentRoomId())) {
+            socketManager.joinRoom(roomId, playerName);
+        }
+    }
+    
+    @Override
+    protected void onResume() {
+        super.onResume();
+        socketManager.setListener(this);
+        if (tvLatencyOverlay.getVisibility() == View.VISIBLE) {
+            overlayHandler.post(refreshOverlay);
+        }
+    }
+    
+    @Override
+    protected void onPause() {
+        super.onPause();
+        socketManager.removeListener(this);
+        overlayHandler.removeCallbacks(refreshOverlay);
+    }
+    
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // 界面不可见后释放卡牌图集，回来时按需重新绘制
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            tableView.releaseCardAtlases();
+            CardAtlas.clear();
+        }
+    }
+    
+    private void toggleLatencyOverlay() {
+        if (tvLatencyOverlay.getVisibility() == View.VISIBLE) {
+            tvLatencyOverlay.setVisibility(View.GONE);
+            overlayHandler.removeCallbacks(refreshOverlay);
+        } else {
+            tvLatencyOverlay.setVisibility(View.VISIBLE);
+            overlayHandler.post(refreshOverlay);
+        }
+    }
+    
+    // 写到应用自己的外部文件目录，可以用 adb pull 取出
+    private void exportLatency() {
+        File dir = getExternalFilesDir(null);
+        if (dir == null) {
+            dir = getFilesDir();
+        }
+        File file = new File(dir, "latency-" + System.currentTimeMillis() + ".txt");
+        String content = "device " + Build.MANUFACTURER + " " + Build.MODEL
+                + " (API " + Build.VERSION.SDK_INT + ")\n"
+                + socketManager.getLatencyTracker().export();
+        if (BuildConfig.TRACE) {
+            // 报 bug 时一起导出最近的协议和渲染事件
+            content += "\n# trace (last " + TRACE_DUMP_MS / 1000 + "s)\n"
+                    + TraceRecorder.get().dump(TRACE_DUMP_MS);
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            Toast.makeText(this, "已导出到 " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "导出失败: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
     }
     
     private void fold() {
@@ -146,8 +217,12 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
     
     private void leaveGame() {
         if (socketManager != null) {
-            socketManager.disconnect();
+            socketManager.leaveRoom();
         }
+        // 离开牌桌即离开房间，直接回到大厅
+        Intent intent = new Intent(this, MainActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        startActivity(intent);
         finish();
     }
     
@@ -158,155 +233,91 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
         btnAllIn.setEnabled(enabled);
     }
     
+    // GameSocketManager 的回调都在主线程上
+    
     @Override
     public void onConnected() {
-        runOnUiThread(() -> {
-            Toast.makeText(this, "已连接到服务器", Toast.LENGTH_SHORT).show();
-        });
+        Toast.makeText(this, "已连接到服务器", Toast.LENGTH_SHORT).show();
     }
     
     @Override
     public void onDisconnected() {
-        runOnUiThread(() -> {
-            Toast.makeText(this, "与服务器断开连接", Toast.LENGTH_SHORT).show();
-        });
+        Toast.makeText(this, "与服务器断开连接", Toast.LENGTH_SHORT).show();
     }
     
     @Override
-    public void onJoinedRoom(boolean success, String message, GameState gameState) {
-        runOnUiThread(() -> {
-            if (success) {
-                updateGameState(gameState);
-            }
-        });
+    public void onJoinedRoom(boolean success, String message) {
+        // 房间状态随后通过 onGameStateUpdated 到达
     }
     
     @Override
-    public void onPlayerJoined(Player player, GameState gameState) {
-        runOnUiThread(() -> {
-            updateGameState(gameState);
-        });
+    public void onPlayerJoined(Player player) {
     }
     
     @Override
-    public void onPlayerLeft(String playerId, GameState gameState) {
-        runOnUiThread(() -> {
-            Toast.makeText(this, "有玩家离开了游戏", Toast.LENGTH_SHORT).show();
-            updateGameState(gameState);
-        });
+    public void onPlayerLeft(String playerId) {
+        Toast.makeText(this, "有玩家离开了游戏", Toast.LENGTH_SHORT).show();
     }
     
     @Override
-    public void onGameStarted(GameState gameState) {
-        runOnUiThread(() -> {
-            updateGameState(gameState);
-        });
+    public void onGameStarted() {
     }
     
     @Override
     public void onGameStateUpdated(GameState gameState) {
-        runOnUiThread(() -> {
-            updateGameState(gameState);
-        });
+        updateGameState(gameState);
     }
     
     @Override
     public void onError(String error) {
-        runOnUiThread(() -> {
-            Toast.makeText(this, "错误: " + error, Toast.LENGTH_SHORT).show();
-        });
+        Toast.makeText(this, "错误: " + error, Toast.LENGTH_SHORT).show();
     }
     
     private void updateGameState(GameState gameState) {
         if (gameState != null) {
-            currentGameState = gameState;
-            
-            android.util.Log.d("GameActivity", "Updating game state: phase=" + gameState.getGamePhase() + 
-                ", pot=" + gameState.getPot() + ", currentBet=" + gameState.getCurrentBet() + 
-                ", currentPlayerIndex=" + gameState.getCurrentPlayerIndex() + 
-                ", dealerIndex=" + gameState.getDealerIndex());
-            
-            // 更新游戏信息
-            tvGamePhase.setText("游戏阶段: " + gameState.getGamePhaseText());
-            tvPot.setText("底池: " + gameState.getPot());
-            tvCurrentBet.setText("当前下注: " + gameState.getCurrentBet());
-            
-            // 更新当前玩家显示
-            if (gameState.getCurrentPlayerIndex() >= 0 && gameState.getCurrentPlayerIndex() < gameState.getPlayers().size()) {
-                Player currentPlayer = gameState.getPlayers().get(gameState.getCurrentPlayerIndex());
-                tvCurrentPlayer.setText("当前玩家: " + currentPlayer.getName());
-                android.util.Log.d("GameActivity", "Current player: " + currentPlayer.getName() + 
-                    " (index " + gameState.getCurrentPlayerIndex() + ")");
-            } else {
-                tvCurrentPlayer.setText("当前玩家: 无");
-                android.util.Log.d("GameActivity", "No current player - index out of range: " + gameState.getCurrentPlayerIndex());
-            }
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.RENDER, gameState.getPot(),
+                    gameState.getCurrentBet(), gameState.getCurrentPlayerIndex(), gameState.getCommunityCards().size());
             
-            // 显示庄家信息
-            if (gameState.getDealerIndex() >= 0 && gameState.getDealerIndex() < gameState.getPlayers().size()) {
-                Player dealer = gameState.getPlayers().get(gameState.getDealerIndex());
-                android.util.Log.d("GameActivity", "Dealer: " + dealer.getName() + " (index " + gameState.getDealerIndex() + ")");
-            }
-            
-            // 更新公共牌
-            updateCommunityCards(gameState.getCommunityCards());
-            
-            // 更新玩家视图
-            updatePlayerViews(gameState.getPlayers());
+            // 更新游戏信息和牌桌，没变的视图不会被碰到
+            binder.bind(gameState, socketManager.getCurrentPlayerId());
+            if (BuildConfig.TRACE) updatePlayers(gameState.getPlayers());
             
             // 更新按钮状态
             updateGameButtons(gameState);
         }
     }
     
-    private void updateCommunityCards(List<Card> cards) {
-        for (int i = 0; i < communityCardViews.length; i++) {
-            if (i < cards.size()) {
-                Card card = cards.get(i);
-                communityCardViews[i].setCard(card);
-                communityCardViews[i].setVisibility(View.VISIBLE);
-            } else {
-                communityCardViews[i].setVisibility(View.INVISIBLE);
-            }
+    // 座位已由 TableView 绘制，这里只记录 trace；只在 TRACE 构建里调用
+    private void updatePlayers(List<Player> players) {
+        int seats = Math.min(players.size(), TableView.MAX_SEATS);
+        for (int i = 0; i < seats; i++) {
+            Player player = players.get(i);
+            
+            // 检查是否是当前玩家
+            boolean self = playerName != null && playerName.equals(player.getName());
+            
+            TraceRecorder.record(TraceRecorder.PLAYER, i,
+                    player.getChips(), player.getBet(), playerFlags(player, self));
         }
     }
     
-    private void updatePlayerViews(List<Player> players) {
-        android.util.Log.d("GameActivity", "Updating player views with " + players.size() + " players");
-        
-        for (int i = 0; i < playerViews.length; i++) {
-            if (i < players.size()) {
-                Player player = players.get(i);
-                String currentPlayerId = socketManager.getCurrentPlayerId();
-                playerViews[i].setPlayer(player, currentPlayerId);
-                playerViews[i].setVisibility(View.VISIBLE);
-                
-                // 检查是否是当前玩家
-                if (player.getName().equals(playerName)) {
-                    currentPlayer = player;
-                    android.util.Log.d("GameActivity", "Set current player: " + player.getName() + 
-                        ", isCurrentPlayer: " + player.isCurrentPlayer() + 
-                        ", isDealer: " + player.isDealer());
-                }
-                
-                // 添加调试信息
-                android.util.Log.d("GameActivity", "Player " + i + ": " + player.getName() + 
-                    ", isCurrentPlayer: " + player.isCurrentPlayer() + 
-                    ", isDealer: " + player.isDealer() + 
-                    ", chips: " + player.getChips() + 
-                    ", bet: " + player.getBet());
-            } else {
-                playerViews[i].setVisibility(View.INVISIBLE);
-            }
-        }
+    // 点击座位查看玩家详情
+    private void showPlayerInfo(int seat, Player player) {
+        Toast.makeText(this, player.getName() + "  筹码: " + player.getChips()
+                + "  " + player.getStatusText(), Toast.LENGTH_SHORT).show();
+    }
+    
+    private static int playerFlags(Player player, boolean self) {
+        int flags = 0;
+        if (player.isFolded()) flags |= TraceRecorder.PLAYER_FOLDED;
+        if (player.isAllIn()) flags |= TraceRecorder.PLAYER_ALL_IN;
+        if (player.isCurrentPlayer()) flags |= TraceRecorder.PLAYER_CURRENT;
+        if (player.isDealer()) flags |= TraceRecorder.PLAYER_DEALER;
+        if (self) flags |= TraceRecorder.PLAYER_SELF;
+        return flags;
     }
     
     private void updateGameButtons(GameState gameState) {
-        // 添加调试日志
-        android.util.Log.d("GameActivity", "Updating game buttons. Game active: " + gameState.isGameActive());
-        android.util.Log.d("GameActivity", "Current player index: " + gameState.getCurrentPlayerIndex());
-        android.util.Log.d("GameActivity", "My player name: " + playerName);
-        
         // 找到当前玩家（通过名称匹配）
         Player myPlayer = null;
         int myPlayerIndex = -1;
@@ -319,50 +330,32 @@ public class GameActivity extends AppCompatActivity implements GameSocketManager
             }
         }
         
-        if (myPlayer != null) {
-            android.util.Log.d("GameActivity", "Found my player: " + myPlayer.getName() + 
-                " at index " + myPlayerIndex + 
-                ", isCurrentPlayer: " + myPlayer.isCurrentPlayer() + 
-                ", isDealer: " + myPlayer.isDealer());
-        }
-        
         if (gameState.isGameActive() && myPlayer != null) {
             // 使用currentPlayerIndex来判断是否轮到当前玩家
             boolean isMyTurn = (myPlayerIndex == gameState.getCurrentPlayerIndex());
             boolean canAct = !myPlayer.isFolded() && !myPlayer.isAllIn();
             
-            android.util.Log.d("GameActivity", "Button state: isMyTurn=" + isMyTurn + 
-                " (myIndex=" + myPlayerIndex + ", currentIndex=" + gameState.getCurrentPlayerIndex() + 
-                "), canAct=" + canAct);
-            
-            updateButtonStates(isMyTurn && canAct);
-            
+            int callAmount = 0;
             if (isMyTurn && canAct) {
                 // 根据游戏状态更新按钮文本和可用性
-                int callAmount = gameState.getCurrentBet() - myPlayer.getBet();
+                callAmount = gameState.getCurrentBet() - myPlayer.getBet();
                 if (callAmount < 0) callAmount = 0;
                 
-                btnCall.setText("跟注 (" + callAmount + ")");
+                callLabel.setNumber(callAmount);
+                // 先算出最终状态再设置，避免同一次更新里先启用再禁用造成多余的重绘
+                btnFold.setEnabled(true);
                 btnCall.setEnabled(callAmount <= myPlayer.getChips());
-                
                 btnRaise.setEnabled(myPlayer.getChips() > gameState.getCurrentBet());
                 btnAllIn.setEnabled(myPlayer.getChips() > 0);
-                
-                android.util.Log.d("GameActivity", "Buttons enabled. Call amount: " + callAmount + ", my chips: " + myPlayer.getChips());
             } else {
-                android.util.Log.d("GameActivity", "Buttons disabled. isMyTurn: " + isMyTurn + ", canAct: " + canAct);
+                updateButtonStates(false);
             }
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.BUTTONS, myPlayerIndex,
+                    gameState.getCurrentPlayerIndex(), isMyTurn && canAct ? 1 : 0, callAmount);
         } else {
-            android.util.Log.d("GameActivity", "Game not active or player not found. Disabling buttons.");
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.BUTTONS, myPlayerIndex,
+                    gameState.getCurrentPlayerIndex(), 0, 0);
             updateButtonStates(false);
         }
     }
-    
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (socketManager != null) {
-            socketManager.disconnect();
-        }
-    }
 } 
\ No newline at end of file
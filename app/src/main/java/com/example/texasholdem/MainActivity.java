@@ -10,6 +10,8 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.texasholdem.network.GameSocketManager;
+
 public class MainActivity extends AppCompatActivity {
     
     private EditText etPlayerName;
@@ -26,6 +28,18 @@ public class MainActivity extends AppCompatActivity {
         
         initViews();
         setupListeners();
+        
+        // 用户输入名字和房间号时提前建立连接，进入房间时不必再等
+        GameSocketManager.getInstance().connect();
+    }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // 大厅是任务的根界面，它结束说明用户退出了应用
+        if (isFinishing()) {
+            GameSocketManager.getInstance().release();
+        }
     }
     
     private void initViews() {
@@ -12,11 +12,11 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.texasholdem.adapters.PlayerAdapter;
+import com.example.texasholdem.metrics.TraceRecorder;
 import com.example.texasholdem.models.GameState;
 import com.example.texasholdem.models.Player;
 import com.example.texasholdem.network.GameSocketManager;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class RoomActivity extends AppCompatActivity implements GameSocketManager.GameSocketListener {
@@ -34,8 +34,6 @@ public class RoomActivity extends AppCompatActivity implements GameSocketManager
     private Button btnLeaveRoom;
     
     private PlayerAdapter playerAdapter;
-    private List<Player> players = new ArrayList<>();
-    private GameState currentGameState;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -68,32 +66,33 @@ public class RoomActivity extends AppCompatActivity implements GameSocketManager
     }
     
     private void setupRecyclerView() {
-        playerAdapter = new PlayerAdapter(players);
+        playerAdapter = new PlayerAdapter();
         rvPlayers.setLayoutManager(new LinearLayoutManager(this));
         rvPlayers.setAdapter(playerAdapter);
     }
     
     private void setupSocketManager() {
-        socketManager = new GameSocketManager(this);
-        socketManager.connect();
-        
-        // 等待连接成功后加入房间
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000); // 等待连接
-                runOnUiThread(() -> {
-                    if (socketManager.isConnected()) {
-                        tvConnectionStatus.setText("连接状态: 已连接");
-                        socketManager.joinRoom(roomId, playerName);
-                    } else {
-                        tvConnectionStatus.setText("连接状态: 连接失败");
-                        Toast.makeText(this, "连接服务器失败", Toast.LENGTH_SHORT).show();
-                    }
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        // 连接在 MainActivity 中已经建立；还没连上时会在连接建立后自动加入。
+        // 界面重建时已经在房间里，不再重复加入
+        socketManager = GameSocketManager.getInstance();
+        if (socketManager.isConnected()) {
+            tvConnectionStatus.setText("连接状态: 已连接");
+        }
+        if (!roomId.equals(socketManager.getCurrentRoomId())) {
+            socketManager.joinRoom(roomId, playerName);
+        }
+    }
+    
+    @Override
+    protected void onResume() {
+        super.onResume();
+        socketManager.setListener(this);
+    }
+    
+    @Override
+    protected void onPause() {
+        super.onPause();
+        socketManager.removeListener(this);
     }
     
     private void startGame() {
@@ -104,99 +103,75 @@ public class RoomActivity extends AppCompatActivity implements GameSocketManager
     
     private void leaveRoom() {
         if (socketManager != null) {
-            socketManager.disconnect();
+            socketManager.leaveRoom();
         }
         finish();
     }
     
+    // GameSocketManager 的回调都在主线程上
+    
     @Override
     public void onConnected() {
-        runOnUiThread(() -> {
-            tvConnectionStatus.setText("连接状态: 已连接");
-            Toast.makeText(this, "已连接到服务器", Toast.LENGTH_SHORT).show();
-        });
+        tvConnectionStatus.setText("连接状态: 已连接");
+        Toast.makeText(this, "已连接到服务器", Toast.LENGTH_SHORT).show();
     }
     
     @Override
     public void onDisconnected() {
-        runOnUiThread(() -> {
-            tvConnectionStatus.setText("连接状态: 已断开");
-            Toast.makeText(this, "与服务器断开连接", Toast.LENGTH_SHORT).show();
-        });
+        tvConnectionStatus.setText("连接状态: 已断开");
+        Toast.makeText(this, "与服务器断开连接", Toast.LENGTH_SHORT).show();
     }
     
     @Override
-    public void onJoinedRoom(boolean success, String message, GameState gameState) {
-        runOnUiThread(() -> {
-            if (success) {
-                tvConnectionStatus.setText("连接状态: 已加入房间");
-                Toast.makeText(this, "成功加入房间", Toast.LENGTH_SHORT).show();
-                updateGameState(gameState);
-            } else {
-                tvConnectionStatus.setText("连接状态: 加入房间失败");
-                Toast.makeText(this, "加入房间失败: " + message, Toast.LENGTH_SHORT).show();
-                finish();
-            }
-        });
+    public void onJoinedRoom(boolean success, String message) {
+        if (success) {
+            tvConnectionStatus.setText("连接状态: 已加入房间");
+            Toast.makeText(this, "成功加入房间", Toast.LENGTH_SHORT).show();
+        } else {
+            tvConnectionStatus.setText("连接状态: 加入房间失败");
+            Toast.makeText(this, "加入房间失败: " + message, Toast.LENGTH_SHORT).show();
+            finish();
+        }
     }
     
     @Override
-    public void onPlayerJoined(Player player, GameState gameState) {
-        runOnUiThread(() -> {
-            if (player != null) {
-                Toast.makeText(this, player.getName() + " 加入了房间", Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(this, "有玩家加入了房间", Toast.LENGTH_SHORT).show();
-            }
-            updateGameState(gameState);
-        });
+    public void onPlayerJoined(Player player) {
+        if (player != null) {
+            Toast.makeText(this, player.getName() + " 加入了房间", Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(this, "有玩家加入了房间", Toast.LENGTH_SHORT).show();
+        }
     }
     
     @Override
-    public void onPlayerLeft(String playerId, GameState gameState) {
-        runOnUiThread(() -> {
-            Toast.makeText(this, "有玩家离开了房间", Toast.LENGTH_SHORT).show();
-            updateGameState(gameState);
-        });
+    public void onPlayerLeft(String playerId) {
+        Toast.makeText(this, "有玩家离开了房间", Toast.LENGTH_SHORT).show();
     }
     
     @Override
-    public void onGameStarted(GameState gameState) {
-        runOnUiThread(() -> {
-            Toast.makeText(this, "游戏开始！", Toast.LENGTH_SHORT).show();
-            updateGameState(gameState);
-            
-            // 跳转到游戏界面
-            Intent intent = new Intent(this, GameActivity.class);
-            intent.putExtra("player_name", playerName);
-            intent.putExtra("room_id", roomId);
-            startActivity(intent);
-        });
+    public void onGameStarted() {
+        Toast.makeText(this, "游戏开始！", Toast.LENGTH_SHORT).show();
+        
+        // 跳转到游戏界面
+        Intent intent = new Intent(this, GameActivity.class);
+        intent.putExtra("player_name", playerName);
+        intent.putExtra("room_id", roomId);
+        startActivity(intent);
     }
     
     @Override
     public void onGameStateUpdated(GameState gameState) {
-        runOnUiThread(() -> {
-            updateGameState(gameState);
-        });
+        updateGameState(gameState);
     }
     
     @Override
     public void onError(String error) {
-        runOnUiThread(() -> {
-            tvConnectionStatus.setText("连接状态: 错误");
-            Toast.makeText(this, "错误: " + error, Toast.LENGTH_SHORT).show();
-        });
+        tvConnectionStatus.setText("连接状态: 错误");
+        Toast.makeText(this, "错误: " + error, Toast.LENGTH_SHORT).show();
     }
     
     private void updateGameState(GameState gameState) {
         if (gameState != null) {
-            currentGameState = gameState;
-            
-            // 添加调试日志
-            android.util.Log.d("RoomActivity", "Updating game state with " + 
-                (gameState.getPlayers() != null ? gameState.getPlayers().size() : 0) + " players");
-            
             // 更新游戏阶段
             tvGamePhase.setText("游戏阶段: " + gameState.getGamePhaseText());
             
@@ -205,20 +180,11 @@ public class RoomActivity extends AppCompatActivity implements GameSocketManager
             
             // 更新玩家列表
             if (gameState.getPlayers() != null) {
-                android.util.Log.d("RoomActivity", "Clearing and updating player list");
-                players.clear();
-                players.addAll(gameState.getPlayers());
+                List<Player> players = gameState.getPlayers();
+                if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.ROOM_PLAYERS, players.size());
                 
-                android.util.Log.d("RoomActivity", "Player list now contains " + players.size() + " players");
-                for (Player p : players) {
-                    android.util.Log.d("RoomActivity", "Player: " + p.getName() + " (ID: " + p.getId() + ")");
-                }
-                
-                // 设置当前玩家ID
-                String currentPlayerId = socketManager.getCurrentPlayerId();
-                playerAdapter.setCurrentPlayerId(currentPlayerId);
-                
-                playerAdapter.notifyDataSetChanged();
+                // 后台比较新旧列表，只重新绑定变化的行
+                playerAdapter.submitPlayers(players, socketManager.getCurrentPlayerId());
                 
                 // 更新开始游戏按钮状态
                 btnStartGame.setEnabled(gameState.getPlayers().size() >= 2 && 
@@ -230,8 +196,9 @@ public class RoomActivity extends AppCompatActivity implements GameSocketManager
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (socketManager != null) {
-            socketManager.disconnect();
+        // 返回键退出房间界面时同样离开房间，连接保留给下一个房间
+        if (isFinishing() && socketManager != null) {
+            socketManager.leaveRoom();
         }
     }
 } 
\ No newline at end of file
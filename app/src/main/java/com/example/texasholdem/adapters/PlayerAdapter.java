@@ -6,27 +6,60 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.texasholdem.R;
 import com.example.texasholdem.models.Player;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class PlayerAdapter extends RecyclerView.Adapter<PlayerAdapter.PlayerViewHolder> {
-    
-    private List<Player> players;
-    private String currentPlayerId;
-    
-    public PlayerAdapter(List<Player> players) {
-        this.players = players;
+/**
+ * 房间里的玩家列表。每次状态更新提交一份不可变的快照，由 ListAdapter 在后台线程上比较，
+ * 只有变化的行会重新绑定，而且只更新变了的字段（筹码、下注、状态）。
+ */
+public class PlayerAdapter extends ListAdapter<PlayerAdapter.Item, PlayerAdapter.PlayerViewHolder> {
+
+    // getChangePayload 返回的变化位
+    private static final int CHANGED_NAME = 1;
+    private static final int CHANGED_CHIPS = 1 << 1;
+    private static final int CHANGED_BET = 1 << 2;
+    private static final int CHANGED_STATUS = 1 << 3;
+
+    // 玩家 id 是字符串，按出现顺序分配稳定的 long id
+    private final Map<String, Long> stableIds = new HashMap<>();
+
+    public PlayerAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
     }
-    
-    public void setCurrentPlayerId(String currentPlayerId) {
-        this.currentPlayerId = currentPlayerId;
-        notifyDataSetChanged();
+
+    /**
+     * 提交新的玩家列表。这里复制出需要显示的字段，之后模型对象再被修改也不影响后台比较。
+     */
+    public void submitPlayers(List<Player> players, String currentPlayerId) {
+        List<Item> items = new ArrayList<>(players.size());
+        for (Player player : players) {
+            items.add(new Item(player, currentPlayerId != null && currentPlayerId.equals(player.getId())));
+        }
+        submitList(items);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String id = getItem(position).id;
+        Long stableId = stableIds.get(id);
+        if (stableId == null) {
+            stableId = (long) stableIds.size();
+            stableIds.put(id, stableId);
+        }
+        return stableId;
     }
-    
+
     @NonNull
     @Override
     public PlayerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -34,24 +67,85 @@ public class PlayerAdapter extends RecyclerView.Adapter<PlayerAdapter.PlayerView
                 .inflate(R.layout.item_player, parent, false);
         return new PlayerViewHolder(view);
     }
-    
+
     @Override
     public void onBindViewHolder(@NonNull PlayerViewHolder holder, int position) {
-        Player player = players.get(position);
-        holder.bind(player, currentPlayerId);
+        holder.bind(getItem(position), CHANGED_NAME | CHANGED_CHIPS | CHANGED_BET | CHANGED_STATUS);
     }
-    
+
     @Override
-    public int getItemCount() {
-        return players.size();
+    public void onBindViewHolder(@NonNull PlayerViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        // 两次更新之间来不及绑定时会攒下多个 payload
+        int changed = 0;
+        for (Object payload : payloads) {
+            changed |= (Integer) payload;
+        }
+        holder.bind(getItem(position), changed);
+    }
+
+    /**
+     * 一行要显示的内容。
+     */
+    static final class Item {
+        final String id;
+        final String name;
+        final boolean self;
+        final int chips;
+        final int bet;
+        final boolean folded;
+        final boolean allIn;
+        final String statusText;
+
+        Item(Player player, boolean self) {
+            this.id = player.getId();
+            this.name = player.getName();
+            this.self = self;
+            this.chips = player.getChips();
+            this.bet = player.getBet();
+            this.folded = player.isFolded();
+            this.allIn = player.isAllIn();
+            this.statusText = player.getStatusText();
+        }
+
+        int diff(Item other) {
+            int changed = 0;
+            if (self != other.self || !name.equals(other.name)) changed |= CHANGED_NAME;
+            if (chips != other.chips) changed |= CHANGED_CHIPS;
+            if (bet != other.bet) changed |= CHANGED_BET;
+            if (folded != other.folded || allIn != other.allIn || !statusText.equals(other.statusText)) {
+                changed |= CHANGED_STATUS;
+            }
+            return changed;
+        }
     }
-    
+
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK = new DiffUtil.ItemCallback<Item>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.id.equals(newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.diff(newItem) == 0;
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.diff(newItem);
+        }
+    };
+
     static class PlayerViewHolder extends RecyclerView.ViewHolder {
         private TextView tvPlayerName;
         private TextView tvChips;
         private TextView tvBet;
         private TextView tvStatus;
-        
+
         public PlayerViewHolder(@NonNull View itemView) {
             super(itemView);
             tvPlayerName = itemView.findViewById(R.id.tv_player_name);
@@ -59,33 +153,38 @@ public class PlayerAdapter extends RecyclerView.Adapter<PlayerAdapter.PlayerView
             tvBet = itemView.findViewById(R.id.tv_bet);
             tvStatus = itemView.findViewById(R.id.tv_status);
         }
-        
-        public void bind(Player player, String currentPlayerId) {
-            // 检查是否是当前玩家
-            boolean isCurrentPlayer = currentPlayerId != null && currentPlayerId.equals(player.getId());
-            
-            tvPlayerName.setText(player.getName() + (isCurrentPlayer ? " (我)" : ""));
-            tvChips.setText("筹码: " + player.getChips());
-            tvBet.setText("下注: " + player.getBet());
-            tvStatus.setText(player.getStatusText());
-            
-            // 根据玩家状态设置不同的颜色
-            if (player.isFolded()) {
-                tvStatus.setTextColor(0xFFE74C3C); // 红色
-            } else if (player.isAllIn()) {
-                tvStatus.setTextColor(0xFFF39C12); // 橙色
-            } else if (player.getBet() > 0) {
-                tvStatus.setTextColor(0xFF27AE60); // 绿色
-            } else {
-                tvStatus.setTextColor(0xFF2C3E50); // 深色
+
+        void bind(Item item, int changed) {
+            if ((changed & CHANGED_NAME) != 0) {
+                tvPlayerName.setText(item.name + (item.self ? " (我)" : ""));
+
+                // 如果是当前玩家，设置特殊背景
+                if (item.self) {
+                    itemView.setBackgroundColor(0xFFE8F5E8); // 浅绿色背景
+                } else {
+                    itemView.setBackgroundColor(0xFFFFFFFF); // 白色背景
+                }
+            }
+            if ((changed & CHANGED_CHIPS) != 0) {
+                tvChips.setText("筹码: " + item.chips);
             }
-            
-            // 如果是当前玩家，设置特殊背景
-            if (isCurrentPlayer) {
-                itemView.setBackgroundColor(0xFFE8F5E8); // 浅绿色背景
-            } else {
-                itemView.setBackgroundColor(0xFFFFFFFF); // 白色背景
+            if ((changed & CHANGED_BET) != 0) {
+                tvBet.setText("下注: " + item.bet);
+            }
+            if ((changed & CHANGED_STATUS) != 0) {
+                tvStatus.setText(item.statusText);
+
+                // 根据玩家状态设置不同的颜色
+                if (item.folded) {
+                    tvStatus.setTextColor(0xFFE74C3C); // 红色
+                } else if (item.allIn) {
+                    tvStatus.setTextColor(0xFFF39C12); // 橙色
+                } else if (item.bet > 0) {
+                    tvStatus.setTextColor(0xFF27AE60); // 绿色
+                } else {
+                    tvStatus.setTextColor(0xFF2C3E50); // 深色
+                }
             }
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+package com.example.texasholdem.engine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * 批量模拟入口：把 N 手牌切成固定大小的分片，分给所有核心。
+ *
+ * 每个分片的 seed 由总 seed 和分片编号决定，线程只写自己分片的 SimulationStats，
+ * 不共享可变统计。分片完成后立即追加一行到检查点文件并 fsync，行尾带 CRC32，
+ * 中断后用同样的参数重新运行会跳过已完成的分片；合并只是整数相加，
+ * 所以最终结果与线程数、完成顺序、是否中断过都无关。
+ *
+ * 用法：SimulationRunner --hands N [--seats 6] [--seed 1] [--shard-size 1000000]
+ *                        [--threads 核心数] [--out simulation]
+ */
+public class SimulationRunner {
+
+    private static final String CHECKPOINT_FILE = "shards.log";
+    private static final String SUMMARY_FILE = "summary.txt";
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long totalHands;
+    private final int seats;
+    private final long seed;
+    private final int shardSize;
+    private final int threads;
+    private final File outputDir;
+
+    private FileOutputStream checkpoint;
+
+    public SimulationRunner(long totalHands, int seats, long seed, int shardSize, int threads, File outputDir) {
+        this.totalHands = totalHands;
+        this.seats = seats;
+        this.seed = seed;
+        this.shardSize = shardSize;
+        this.threads = threads;
+        this.outputDir = outputDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long hands = 0;
+        int seats = 6;
+        long seed = 1;
+        int shardSize = 1_000_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "simulation";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--hands": hands = Long.parseLong(args[i + 1]); break;
+                case "--seats": seats = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--shard-size": shardSize = Integer.parseInt(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--out": out = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (hands <= 0) {
+            System.err.println("Usage: SimulationRunner --hands N [--seats 6] [--seed 1] "
+                    + "[--shard-size 1000000] [--threads n] [--out dir]");
+            System.exit(1);
+        }
+        SimulationStats total = new SimulationRunner(hands, seats, seed, shardSize, threads, new File(out)).run();
+        System.out.print(total.toReport());
+    }
+
+    public SimulationStats run() throws IOException, InterruptedException {
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir);
+        }
+        int shardCount = (int) ((totalHands + shardSize - 1) / shardSize);
+        BitSet done = new BitSet(shardCount);
+        SimulationStats total = new SimulationStats(seats);
+
+        File checkpointFile = new File(outputDir, CHECKPOINT_FILE);
+        String header = "# hands=" + totalHands + " seats=" + seats + " seed=" + seed + " shardSize=" + shardSize;
+        if (checkpointFile.exists()) {
+            loadCheckpoint(checkpointFile, header, done, total);
+        }
+        checkpoint = new FileOutputStream(checkpointFile, true);
+        if (checkpointFile.length() == 0) {
+            writeLine(header);
+        }
+
+        AtomicInteger nextShard = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        SimulationStats[] perThread = new SimulationStats[threads];
+        // 任一线程失败后其余线程不再领新分片
+        AtomicBoolean stop = new AtomicBoolean();
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads; t++) {
+            SimulationStats local = new SimulationStats(seats);
+            perThread[t] = local;
+            workers[t] = new Thread(() -> {
+                int shard;
+                while (!stop.get() && (shard = nextShard.getAndIncrement()) < shardCount) {
+                    if (done.get(shard)) {
+                        continue;
+                    }
+                    try {
+                        SimulationStats stats = runShard(shard);
+                        writeLine(withChecksum(shard + " " + stats.toLine()));
+                        local.merge(stats);
+                    } catch (Throwable e) {
+                        // 包括 runShard 里的 RuntimeException / Error，否则线程静悄悄地死掉，结果少了分片
+                        synchronized (failure) {
+                            if (failure[0] == null) {
+                                failure[0] = e;
+                            }
+                        }
+                        stop.set(true);
+                        return;
+                    }
+                }
+            }, "simulation-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        checkpoint.close();
+        // 在合并和写 summary 之前抛出，不完整的运行不会留下 summary
+        Throwable error = failure[0];
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new IOException("Simulation failed", error);
+        }
+
+        for (SimulationStats local : perThread) {
+            total.merge(local);
+        }
+        try (FileOutputStream summary = new FileOutputStream(new File(outputDir, SUMMARY_FILE))) {
+            summary.write((header + "\n" + total.toReport()).getBytes(StandardCharsets.UTF_8));
+        }
+        return total;
+    }
+
+    private SimulationStats runShard(int shard) {
+        long shardSeed = mix(seed + shard * GOLDEN_GAMMA);
+        long hands = Math.min(shardSize, totalHands - (long) shard * shardSize);
+        TableEngine table = new TableEngine(seats, shardSeed);
+        RandomStrategy strategy = new RandomStrategy(new SplittableRandom(~shardSeed));
+        SimulationStats stats = new SimulationStats(seats);
+        for (long i = 0; i < hands; i++) {
+            table.resetChips();
+            table.playHand(strategy);
+            stats.recordHand(table, table.getLastPot());
+        }
+        return stats;
+    }
+
+    private synchronized void writeLine(String line) throws IOException {
+        checkpoint.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        checkpoint.flush();
+        checkpoint.getFD().sync();
+    }
+
+    /**
+     * 读取已完成的分片。只认以换行结尾的行，中断时写了一半的末行会从文件里截掉，
+     * 否则之后追加的分片会接在残行后面；校验和不对的行忽略，对应分片重跑。
+     */
+    private void loadCheckpoint(File file, String header, BitSet done, SimulationStats total) throws IOException {
+        // 不用 java.nio.file：app 模块 minSdk 24，Files 要 API 26
+        byte[] bytes;
+        int end;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            bytes = new byte[(int) raf.length()];
+            raf.readFully(bytes);
+            end = bytes.length;
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+            if (end < bytes.length) {
+                raf.setLength(end);
+                raf.getFD().sync();
+            }
+        }
+        if (end == 0) {
+            return;
+        }
+
+        String[] lines = new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n");
+        if (!lines[0].equals(header)) {
+            throw new IOException("Checkpoint was written with different parameters: " + lines[0]);
+        }
+        int fields = 1 + SimulationStats.fieldCount(seats);
+        for (int i = 1; i < lines.length; i++) {
+            String content = stripChecksum(lines[i]);
+            if (content == null) {
+                continue;
+            }
+            String[] parts = content.split(" ");
+            if (parts.length != fields) {
+                continue;
+            }
+            int shard = Integer.parseInt(parts[0]);
+            if (!done.get(shard)) {
+                done.set(shard);
+                total.merge(SimulationStats.fromFields(seats, parts, 1));
+            }
+        }
+    }
+
+    // 行尾追加 " " + 8 位十六进制的 CRC32
+    static String withChecksum(String content) {
+        return content + " " + String.format(Locale.ROOT, "%08x", crc(content));
+    }
+
+    // 校验通过时返回去掉校验和的内容，否则返回 null
+    static String stripChecksum(String line) {
+        int space = line.lastIndexOf(' ');
+        if (space < 0 || line.length() - space - 1 != 8) {
+            return null;
+        }
+        String content = line.substring(0, space);
+        try {
+            return Long.parseLong(line.substring(space + 1), 16) == crc(content) ? content : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long crc(String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // SplitMix64 的最终混合函数
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 模拟用的随机策略：20% 弃牌、60% 跟注、10% 加注底注两倍、10% 全下。
+     */
+    static final class RandomStrategy implements TableEngine.Strategy {
+        private final SplittableRandom random;
+
+        RandomStrategy(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public int act(TableEngine table, int seat) {
+            int roll = random.nextInt(10);
+            if (roll < 2) return TableEngine.FOLD;
+            if (roll < 8) return TableEngine.CALL;
+            if (roll < 9) return TableEngine.BASE_BET * 2;
+            return TableEngine.ALL_IN;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.texasholdem.engine;
+
+import java.util.Locale;
+
+/**
+ * 一个分片（或合并后全部分片）的统计。只有整数计数，合并是逐项相加，
+ * 所以与分片完成顺序无关，同一个 seed 的结果逐位相同。
+ */
+public class SimulationStats {
+
+    // 底池大小按 2 的幂分桶：桶 i 对应 [2^(i-1), 2^i)，桶 0 为空底池
+    public static final int POT_BUCKETS = 32;
+
+    private final int seats;
+    long hands;
+    long showdowns;
+    long stalled;
+    long potTotal;
+    final long[] winsBySeat;
+    final long[] potHistogram = new long[POT_BUCKETS];
+
+    public SimulationStats(int seats) {
+        this.seats = seats;
+        this.winsBySeat = new long[seats];
+    }
+
+    void recordHand(TableEngine table, int pot) {
+        hands++;
+        if (table.isStalled()) {
+            stalled++;
+            return;
+        }
+        int contenders = 0;
+        for (int i = 0; i < seats; i++) {
+            if (!table.isFolded(i)) {
+                contenders++;
+            }
+        }
+        if (contenders >= 2) {
+            showdowns++;
+        }
+        if (table.getLastWinner() >= 0) {
+            winsBySeat[table.getLastWinner()]++;
+        }
+        potTotal += pot;
+        potHistogram[pot == 0 ? 0 : Math.min(32 - Integer.numberOfLeadingZeros(pot), POT_BUCKETS - 1)]++;
+    }
+
+    public void merge(SimulationStats other) {
+        hands += other.hands;
+        showdowns += other.showdowns;
+        stalled += other.stalled;
+        potTotal += other.potTotal;
+        for (int i = 0; i < seats; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+        for (int i = 0; i < POT_BUCKETS; i++) {
+            potHistogram[i] += other.potHistogram[i];
+        }
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public long getShowdowns() {
+        return showdowns;
+    }
+
+    public long getStalled() {
+        return stalled;
+    }
+
+    public long getWins(int seat) {
+        return winsBySeat[seat];
+    }
+
+    public long getPotBucket(int bucket) {
+        return potHistogram[bucket];
+    }
+
+    /**
+     * 序列化成一行空格分隔的整数，用于分片检查点文件。
+     */
+    String toLine() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(hands).append(' ').append(showdowns).append(' ').append(stalled).append(' ').append(potTotal);
+        for (long wins : winsBySeat) {
+            sb.append(' ').append(wins);
+        }
+        for (long count : potHistogram) {
+            sb.append(' ').append(count);
+        }
+        return sb.toString();
+    }
+
+    static int fieldCount(int seats) {
+        return 4 + seats + POT_BUCKETS;
+    }
+
+    static SimulationStats fromFields(int seats, String[] fields, int offset) {
+        SimulationStats stats = new SimulationStats(seats);
+        stats.hands = Long.parseLong(fields[offset]);
+        stats.showdowns = Long.parseLong(fields[offset + 1]);
+        stats.stalled = Long.parseLong(fields[offset + 2]);
+        stats.potTotal = Long.parseLong(fields[offset + 3]);
+        for (int i = 0; i < seats; i++) {
+            stats.winsBySeat[i] = Long.parseLong(fields[offset + 4 + i]);
+        }
+        for (int i = 0; i < POT_BUCKETS; i++) {
+            stats.potHistogram[i] = Long.parseLong(fields[offset + 4 + seats + i]);
+        }
+        return stats;
+    }
+
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        long finished = hands - stalled;
+        sb.append(String.format(Locale.ROOT, "hands=%d finished=%d stalled=%d showdowns=%d (%.4f)%n",
+                hands, finished, stalled, showdowns, hands == 0 ? 0.0 : (double) showdowns / hands));
+        sb.append(String.format(Locale.ROOT, "average pot=%.2f%n", finished == 0 ? 0.0 : (double) potTotal / finished));
+        for (int i = 0; i < seats; i++) {
+            sb.append(String.format(Locale.ROOT, "seat %d win rate=%.5f%n", i + 1,
+                    finished == 0 ? 0.0 : (double) winsBySeat[i] / finished));
+        }
+        for (int i = 0; i < POT_BUCKETS; i++) {
+            if (potHistogram[i] > 0) {
+                sb.append(String.format(Locale.ROOT, "pot < %d: %d%n", 1L << i, potHistogram[i]));
+            }
+        }
+        return sb.toString();
+    }
+}
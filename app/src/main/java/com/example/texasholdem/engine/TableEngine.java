@@ -0,0 +1,378 @@
+package com.example.texasholdem.engine;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.HandEvaluator;
+import com.example.texasholdem.models.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 纯 Java、无 I/O 的牌桌引擎，规则与 server.js 保持一致：
+ * startGame / dealCards / bettingRound / makeBet / nextPhase / showdown / allBetsEqual。
+ *
+ * 座位状态全部存放在数组里，手牌和公共牌用 CardSet 位集合，热路径上不分配对象、不打日志，
+ * 用于策略模拟，以及在规则改动上线前做回归对比。
+ *
+ * 与服务器的唯一区别是摊牌使用 HandEvaluator 的精确牌力（服务器的 getHandRank 只有粗略分档）；
+ * 其余包括庄家每轮先行动、每轮 currentBet 归零但玩家 bet 不清零等行为都照搬。
+ * 服务器规则下有的局面会卡住（例如轮到已弃牌的庄家行动），这里用 isStalled() 标出来而不是死循环。
+ */
+public class TableEngine {
+
+    public static final int PHASE_WAITING = 0;
+    public static final int PHASE_PREFLOP = 1;
+    public static final int PHASE_FLOP = 2;
+    public static final int PHASE_TURN = 3;
+    public static final int PHASE_RIVER = 4;
+    public static final int PHASE_SHOWDOWN = 5;
+
+    private static final String[] PHASE_NAMES = {"waiting", "preflop", "flop", "turn", "river", "showdown"};
+
+    // Strategy 返回值：非负数表示加注金额
+    public static final int FOLD = -1;
+    public static final int CALL = -2;
+    public static final int ALL_IN = -3;
+
+    public static final int MIN_PLAYERS = 2;
+    public static final int MAX_PLAYERS = 8;
+    public static final int STARTING_CHIPS = 1000;
+    public static final int BASE_BET = 10;
+
+    // 单手牌最多处理的动作数，超过视为卡住
+    private static final int MAX_ACTIONS_PER_HAND = 1000;
+
+    public interface Strategy {
+        /**
+         * 返回 FOLD / CALL / ALL_IN，或者加注金额。
+         */
+        int act(TableEngine table, int seat);
+    }
+
+    private final int seatCount;
+    private final int[] chips;
+    private final int[] bets;
+    private final boolean[] folded;
+    private final boolean[] allIn;
+    private final long[] holeCards;
+
+    private final int[] deck = new int[52];
+    private int deckSize;
+    private long board;
+
+    private int pot;
+    private int currentBet;
+    private int dealerIndex;
+    private int currentPlayerIndex;
+    private int phase = PHASE_WAITING;
+    private int actionCount;
+    private boolean stalled;
+    private int lastWinner = -1;
+    private int lastPot;
+
+    private final SplittableRandom random;
+
+    public TableEngine(int seatCount, long seed) {
+        if (seatCount < MIN_PLAYERS || seatCount > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Seat count must be 2-8: " + seatCount);
+        }
+        this.seatCount = seatCount;
+        this.chips = new int[seatCount];
+        this.bets = new int[seatCount];
+        this.folded = new boolean[seatCount];
+        this.allIn = new boolean[seatCount];
+        this.holeCards = new long[seatCount];
+        this.random = new SplittableRandom(seed);
+        resetChips();
+    }
+
+    public void resetChips() {
+        for (int i = 0; i < seatCount; i++) {
+            chips[i] = STARTING_CHIPS;
+        }
+    }
+
+    /**
+     * 对应 Game.startGame：随机庄家、洗牌发牌，庄家先下注。
+     */
+    public void startHand() {
+        phase = PHASE_PREFLOP;
+        pot = 0;
+        currentBet = 0;
+        board = CardSet.EMPTY;
+        actionCount = 0;
+        stalled = false;
+        lastWinner = -1;
+        lastPot = 0;
+        dealerIndex = random.nextInt(seatCount);
+
+        for (int i = 0; i < 52; i++) {
+            deck[i] = i;
+        }
+        deckSize = 52;
+        for (int i = 0; i < seatCount; i++) {
+            holeCards[i] = (1L << drawCard()) | (1L << drawCard());
+            bets[i] = 0;
+            folded[i] = false;
+            allIn[i] = false;
+        }
+        bettingRound();
+    }
+
+    // 等价于对整副牌洗牌后 pop，只是按需随机抽取
+    private int drawCard() {
+        int j = random.nextInt(deckSize);
+        int card = deck[j];
+        deck[j] = deck[--deckSize];
+        return card;
+    }
+
+    private void bettingRound() {
+        currentPlayerIndex = dealerIndex;
+        currentBet = 0;
+        stalled = folded[currentPlayerIndex] || allIn[currentPlayerIndex];
+    }
+
+    /**
+     * 当前座位执行一个动作，对应 makeBet 处理函数。
+     * 返回 false 表示动作无效（服务器会直接忽略，状态不变）。
+     */
+    public boolean act(int action) {
+        if (phase == PHASE_WAITING || phase == PHASE_SHOWDOWN || stalled) {
+            return false;
+        }
+        int seat = currentPlayerIndex;
+        if (folded[seat] || allIn[seat]) {
+            return false;
+        }
+
+        if (action == FOLD) {
+            folded[seat] = true;
+        } else if (action == CALL) {
+            int callAmount = currentBet - bets[seat];
+            if (callAmount <= chips[seat]) {
+                chips[seat] -= callAmount;
+                bets[seat] += callAmount;
+                pot += callAmount;
+            }
+        } else if (action == ALL_IN) {
+            allIn[seat] = true;
+            pot += chips[seat];
+            bets[seat] += chips[seat];
+            chips[seat] = 0;
+            if (bets[seat] > currentBet) {
+                currentBet = bets[seat];
+            }
+        } else if (action >= BASE_BET && action <= chips[seat]) {
+            chips[seat] -= action;
+            bets[seat] += action;
+            pot += action;
+            currentBet = bets[seat];
+        } else {
+            return false;
+        }
+
+        actionCount++;
+        if (!advancePlayer() || actionCount >= MAX_ACTIONS_PER_HAND) {
+            stalled = true;
+            return true;
+        }
+
+        int active = 0;
+        for (int i = 0; i < seatCount; i++) {
+            if (!folded[i] && !allIn[i]) {
+                active++;
+            }
+        }
+        if (active == 1 || allBetsEqual()) {
+            nextPhase();
+        }
+        return true;
+    }
+
+    // 服务器的 do/while 在所有人都弃牌或全下时会死循环，这里返回 false
+    private boolean advancePlayer() {
+        for (int step = 1; step <= seatCount; step++) {
+            int next = (currentPlayerIndex + step) % seatCount;
+            if (!folded[next] && !allIn[next]) {
+                currentPlayerIndex = next;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean allBetsEqual() {
+        int firstBet = -1;
+        for (int i = 0; i < seatCount; i++) {
+            if (folded[i] || allIn[i]) {
+                continue;
+            }
+            if (firstBet < 0) {
+                firstBet = bets[i];
+            } else if (bets[i] != firstBet) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void nextPhase() {
+        switch (phase) {
+            case PHASE_PREFLOP:
+                phase = PHASE_FLOP;
+                board |= (1L << drawCard()) | (1L << drawCard()) | (1L << drawCard());
+                break;
+            case PHASE_FLOP:
+                phase = PHASE_TURN;
+                board |= 1L << drawCard();
+                break;
+            case PHASE_TURN:
+                phase = PHASE_RIVER;
+                board |= 1L << drawCard();
+                break;
+            case PHASE_RIVER:
+                phase = PHASE_SHOWDOWN;
+                showdown();
+                break;
+            default:
+                break;
+        }
+        if (phase != PHASE_SHOWDOWN) {
+            bettingRound();
+        }
+    }
+
+    // 与服务器相同：牌力最大者拿走整个底池，平局时座位靠前者获胜（JS 的 sort 是稳定排序）
+    private void showdown() {
+        int winner = -1;
+        int best = -1;
+        for (int i = 0; i < seatCount; i++) {
+            if (folded[i]) {
+                continue;
+            }
+            int rank = HandEvaluator.evaluate(holeCards[i] | board);
+            if (rank > best) {
+                best = rank;
+                winner = i;
+            }
+        }
+        lastPot = pot;
+        if (winner >= 0) {
+            chips[winner] += pot;
+            pot = 0;
+        }
+        lastWinner = winner;
+    }
+
+    /**
+     * 用同一个 strategy 打完整手牌。返回 true 表示正常到达摊牌，false 表示卡住。
+     */
+    public boolean playHand(Strategy strategy) {
+        startHand();
+        while (phase != PHASE_SHOWDOWN && !stalled) {
+            int seat = currentPlayerIndex;
+            if (!act(strategy.act(this, seat))) {
+                // 无效动作在服务器上会被忽略，模拟中当作跟注，避免原地打转
+                if (!act(CALL)) {
+                    stalled = true;
+                }
+            }
+        }
+        return !stalled;
+    }
+
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    public int getChips(int seat) {
+        return chips[seat];
+    }
+
+    public int getBet(int seat) {
+        return bets[seat];
+    }
+
+    public boolean isFolded(int seat) {
+        return folded[seat];
+    }
+
+    public boolean isAllIn(int seat) {
+        return allIn[seat];
+    }
+
+    public long getHoleCards(int seat) {
+        return holeCards[seat];
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    public int getPot() {
+        return pot;
+    }
+
+    public int getCurrentBet() {
+        return currentBet;
+    }
+
+    public int getDealerIndex() {
+        return dealerIndex;
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    public String getPhaseName() {
+        return PHASE_NAMES[phase];
+    }
+
+    public boolean isStalled() {
+        return stalled;
+    }
+
+    // 上一次摊牌的赢家座位，没有摊牌时为 -1
+    public int getLastWinner() {
+        return lastWinner;
+    }
+
+    // 上一次摊牌时的底池大小
+    public int getLastPot() {
+        return lastPot;
+    }
+
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * 导出成客户端使用的 GameState，viewerSeat 之外的手牌为空（与 getGameStateForPlayer 一致）。
+     * 会分配对象，不要在模拟热路径上调用。
+     */
+    public GameState toGameState(String roomId, int viewerSeat) {
+        List<Player> players = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            Player player = new Player("seat_" + i, "Seat " + (i + 1));
+            player.setChips(chips[i]);
+            player.setBet(bets[i]);
+            player.setFolded(folded[i]);
+            player.setAllIn(allIn[i]);
+            player.setCurrentPlayer(i == currentPlayerIndex);
+            player.setDealer(i == dealerIndex);
+            player.setHand(i == viewerSeat ? CardSet.toCards(holeCards[i]) : new ArrayList<Card>());
+            players.add(player);
+        }
+        return new GameState(roomId, players, CardSet.toCards(board), pot, currentBet,
+                currentPlayerIndex, PHASE_NAMES[phase], dealerIndex);
+    }
+}
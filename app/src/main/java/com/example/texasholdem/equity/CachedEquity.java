@@ -0,0 +1,82 @@
+package com.example.texasholdem.equity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 放在胜率引擎前面的有界 LRU 缓存，键为 SuitCanonicalizer 的花色同构规范键，
+ * 所以花色互换的局面（多桌、HUD 反复刷新、bot 决策）会命中同一条记录。
+ *
+ * 计算在锁外进行，同一个键并发未命中时可能重复计算一次，结果相同，不影响正确性。
+ */
+public class CachedEquity implements EquityEngine {
+
+    private final EquityEngine engine;
+    private final int capacity;
+    private final LinkedHashMap<Long, EquityResult> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CachedEquity(EquityEngine engine, int capacity) {
+        this.engine = engine;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, EquityResult>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EquityResult> eldest) {
+                if (size() > CachedEquity.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public EquityResult calculate(EquitySpot spot) {
+        long key = SuitCanonicalizer.canonicalKey(spot);
+        if (key == SuitCanonicalizer.NO_KEY) {
+            return engine.calculate(spot);
+        }
+        synchronized (this) {
+            EquityResult cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        EquityResult result = engine.calculate(spot);
+        synchronized (this) {
+            entries.put(key, result);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
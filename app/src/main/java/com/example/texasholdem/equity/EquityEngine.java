@@ -0,0 +1,8 @@
+package com.example.texasholdem.equity;
+
+/**
+ * 任意一种胜率计算方式，供 CachedEquity 等组合使用。
+ */
+public interface EquityEngine {
+    EquityResult calculate(EquitySpot spot);
+}
@@ -0,0 +1,85 @@
+package com.example.texasholdem.equity;
+
+import java.util.Locale;
+
+/**
+ * 胜率计算结果。equity 为 hero 的期望底池份额：平局按平分人数折算。
+ */
+public final class EquityResult {
+
+    public static final EquityResult EMPTY = new EquityResult(0, 0, 0, 0, 0);
+
+    private final long wins;
+    private final long ties;
+    private final long losses;
+    private final double equitySum;
+    private final double equitySquareSum;
+
+    public EquityResult(long wins, long ties, long losses, double equitySum, double equitySquareSum) {
+        this.wins = wins;
+        this.ties = ties;
+        this.losses = losses;
+        this.equitySum = equitySum;
+        this.equitySquareSum = equitySquareSum;
+    }
+
+    public EquityResult merge(EquityResult other) {
+        return new EquityResult(wins + other.wins, ties + other.ties, losses + other.losses,
+                equitySum + other.equitySum, equitySquareSum + other.equitySquareSum);
+    }
+
+    public long getTrials() {
+        return wins + ties + losses;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getTies() {
+        return ties;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public double getWinProbability() {
+        long trials = getTrials();
+        return trials == 0 ? 0 : (double) wins / trials;
+    }
+
+    public double getTieProbability() {
+        long trials = getTrials();
+        return trials == 0 ? 0 : (double) ties / trials;
+    }
+
+    public double getLoseProbability() {
+        long trials = getTrials();
+        return trials == 0 ? 0 : (double) losses / trials;
+    }
+
+    public double getEquity() {
+        long trials = getTrials();
+        return trials == 0 ? 0 : equitySum / trials;
+    }
+
+    /**
+     * 95% 置信区间的半宽。精确枚举的结果同样适用，只是没有意义。
+     */
+    public double getConfidenceHalfWidth() {
+        long trials = getTrials();
+        if (trials < 2) {
+            return 1.0;
+        }
+        double mean = equitySum / trials;
+        double variance = Math.max(equitySquareSum / trials - mean * mean, 0);
+        return 1.96 * Math.sqrt(variance / trials);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "win=%.4f tie=%.4f lose=%.4f equity=%.4f (n=%d)",
+                getWinProbability(), getTieProbability(), getLoseProbability(), getEquity(), getTrials());
+    }
+}
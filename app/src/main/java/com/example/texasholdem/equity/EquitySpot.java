@@ -0,0 +1,77 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+
+/**
+ * 一次胜率计算的输入：自己的两张手牌、已发的公共牌、未弃牌的对手数量，
+ * 以及其他已知不在牌堆里的死牌。全部使用 CardSet 位集合。
+ */
+public final class EquitySpot {
+
+    private final long heroCards;
+    private final long board;
+    private final long dead;
+    private final int opponents;
+
+    public EquitySpot(long heroCards, long board, int opponents) {
+        this(heroCards, board, CardSet.EMPTY, opponents);
+    }
+
+    public EquitySpot(long heroCards, long board, long dead, int opponents) {
+        if (CardSet.size(heroCards) != 2) {
+            throw new IllegalArgumentException("Hero must hold exactly 2 cards");
+        }
+        int boardSize = CardSet.size(board);
+        if (boardSize > 5) {
+            throw new IllegalArgumentException("Board has " + boardSize + " cards");
+        }
+        if (CardSet.intersects(heroCards, board) || CardSet.intersects(dead, heroCards | board)) {
+            throw new IllegalArgumentException("Duplicate cards in spot");
+        }
+        if (opponents < 0 || 2 * opponents + (5 - boardSize) > CardSet.size(CardSet.remaining(heroCards | board | dead))) {
+            throw new IllegalArgumentException("Invalid opponent count: " + opponents);
+        }
+        this.heroCards = heroCards;
+        this.board = board;
+        this.dead = dead;
+        this.opponents = opponents;
+    }
+
+    /**
+     * 从客户端的 GameState 构造：hero 的手牌来自 Player.getHand()，
+     * 对手数量为未弃牌玩家数减去 hero 自己。
+     */
+    public static EquitySpot from(GameState gameState, Player hero) {
+        long heroCards = CardSet.of(hero.getHand());
+        long board = CardSet.of(gameState.getCommunityCards());
+        int opponents = gameState.getActivePlayerCount() - (hero.isFolded() ? 0 : 1);
+        return new EquitySpot(heroCards, board, Math.max(opponents, 0));
+    }
+
+    public long getHeroCards() {
+        return heroCards;
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    public long getDead() {
+        return dead;
+    }
+
+    public int getOpponents() {
+        return opponents;
+    }
+
+    public int getBoardSize() {
+        return CardSet.size(board);
+    }
+
+    // 还没发出的牌
+    public long getLiveCards() {
+        return CardSet.remaining(heroCards | board | dead);
+    }
+}
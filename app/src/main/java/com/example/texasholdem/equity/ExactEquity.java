@@ -0,0 +1,193 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.HandEvaluator;
+import com.example.texasholdem.models.Player;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 翻牌、转牌、河牌阶段的精确胜率：穷举所有剩余公共牌和对手手牌组合。
+ *
+ * 外层按剩余公共牌（runout）切分成 ForkJoin 子任务并行。每个 runout 内先把
+ * 所有可能的对手两张牌各评估一次存进数组，再在这张表上组合多个对手，
+ * hero 每个 runout 也只评估一次。多个对手按无序组合枚举，结果与有序枚举等价。
+ *
+ * 一个对手时翻牌圈约百万次评估；每多一个对手，组合数大约乘以几百，
+ * 三个以上对手应改用 MonteCarloEquity。
+ */
+public class ExactEquity implements EquityEngine {
+
+    private static final int LEAF_RUNOUTS = 16;
+
+    private final ForkJoinPool pool;
+
+    public ExactEquity() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ExactEquity(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public EquityResult calculate(GameState gameState, Player hero) {
+        String phase = gameState.getGamePhase();
+        if (!"flop".equals(phase) && !"turn".equals(phase) && !"river".equals(phase)) {
+            throw new IllegalArgumentException("Exact equity needs flop, turn or river, got " + phase);
+        }
+        return calculate(EquitySpot.from(gameState, hero));
+    }
+
+    @Override
+    public EquityResult calculate(EquitySpot spot) {
+        if (spot.getBoardSize() < 3) {
+            throw new IllegalArgumentException("Exact equity needs at least 3 board cards");
+        }
+        if (spot.getOpponents() == 0) {
+            return new EquityResult(1, 0, 0, 1, 1);
+        }
+        long[] runouts = enumerateRunouts(spot.getLiveCards(), 5 - spot.getBoardSize());
+        return pool.invoke(new RunoutTask(spot, runouts, 0, runouts.length));
+    }
+
+    private static long[] enumerateRunouts(long live, int missing) {
+        int[] cards = new int[52];
+        int n = CardSet.toCodes(live, cards);
+        if (missing == 0) {
+            return new long[]{CardSet.EMPTY};
+        }
+        if (missing == 1) {
+            long[] runouts = new long[n];
+            for (int i = 0; i < n; i++) {
+                runouts[i] = 1L << cards[i];
+            }
+            return runouts;
+        }
+        long[] runouts = new long[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                runouts[k++] = (1L << cards[i]) | (1L << cards[j]);
+            }
+        }
+        return runouts;
+    }
+
+    private static final class RunoutTask extends RecursiveTask<EquityResult> {
+        private final EquitySpot spot;
+        private final long[] runouts;
+        private final int from;
+        private final int to;
+
+        RunoutTask(EquitySpot spot, long[] runouts, int from, int to) {
+            this.spot = spot;
+            this.runouts = runouts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected EquityResult compute() {
+            if (to - from <= LEAF_RUNOUTS) {
+                return new Enumerator(spot).run(runouts, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RunoutTask right = new RunoutTask(spot, runouts, mid, to);
+            right.fork();
+            EquityResult left = new RunoutTask(spot, runouts, from, mid).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    /**
+     * 单个子任务的工作区，数组在子任务内复用。
+     */
+    private static final class Enumerator {
+        private final long hero;
+        private final long board;
+        private final long live;
+        private final int opponents;
+
+        private final int[] cards = new int[52];
+        private final long[] pairMasks = new long[52 * 51 / 2];
+        private final int[] pairRanks = new int[52 * 51 / 2];
+        private int pairCount;
+        private int heroRank;
+
+        private long wins;
+        private long ties;
+        private long losses;
+        private double equitySum;
+        private double equitySquareSum;
+
+        Enumerator(EquitySpot spot) {
+            this.hero = spot.getHeroCards();
+            this.board = spot.getBoard();
+            this.live = spot.getLiveCards();
+            this.opponents = spot.getOpponents();
+        }
+
+        EquityResult run(long[] runouts, int from, int to) {
+            for (int r = from; r < to; r++) {
+                long runout = runouts[r];
+                long fullBoard = board | runout;
+                heroRank = HandEvaluator.evaluate(hero | fullBoard);
+
+                // 本 runout 下所有对手手牌只评估一次
+                int n = CardSet.toCodes(live & ~runout, cards);
+                pairCount = 0;
+                for (int i = 0; i < n; i++) {
+                    long first = 1L << cards[i];
+                    for (int j = i + 1; j < n; j++) {
+                        long pair = first | (1L << cards[j]);
+                        pairMasks[pairCount] = pair;
+                        pairRanks[pairCount] = HandEvaluator.evaluate(fullBoard | pair);
+                        pairCount++;
+                    }
+                }
+
+                if (opponents == 1) {
+                    for (int p = 0; p < pairCount; p++) {
+                        record(pairRanks[p], pairRanks[p] == heroRank ? 1 : 0);
+                    }
+                } else {
+                    enumerate(0, opponents, CardSet.EMPTY, 0, 0);
+                }
+            }
+            return new EquityResult(wins, ties, losses, equitySum, equitySquareSum);
+        }
+
+        private void enumerate(int start, int remaining, long used, int best, int tied) {
+            if (remaining == 0) {
+                record(best, tied);
+                return;
+            }
+            for (int p = start; p < pairCount; p++) {
+                long pair = pairMasks[p];
+                if ((pair & used) != 0) {
+                    continue;
+                }
+                int rank = pairRanks[p];
+                enumerate(p + 1, remaining - 1, used | pair,
+                        Math.max(best, rank), rank == heroRank ? tied + 1 : tied);
+            }
+        }
+
+        private void record(int best, int tied) {
+            if (heroRank > best) {
+                wins++;
+                equitySum += 1;
+                equitySquareSum += 1;
+            } else if (heroRank == best) {
+                ties++;
+                double share = 1.0 / (tied + 1);
+                equitySum += share;
+                equitySquareSum += share * share;
+            } else {
+                losses++;
+            }
+        }
+    }
+}
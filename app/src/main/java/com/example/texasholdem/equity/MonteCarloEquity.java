@@ -0,0 +1,187 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.HandEvaluator;
+import com.example.texasholdem.models.Player;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 多核蒙特卡洛胜率计算。
+ *
+ * 模拟次数按二分切成 ForkJoin 子任务，每个子任务在 fork 前用 SplittableRandom.split()
+ * 拿到自己的随机源，只写自己的计数器，最后在 join 时合并，没有共享的可变状态。
+ * 随机源的拆分只取决于任务树的形状，所以相同 seed 的结果与线程调度无关。
+ *
+ * 作为 EquityEngine 使用时（例如放在 CachedEquity 后面）用固定的次数和 seed，
+ * 同一个局面总是得到同一个结果，缓存的值才有确定的含义。
+ */
+public class MonteCarloEquity implements EquityEngine {
+
+    public static final int DEFAULT_TRIALS = 100_000;
+
+    // 单个子任务的最小模拟次数，太小时 fork 的开销会超过计算本身
+    private static final int LEAF_TRIALS = 8192;
+    // 按时间或置信区间停止时，每批至少跑这么多次再检查
+    private static final int MIN_BATCH_TRIALS = 65536;
+
+    private final ForkJoinPool pool;
+    private int trials = DEFAULT_TRIALS;
+    private long seed;
+
+    public MonteCarloEquity() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MonteCarloEquity(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // calculate(EquitySpot) 使用的模拟次数
+    public void setTrials(int trials) {
+        this.trials = trials;
+    }
+
+    // calculate(EquitySpot) 使用的 seed
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 按 setTrials / setSeed 的固定次数和 seed 模拟。
+     */
+    @Override
+    public EquityResult calculate(EquitySpot spot) {
+        return calculate(spot, trials, seed);
+    }
+
+    public EquityResult calculate(GameState gameState, Player hero, int trials) {
+        return calculate(EquitySpot.from(gameState, hero), trials, System.nanoTime());
+    }
+
+    /**
+     * 固定次数的模拟，相同 seed 得到相同结果。
+     */
+    public EquityResult calculate(EquitySpot spot, int trials, long seed) {
+        if (spot.getOpponents() == 0) {
+            return new EquityResult(1, 0, 0, 1, 1);
+        }
+        return pool.invoke(new SimulationTask(spot, trials, new SplittableRandom(seed)));
+    }
+
+    /**
+     * 分批模拟，直到满足任一条件：达到 maxTrials、用完时间预算，
+     * 或者 95% 置信区间半宽不超过 targetHalfWidth。
+     * timeBudgetMillis 或 targetHalfWidth 传 0 表示不使用该条件。
+     */
+    public EquityResult calculate(EquitySpot spot, long maxTrials, long timeBudgetMillis,
+                                  double targetHalfWidth, long seed) {
+        if (spot.getOpponents() == 0) {
+            return new EquityResult(1, 0, 0, 1, 1);
+        }
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+        int batch = Math.max(MIN_BATCH_TRIALS, LEAF_TRIALS * pool.getParallelism() * 4);
+        SplittableRandom random = new SplittableRandom(seed);
+        EquityResult total = EquityResult.EMPTY;
+
+        while (total.getTrials() < maxTrials) {
+            int trials = (int) Math.min(batch, maxTrials - total.getTrials());
+            total = total.merge(pool.invoke(new SimulationTask(spot, trials, random.split())));
+
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            if (targetHalfWidth > 0 && total.getConfidenceHalfWidth() <= targetHalfWidth) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private static final class SimulationTask extends RecursiveTask<EquityResult> {
+        private final EquitySpot spot;
+        private final int trials;
+        private final SplittableRandom random;
+
+        SimulationTask(EquitySpot spot, int trials, SplittableRandom random) {
+            this.spot = spot;
+            this.trials = trials;
+            this.random = random;
+        }
+
+        @Override
+        protected EquityResult compute() {
+            if (trials <= LEAF_TRIALS) {
+                return simulate(spot, trials, random);
+            }
+            int half = trials >>> 1;
+            SimulationTask right = new SimulationTask(spot, trials - half, random.split());
+            right.fork();
+            EquityResult left = new SimulationTask(spot, half, random).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    static EquityResult simulate(EquitySpot spot, int trials, SplittableRandom random) {
+        int[] deck = new int[52];
+        int deckSize = CardSet.toCodes(spot.getLiveCards(), deck);
+
+        long hero = spot.getHeroCards();
+        long board = spot.getBoard();
+        int opponents = spot.getOpponents();
+        int boardMissing = 5 - CardSet.size(board);
+        int needed = boardMissing + 2 * opponents;
+
+        long wins = 0;
+        long ties = 0;
+        long losses = 0;
+        double equitySum = 0;
+        double equitySquareSum = 0;
+
+        for (int t = 0; t < trials; t++) {
+            // 部分 Fisher-Yates：只洗出本次需要的前 needed 张。
+            // 牌堆不用复位，对均匀排列再做一次随机置换仍然是均匀的。
+            for (int i = 0; i < needed; i++) {
+                int j = i + random.nextInt(deckSize - i);
+                int tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+            }
+
+            long fullBoard = board;
+            for (int i = 0; i < boardMissing; i++) {
+                fullBoard |= 1L << deck[i];
+            }
+
+            int heroRank = HandEvaluator.evaluate(hero | fullBoard);
+            int best = 0;
+            int tied = 0;
+            for (int o = 0, i = boardMissing; o < opponents; o++, i += 2) {
+                int rank = HandEvaluator.evaluate(fullBoard | (1L << deck[i]) | (1L << deck[i + 1]));
+                if (rank > best) {
+                    best = rank;
+                }
+                if (rank == heroRank) {
+                    tied++;
+                }
+            }
+
+            if (heroRank > best) {
+                wins++;
+                equitySum += 1;
+                equitySquareSum += 1;
+            } else if (heroRank == best) {
+                ties++;
+                double share = 1.0 / (tied + 1);
+                equitySum += share;
+                equitySquareSum += share * share;
+            } else {
+                losses++;
+            }
+        }
+        return new EquityResult(wins, ties, losses, equitySum, equitySquareSum);
+    }
+}
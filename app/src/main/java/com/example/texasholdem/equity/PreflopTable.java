@@ -0,0 +1,125 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.CardSet;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 预先算好的翻牌前胜率表：169 种起手牌 × 1~7 个对手（对应 2~8 人桌）。
+ *
+ * 文件格式（大端）：int magic, int version, int classes, int maxOpponents，
+ * 之后是 classes * maxOpponents 个 float，按 classIndex * maxOpponents + (opponents - 1) 排列。
+ * 文件直接 FileChannel.map 进内存，启动时不做任何解析，查询就是一次绝对位置读取。
+ *
+ * 表由 PreflopTableGenerator 在构建时生成（./gradlew :app:generatePreflopTable），
+ * 放在 assets/preflop_equity.bin，且不能被 aapt 压缩，否则无法 openFd。
+ */
+public final class PreflopTable {
+
+    public static final String ASSET_NAME = "preflop_equity.bin";
+
+    public static final int MAGIC = 0x50464551; // "PFEQ"
+    public static final int VERSION = 1;
+    public static final int CLASS_COUNT = 169;
+    public static final int MAX_OPPONENTS = 7;
+    public static final int HEADER_SIZE = 16;
+    public static final int FILE_SIZE = HEADER_SIZE + CLASS_COUNT * MAX_OPPONENTS * 4;
+
+    private static final String RANK_CHARS = "23456789TJQKA";
+
+    private final ByteBuffer buffer;
+
+    private PreflopTable(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Android 上配合 AssetFileDescriptor 使用：
+     * open(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength())。
+     * fd 仍归调用方所有，这里不关闭它；映射建立后调用方可以随时关闭 afd。
+     */
+    public static PreflopTable open(FileDescriptor fd, long offset, long length) throws IOException {
+        // 不能 close：JVM 上关闭流会连带关闭调用方的 fd
+        return map(new FileInputStream(fd).getChannel(), offset, length);
+    }
+
+    // 映射在 channel 关闭后依然有效
+    public static PreflopTable map(FileChannel channel, long offset, long length) throws IOException {
+        if (length < FILE_SIZE) {
+            throw new IOException("Preflop table too short: " + length);
+        }
+        return wrap(channel.map(FileChannel.MapMode.READ_ONLY, offset, FILE_SIZE));
+    }
+
+    public static PreflopTable wrap(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(8) != CLASS_COUNT || buffer.getInt(12) != MAX_OPPONENTS) {
+            throw new IOException("Unrecognized preflop table header");
+        }
+        return new PreflopTable(buffer);
+    }
+
+    public float getEquity(int classIndex, int opponents) {
+        return buffer.getFloat(HEADER_SIZE + ((classIndex * MAX_OPPONENTS) + opponents - 1) * 4);
+    }
+
+    public float getEquity(int card1, int card2, int opponents) {
+        return getEquity(classIndex(card1, card2), opponents);
+    }
+
+    /**
+     * 两张手牌（CardSet）对 opponents 个随机对手的胜率，翻牌前查胜率都走这里。
+     */
+    public float getHandEquity(long holeCards, int opponents) {
+        if (CardSet.size(holeCards) != 2) {
+            throw new IllegalArgumentException("Expected 2 hole cards");
+        }
+        if (opponents < 1 || opponents > MAX_OPPONENTS) {
+            throw new IllegalArgumentException("Opponents must be 1.." + MAX_OPPONENTS + ", got " + opponents);
+        }
+        int first = CardSet.first(holeCards);
+        int second = CardSet.first(CardSet.removeFirst(holeCards));
+        return getEquity(first, second, opponents);
+    }
+
+    /**
+     * 起手牌类别：13×13 矩阵，对子在对角线，同花用 (大, 小)，非同花用 (小, 大)。
+     */
+    public static int classIndex(int card1, int card2) {
+        int rank1 = Card.rankOf(card1);
+        int rank2 = Card.rankOf(card2);
+        int high = Math.max(rank1, rank2);
+        int low = Math.min(rank1, rank2);
+        if (Card.suitOf(card1) == Card.suitOf(card2)) {
+            return high * 13 + low;
+        }
+        return low * 13 + high;
+    }
+
+    // 某个类别的一组代表牌，返回 (card1 << 8) | card2
+    static int representative(int classIndex) {
+        int row = classIndex / 13;
+        int col = classIndex % 13;
+        if (row > col) {
+            return (row << 8) | col; // 同为红桃
+        }
+        return (Card.HEARTS * 13 + col) << 8 | (Card.DIAMONDS * 13 + row);
+    }
+
+    public static String className(int classIndex) {
+        int row = classIndex / 13;
+        int col = classIndex % 13;
+        if (row == col) {
+            return "" + RANK_CHARS.charAt(row) + RANK_CHARS.charAt(row);
+        }
+        if (row > col) {
+            return "" + RANK_CHARS.charAt(row) + RANK_CHARS.charAt(col) + "s";
+        }
+        return "" + RANK_CHARS.charAt(col) + RANK_CHARS.charAt(row) + "o";
+    }
+}
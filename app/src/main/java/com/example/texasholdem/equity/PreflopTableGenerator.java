@@ -0,0 +1,48 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * 构建时生成 preflop_equity.bin。
+ * 用法：PreflopTableGenerator <输出文件> [每格模拟次数]
+ * seed 固定，重复生成的文件逐字节相同。
+ */
+public final class PreflopTableGenerator {
+
+    private static final int DEFAULT_TRIALS = 200000;
+    private static final long SEED = 0x5EEDL;
+
+    private PreflopTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PreflopTableGenerator <output> [trials]");
+            System.exit(1);
+        }
+        int trials = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TRIALS;
+        MonteCarloEquity monteCarlo = new MonteCarloEquity();
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(args[0]))) {
+            out.writeInt(PreflopTable.MAGIC);
+            out.writeInt(PreflopTable.VERSION);
+            out.writeInt(PreflopTable.CLASS_COUNT);
+            out.writeInt(PreflopTable.MAX_OPPONENTS);
+
+            for (int classIndex = 0; classIndex < PreflopTable.CLASS_COUNT; classIndex++) {
+                int cards = PreflopTable.representative(classIndex);
+                long hero = CardSet.of(cards >>> 8) | CardSet.of(cards & 0xFF);
+                for (int opponents = 1; opponents <= PreflopTable.MAX_OPPONENTS; opponents++) {
+                    EquitySpot spot = new EquitySpot(hero, CardSet.EMPTY, opponents);
+                    EquityResult result = monteCarlo.calculate(spot, trials, SEED + classIndex * 8 + opponents);
+                    out.writeFloat((float) result.getEquity());
+                }
+                System.out.println(PreflopTable.className(classIndex) + " done");
+            }
+        }
+    }
+}
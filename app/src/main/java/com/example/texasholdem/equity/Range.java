@@ -0,0 +1,225 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.Card;
+
+import java.util.Arrays;
+
+/**
+ * 起手牌范围：1326 种具体两张牌组合（combo）各自的权重，0 表示不在范围内。
+ *
+ * combo 编号：两张牌 a < b 时 index = b * (b - 1) / 2 + a，
+ * COMBO_MASKS[index] 是这两张牌的 CardSet，判断和死牌 / 公共牌冲突只需一次与运算。
+ *
+ * parse 支持的写法（逗号分隔，可带 ":权重"）：
+ * "AA", "TT+", "22-66", "AKs", "AKo", "AK", "ATs+", "KTo+", "any pair", "top 15%"。
+ */
+public final class Range {
+
+    public static final int COMBO_COUNT = 1326;
+
+    static final int[] COMBO_FIRST = new int[COMBO_COUNT];
+    static final int[] COMBO_SECOND = new int[COMBO_COUNT];
+    static final long[] COMBO_MASKS = new long[COMBO_COUNT];
+    // 每个 combo 所属的起手牌类别（PreflopTable.classIndex）
+    static final int[] COMBO_CLASS = new int[COMBO_COUNT];
+
+    private static final String RANK_CHARS = "23456789TJQKA";
+
+    static {
+        for (int b = 1; b < 52; b++) {
+            for (int a = 0; a < b; a++) {
+                int index = comboIndex(a, b);
+                COMBO_FIRST[index] = a;
+                COMBO_SECOND[index] = b;
+                COMBO_MASKS[index] = (1L << a) | (1L << b);
+                COMBO_CLASS[index] = PreflopTable.classIndex(a, b);
+            }
+        }
+    }
+
+    private final float[] weights = new float[COMBO_COUNT];
+
+    public Range() {
+    }
+
+    public static int comboIndex(int card1, int card2) {
+        int a = Math.min(card1, card2);
+        int b = Math.max(card1, card2);
+        return b * (b - 1) / 2 + a;
+    }
+
+    public static long comboMask(int comboIndex) {
+        return COMBO_MASKS[comboIndex];
+    }
+
+    public float getWeight(int comboIndex) {
+        return weights[comboIndex];
+    }
+
+    public void setWeight(int comboIndex, float weight) {
+        weights[comboIndex] = weight;
+    }
+
+    public void setClassWeight(int classIndex, float weight) {
+        for (int i = 0; i < COMBO_COUNT; i++) {
+            if (COMBO_CLASS[i] == classIndex) {
+                weights[i] = weight;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(weights, 0f);
+    }
+
+    // 包含给定 combo 数量（按权重计）
+    public double getComboCount() {
+        double total = 0;
+        for (float weight : weights) {
+            total += weight;
+        }
+        return total;
+    }
+
+    /**
+     * 按 PreflopTable 中单挑胜率从高到低取前 percent% 的 combo。
+     */
+    public static Range top(double percent, PreflopTable table) {
+        Integer[] order = new Integer[PreflopTable.CLASS_COUNT];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Float.compare(table.getEquity(y, 1), table.getEquity(x, 1)));
+
+        Range range = new Range();
+        double target = COMBO_COUNT * percent / 100.0;
+        int taken = 0;
+        for (int i = 0; i < order.length && taken < target; i++) {
+            range.setClassWeight(order[i], 1f);
+            taken += comboCountOfClass(order[i]);
+        }
+        return range;
+    }
+
+    private static int comboCountOfClass(int classIndex) {
+        int row = classIndex / 13;
+        int col = classIndex % 13;
+        if (row == col) return 6;
+        return row > col ? 4 : 12;
+    }
+
+    public static Range parse(String text) {
+        return parse(text, null);
+    }
+
+    /**
+     * table 只有在使用 "top N%" 时需要。
+     */
+    public static Range parse(String text, PreflopTable table) {
+        Range range = new Range();
+        for (String rawToken : text.split(",")) {
+            String token = rawToken.trim();
+            if (token.isEmpty()) {
+                continue;
+            }
+            float weight = 1f;
+            int colon = token.indexOf(':');
+            if (colon >= 0) {
+                weight = Float.parseFloat(token.substring(colon + 1).trim());
+                token = token.substring(0, colon).trim();
+            }
+            range.addToken(token, weight, table);
+        }
+        return range;
+    }
+
+    private void addToken(String token, float weight, PreflopTable table) {
+        String lower = token.toLowerCase();
+        if (lower.equals("any pair")) {
+            for (int rank = 0; rank < 13; rank++) {
+                setClassWeight(rank * 13 + rank, weight);
+            }
+            return;
+        }
+        if (lower.equals("any") || lower.equals("random")) {
+            Arrays.fill(weights, weight);
+            return;
+        }
+        if (lower.startsWith("top") && lower.endsWith("%")) {
+            if (table == null) {
+                throw new IllegalArgumentException("\"" + token + "\" needs a preflop table");
+            }
+            double percent = Double.parseDouble(lower.substring(3, lower.length() - 1).trim());
+            Range top = top(percent, table);
+            for (int i = 0; i < COMBO_COUNT; i++) {
+                if (top.weights[i] > 0) {
+                    weights[i] = weight;
+                }
+            }
+            return;
+        }
+
+        int dash = token.indexOf('-');
+        if (dash > 0) {
+            // 22-66 / A2s-A5s：第一张固定，第二张（对子时两张一起）在区间内
+            String from = token.substring(0, dash);
+            String to = token.substring(dash + 1);
+            int fromLow = rankOf(from.charAt(1), token);
+            int toLow = rankOf(to.charAt(1), token);
+            for (int low = Math.min(fromLow, toLow); low <= Math.max(fromLow, toLow); low++) {
+                addHand(from.charAt(0) == from.charAt(1) ? low : rankOf(from.charAt(0), token),
+                        low, from.substring(2), weight, token);
+            }
+            return;
+        }
+
+        boolean plus = token.endsWith("+");
+        String hand = plus ? token.substring(0, token.length() - 1) : token;
+        if (hand.length() < 2) {
+            throw new IllegalArgumentException("Bad range token: " + token);
+        }
+        int high = rankOf(hand.charAt(0), token);
+        int low = rankOf(hand.charAt(1), token);
+        String suffix = hand.substring(2);
+        if (!plus) {
+            addHand(high, low, suffix, weight, token);
+        } else if (high == low) {
+            for (int rank = low; rank < 13; rank++) {
+                addHand(rank, rank, suffix, weight, token);
+            }
+        } else {
+            for (int rank = low; rank < Math.max(high, low); rank++) {
+                addHand(high, rank, suffix, weight, token);
+            }
+        }
+    }
+
+    private void addHand(int rank1, int rank2, String suffix, float weight, String token) {
+        int high = Math.max(rank1, rank2);
+        int low = Math.min(rank1, rank2);
+        boolean suited = suffix.equalsIgnoreCase("s");
+        boolean offsuit = suffix.equalsIgnoreCase("o");
+        if (!suffix.isEmpty() && !suited && !offsuit) {
+            throw new IllegalArgumentException("Bad range token: " + token);
+        }
+        if (high == low || !suited) {
+            setClassWeight(low * 13 + high, weight);
+        }
+        if (high != low && !offsuit) {
+            setClassWeight(high * 13 + low, weight);
+        }
+    }
+
+    private static int rankOf(char c, String token) {
+        int rank = RANK_CHARS.indexOf(Character.toUpperCase(c));
+        if (rank < 0) {
+            throw new IllegalArgumentException("Bad rank '" + c + "' in " + token);
+        }
+        return rank;
+    }
+
+    public static String comboName(int comboIndex) {
+        return Card.rankName(COMBO_SECOND[comboIndex]) + Card.suitName(COMBO_SECOND[comboIndex]).charAt(0)
+                + Card.rankName(COMBO_FIRST[comboIndex]) + Card.suitName(COMBO_FIRST[comboIndex]).charAt(0);
+    }
+}
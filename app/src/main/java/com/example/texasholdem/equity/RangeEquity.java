@@ -0,0 +1,361 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.HandEvaluator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 范围对范围的胜率。
+ *
+ * 公共牌已有 3 张以上时穷举所有剩余 runout，否则随机抽取 runout。
+ * 每个 runout 先把所有范围里出现过的 combo 在这块公共牌上评估一次，缓存在
+ * 按 combo 编号索引的数组里，所有玩家共用。
+ * 两个范围时在每个 runout 上精确枚举所有不冲突的 combo 对；三个及以上范围时，
+ * 在每个 runout 上按权重分层抽样 combo 组合，避免组合数的立方级增长。
+ * 不同 runout 上不冲突的 combo 组合总权重不同（例如公共牌发出一张 A 后 AA 只剩 3 个 combo），
+ * 所以每个 runout 的结果要按这个总权重加权，它由各范围权重和之积乘以抽样的接受率估计。
+ * runout 按 ForkJoin 子任务并行，每个子任务有自己的缓存和随机源。
+ */
+public class RangeEquity {
+
+    private static final int LEAF_RUNOUTS = 32;
+    private static final int DEFAULT_SAMPLED_RUNOUTS = 20000;
+    private static final int DEFAULT_MULTIWAY_SAMPLES = 1_000_000;
+    // 多人抽样时 combo 互相冲突的重试上限
+    private static final int MAX_REJECTIONS = 64;
+
+    private final ForkJoinPool pool;
+    private int sampledRunouts = DEFAULT_SAMPLED_RUNOUTS;
+    private int multiwaySamples = DEFAULT_MULTIWAY_SAMPLES;
+
+    public RangeEquity() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RangeEquity(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // 公共牌少于 3 张时抽取的 runout 数量
+    public void setSampledRunouts(int sampledRunouts) {
+        this.sampledRunouts = sampledRunouts;
+    }
+
+    // 三个及以上范围时的总抽样次数，平均分到每个 runout
+    public void setMultiwaySamples(int multiwaySamples) {
+        this.multiwaySamples = multiwaySamples;
+    }
+
+    public double[] calculate(long board, Range... ranges) {
+        return calculate(board, CardSet.EMPTY, 0L, ranges);
+    }
+
+    /**
+     * 返回每个范围的期望底池份额，顺序与 ranges 相同。
+     */
+    public double[] calculate(long board, long dead, long seed, Range... ranges) {
+        if (ranges.length < 2) {
+            throw new IllegalArgumentException("Need at least 2 ranges");
+        }
+        int boardSize = CardSet.size(board);
+        if (boardSize > 5 || CardSet.intersects(board, dead)) {
+            throw new IllegalArgumentException("Invalid board");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] runouts = boardSize >= 3
+                ? enumerateRunouts(CardSet.remaining(board | dead), 5 - boardSize)
+                : sampleRunouts(CardSet.remaining(board | dead), 5 - boardSize, sampledRunouts, random);
+        int samplesPerRunout = Math.max(1, multiwaySamples / runouts.length);
+
+        Totals totals = pool.invoke(new RunoutTask(board, ranges, runouts, 0, runouts.length,
+                samplesPerRunout, random.split()));
+        double[] equities = new double[ranges.length];
+        for (int i = 0; i < ranges.length; i++) {
+            equities[i] = totals.weight == 0 ? 0 : totals.shares[i] / totals.weight;
+        }
+        return equities;
+    }
+
+    private static long[] enumerateRunouts(long live, int missing) {
+        int[] cards = new int[52];
+        int n = CardSet.toCodes(live, cards);
+        if (missing == 0) {
+            return new long[]{CardSet.EMPTY};
+        }
+        if (missing == 1) {
+            long[] runouts = new long[n];
+            for (int i = 0; i < n; i++) {
+                runouts[i] = 1L << cards[i];
+            }
+            return runouts;
+        }
+        long[] runouts = new long[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                runouts[k++] = (1L << cards[i]) | (1L << cards[j]);
+            }
+        }
+        return runouts;
+    }
+
+    private static long[] sampleRunouts(long live, int missing, int count, SplittableRandom random) {
+        int[] cards = new int[52];
+        int n = CardSet.toCodes(live, cards);
+        long[] runouts = new long[count];
+        for (int r = 0; r < count; r++) {
+            long runout = CardSet.EMPTY;
+            for (int i = 0; i < missing; i++) {
+                int j = i + random.nextInt(n - i);
+                int tmp = cards[i];
+                cards[i] = cards[j];
+                cards[j] = tmp;
+                runout |= 1L << cards[i];
+            }
+            runouts[r] = runout;
+        }
+        return runouts;
+    }
+
+    private static final class Totals {
+        final double[] shares;
+        double weight;
+
+        Totals(int players) {
+            shares = new double[players];
+        }
+
+        Totals merge(Totals other) {
+            for (int i = 0; i < shares.length; i++) {
+                shares[i] += other.shares[i];
+            }
+            weight += other.weight;
+            return this;
+        }
+    }
+
+    private static final class RunoutTask extends RecursiveTask<Totals> {
+        private final long board;
+        private final Range[] ranges;
+        private final long[] runouts;
+        private final int from;
+        private final int to;
+        private final int samplesPerRunout;
+        private final SplittableRandom random;
+
+        RunoutTask(long board, Range[] ranges, long[] runouts, int from, int to,
+                   int samplesPerRunout, SplittableRandom random) {
+            this.board = board;
+            this.ranges = ranges;
+            this.runouts = runouts;
+            this.from = from;
+            this.to = to;
+            this.samplesPerRunout = samplesPerRunout;
+            this.random = random;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= LEAF_RUNOUTS) {
+                return new Worker(board, ranges, samplesPerRunout, random).run(runouts, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RunoutTask right = new RunoutTask(board, ranges, runouts, mid, to, samplesPerRunout, random.split());
+            right.fork();
+            Totals left = new RunoutTask(board, ranges, runouts, from, mid, samplesPerRunout, random).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    /**
+     * 单个子任务的工作区：公共牌条件下的 combo 牌力缓存、每个范围的有效 combo 列表
+     * 以及累积权重（用于按权重抽样）。
+     */
+    private static final class Worker {
+        private final long board;
+        private final Range[] ranges;
+        private final int players;
+        private final int samplesPerRunout;
+        private final SplittableRandom random;
+
+        private final int[] rankCache = new int[Range.COMBO_COUNT];
+        private final long[] cachedFor = new long[Range.COMBO_COUNT];
+        private final int[][] active;
+        private final float[][] cumulative;
+        private final int[] activeCount;
+        private final int[] chosen;
+        private final double[] runoutShares;
+        private final Totals totals;
+        // 当前 runout 上 drawCombos 尝试的总次数（含冲突被拒的）
+        private int attempts;
+
+        Worker(long board, Range[] ranges, int samplesPerRunout, SplittableRandom random) {
+            this.board = board;
+            this.ranges = ranges;
+            this.players = ranges.length;
+            this.samplesPerRunout = samplesPerRunout;
+            this.random = random;
+            this.active = new int[players][Range.COMBO_COUNT];
+            this.cumulative = new float[players][Range.COMBO_COUNT];
+            this.activeCount = new int[players];
+            this.chosen = new int[players];
+            this.runoutShares = new double[players];
+            this.totals = new Totals(players);
+            Arrays.fill(cachedFor, -1L);
+        }
+
+        Totals run(long[] runouts, int from, int to) {
+            for (int r = from; r < to; r++) {
+                long fullBoard = board | runouts[r];
+                collectActive(fullBoard);
+                if (players == 2) {
+                    enumerateHeadsUp();
+                } else {
+                    sampleMultiway();
+                }
+            }
+            return totals;
+        }
+
+        private void collectActive(long fullBoard) {
+            for (int p = 0; p < players; p++) {
+                Range range = ranges[p];
+                int count = 0;
+                float sum = 0;
+                for (int c = 0; c < Range.COMBO_COUNT; c++) {
+                    float weight = range.getWeight(c);
+                    if (weight <= 0 || (Range.COMBO_MASKS[c] & fullBoard) != 0) {
+                        continue;
+                    }
+                    // 同一块公共牌上每个 combo 只评估一次，多个范围共用
+                    if (cachedFor[c] != fullBoard) {
+                        rankCache[c] = HandEvaluator.evaluate(fullBoard | Range.COMBO_MASKS[c]);
+                        cachedFor[c] = fullBoard;
+                    }
+                    sum += weight;
+                    active[p][count] = c;
+                    cumulative[p][count] = sum;
+                    count++;
+                }
+                activeCount[p] = count;
+            }
+        }
+
+        private void enumerateHeadsUp() {
+            int[] first = active[0];
+            int[] second = active[1];
+            for (int i = 0; i < activeCount[0]; i++) {
+                int c1 = first[i];
+                long mask1 = Range.COMBO_MASKS[c1];
+                int rank1 = rankCache[c1];
+                float weight1 = ranges[0].getWeight(c1);
+                for (int j = 0; j < activeCount[1]; j++) {
+                    int c2 = second[j];
+                    if ((Range.COMBO_MASKS[c2] & mask1) != 0) {
+                        continue;
+                    }
+                    double weight = weight1 * ranges[1].getWeight(c2);
+                    int rank2 = rankCache[c2];
+                    if (rank1 > rank2) {
+                        totals.shares[0] += weight;
+                    } else if (rank2 > rank1) {
+                        totals.shares[1] += weight;
+                    } else {
+                        totals.shares[0] += weight / 2;
+                        totals.shares[1] += weight / 2;
+                    }
+                    totals.weight += weight;
+                }
+            }
+        }
+
+        private void sampleMultiway() {
+            double rangeProduct = 1;
+            for (int p = 0; p < players; p++) {
+                if (activeCount[p] == 0) {
+                    return;
+                }
+                rangeProduct *= cumulative[p][activeCount[p] - 1];
+            }
+            Arrays.fill(runoutShares, 0);
+            attempts = 0;
+            int accepted = 0;
+            for (int s = 0; s < samplesPerRunout; s++) {
+                if (!drawCombos()) {
+                    continue;
+                }
+                int best = 0;
+                for (int p = 0; p < players; p++) {
+                    best = Math.max(best, rankCache[chosen[p]]);
+                }
+                int winners = 0;
+                for (int p = 0; p < players; p++) {
+                    if (rankCache[chosen[p]] == best) {
+                        winners++;
+                    }
+                }
+                for (int p = 0; p < players; p++) {
+                    if (rankCache[chosen[p]] == best) {
+                        runoutShares[p] += 1.0 / winners;
+                    }
+                }
+                accepted++;
+            }
+            if (accepted == 0) {
+                return;
+            }
+            // 不冲突组合的总权重约为 rangeProduct * accepted / attempts，
+            // 本 runout 的份额是 runoutShares / accepted，两者相乘后 accepted 约掉
+            double scale = rangeProduct / attempts;
+            for (int p = 0; p < players; p++) {
+                totals.shares[p] += runoutShares[p] * scale;
+            }
+            totals.weight += accepted * scale;
+        }
+
+        // 按权重依次为每个玩家抽一个 combo，冲突时整组重抽
+        private boolean drawCombos() {
+            for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+                attempts++;
+                long used = CardSet.EMPTY;
+                boolean conflict = false;
+                for (int p = 0; p < players && !conflict; p++) {
+                    int combo = draw(p);
+                    long mask = Range.COMBO_MASKS[combo];
+                    if ((mask & used) != 0) {
+                        conflict = true;
+                    } else {
+                        used |= mask;
+                        chosen[p] = combo;
+                    }
+                }
+                if (!conflict) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int draw(int player) {
+            int count = activeCount[player];
+            float[] sums = cumulative[player];
+            float target = (float) (random.nextDouble() * sums[count - 1]);
+            int low = 0;
+            int high = count - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sums[mid] > target) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return active[player][low];
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+
+/**
+ * 花色同构：只是花色互换的两个局面胜率完全相同。
+ * 对 24 种花色置换取 (公共牌, 手牌) 位集合字典序最小的一个作为规范形式，
+ * 再把规范形式和对手数量打包成一个 long 作为缓存键。
+ */
+public final class SuitCanonicalizer {
+
+    // 无法生成键（有额外死牌）时返回
+    public static final long NO_KEY = -1L;
+
+    private static final int[][] PERMUTATIONS = new int[24][];
+
+    static {
+        int n = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) {
+                        PERMUTATIONS[n++] = new int[]{a, b, c, d};
+                    }
+                }
+            }
+        }
+    }
+
+    private SuitCanonicalizer() {
+    }
+
+    public static long permute(long set, int[] permutation) {
+        return ((long) CardSet.suitRanks(set, 0) << (13 * permutation[0]))
+                | ((long) CardSet.suitRanks(set, 1) << (13 * permutation[1]))
+                | ((long) CardSet.suitRanks(set, 2) << (13 * permutation[2]))
+                | ((long) CardSet.suitRanks(set, 3) << (13 * permutation[3]));
+    }
+
+    /**
+     * 键的布局（从低到高）：手牌 2 × 6 位，公共牌 5 × 6 位，公共牌张数 3 位，对手数 4 位。
+     */
+    public static long canonicalKey(EquitySpot spot) {
+        if (spot.getDead() != CardSet.EMPTY) {
+            return NO_KEY;
+        }
+        long board = spot.getBoard();
+        long hero = spot.getHeroCards();
+        long bestBoard = Long.MAX_VALUE;
+        long bestHero = Long.MAX_VALUE;
+        for (int[] permutation : PERMUTATIONS) {
+            long permutedBoard = permute(board, permutation);
+            if (permutedBoard > bestBoard) {
+                continue;
+            }
+            long permutedHero = permute(hero, permutation);
+            if (permutedBoard < bestBoard || permutedHero < bestHero) {
+                bestBoard = permutedBoard;
+                bestHero = permutedHero;
+            }
+        }
+
+        long key = 0;
+        int shift = 0;
+        for (long set = bestHero; set != 0; set = CardSet.removeFirst(set)) {
+            key |= (long) CardSet.first(set) << shift;
+            shift += 6;
+        }
+        shift = 12;
+        for (long set = bestBoard; set != 0; set = CardSet.removeFirst(set)) {
+            key |= (long) CardSet.first(set) << shift;
+            shift += 6;
+        }
+        key |= (long) CardSet.size(bestBoard) << 42;
+        key |= (long) spot.getOpponents() << 45;
+        return key;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.texasholdem.metrics;
+
+import java.util.Locale;
+
+/**
+ * 下注操作的端到端延迟。每个发出的操作带一个 actionId，服务器在反映这次操作的
+ * 状态消息里原样带回；据此分段记录（单位微秒）：
+ * <ul>
+ *     <li>rtt：点击发出到状态消息到达</li>
+ *     <li>decode：消息到达到解码、合并完成并发布（含排队）</li>
+ *     <li>render：发布到界面回调执行完（含等待下一帧）</li>
+ *     <li>total：点击到界面更新完成</li>
+ * </ul>
+ * 等待回应的操作放在固定大小的环里，长时间没有回应的会被新操作覆盖并计为 unanswered，
+ * 所以内存占用是固定的。各方法可以在不同线程调用。
+ */
+public class LatencyTracker {
+
+    private static final int MAX_PENDING = 16;
+
+    private final LogHistogram rtt = new LogHistogram();
+    private final LogHistogram decode = new LogHistogram();
+    private final LogHistogram render = new LogHistogram();
+    private final LogHistogram total = new LogHistogram();
+
+    private final int[] pendingIds = new int[MAX_PENDING];
+    private final long[] pendingSentNanos = new long[MAX_PENDING];
+    private int nextActionId = 1;
+    private long unanswered;
+
+    // 已发布、等待渲染的操作；被后面的状态合并掉也没关系，渲染出来的画面同样包含它
+    private long awaitingSentNanos;
+    private long awaitingPublishedNanos;
+
+    /**
+     * 发出操作前调用，返回要带给服务器的 actionId。
+     */
+    public synchronized int actionSent() {
+        int actionId = nextActionId++;
+        if (nextActionId <= 0) {
+            nextActionId = 1;
+        }
+        int slot = actionId % MAX_PENDING;
+        if (pendingIds[slot] != 0) {
+            unanswered++;
+        }
+        pendingIds[slot] = actionId;
+        pendingSentNanos[slot] = System.nanoTime();
+        return actionId;
+    }
+
+    /**
+     * 带 actionId 的状态消息到达时调用，返回操作发出的时间；
+     * 不认识的 actionId（已被覆盖、重复补发）返回 0。
+     */
+    public synchronized long responseReceived(int actionId, long arrivedNanos) {
+        int slot = Math.floorMod(actionId, MAX_PENDING);
+        if (actionId <= 0 || pendingIds[slot] != actionId) {
+            return 0;
+        }
+        pendingIds[slot] = 0;
+        long sentNanos = pendingSentNanos[slot];
+        rtt.record(micros(arrivedNanos - sentNanos));
+        return sentNanos;
+    }
+
+    /**
+     * 对应的状态解码并发布之后调用。
+     */
+    public synchronized void published(long sentNanos, long arrivedNanos) {
+        long now = System.nanoTime();
+        decode.record(micros(now - arrivedNanos));
+        if (awaitingSentNanos == 0) {
+            awaitingSentNanos = sentNanos;
+            awaitingPublishedNanos = now;
+        }
+    }
+
+    /**
+     * 界面处理完一帧的状态后调用，没有等待中的操作时什么也不做。
+     */
+    public synchronized void rendered() {
+        if (awaitingSentNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        render.record(micros(now - awaitingPublishedNanos));
+        total.record(micros(now - awaitingSentNanos));
+        awaitingSentNanos = 0;
+    }
+
+    public LogHistogram getRtt() {
+        return rtt;
+    }
+
+    public LogHistogram getDecode() {
+        return decode;
+    }
+
+    public LogHistogram getRender() {
+        return render;
+    }
+
+    public LogHistogram getTotal() {
+        return total;
+    }
+
+    public synchronized long getUnanswered() {
+        return unanswered;
+    }
+
+    public synchronized void reset() {
+        rtt.reset();
+        decode.reset();
+        render.reset();
+        total.reset();
+        unanswered = 0;
+        awaitingSentNanos = 0;
+    }
+
+    /**
+     * 调试浮层显示的几行文字。
+     */
+    public String summary() {
+        return "rtt    " + rtt.summaryMillis()
+                + "\ndecode " + decode.summaryMillis()
+                + "\nrender " + render.summaryMillis()
+                + "\ntotal  " + total.summaryMillis()
+                + "\nunanswered " + getUnanswered();
+    }
+
+    /**
+     * 导出文件的内容：先是摘要，再是每个直方图的非空桶（上界微秒 计数）。
+     */
+    public String export() {
+        StringBuilder out = new StringBuilder();
+        out.append(summary()).append('\n');
+        appendHistogram(out, "rtt", rtt);
+        appendHistogram(out, "decode", decode);
+        appendHistogram(out, "render", render);
+        appendHistogram(out, "total", total);
+        return out.toString();
+    }
+
+    private static void appendHistogram(StringBuilder out, String name, LogHistogram histogram) {
+        out.append(String.format(Locale.US, "\n# %s (us) n=%d mean=%.1f\n",
+                name, histogram.getCount(), histogram.getMean()));
+        histogram.appendBuckets(out);
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1000;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.texasholdem.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 固定内存的对数分桶直方图：每个 2 的幂区间再等分成 16 个子桶，
+ * 任意非负 long 都能落进 960 个桶之一，相对误差不超过 1/16。
+ * 记录只是几次原子加法，可以在多个线程上同时调用；读取的分位数是近似一致的快照。
+ *
+ * 不依赖 Android，压测工具也会用到。
+ */
+public class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 最大的 long 落在指数 62，对应 (62 - 4 + 2) * 16 个桶
+    public static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    // 桶内最大的值
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * 负数按 0 记录。
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                break;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * percentile 取 0~100。返回所在桶的上界（不超过最大值），没有数据时返回 0。
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void merge(LogHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = other.counts.get(i);
+            if (n != 0) {
+                counts.addAndGet(i, n);
+            }
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        long otherMax = other.max.get();
+        long current;
+        while (otherMax > (current = max.get())) {
+            if (max.compareAndSet(current, otherMax)) {
+                break;
+            }
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * 非空桶逐行输出 "上界 计数"，导出文件时用，方便离线合并多台设备的数据。
+     */
+    public void appendBuckets(StringBuilder out) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = counts.get(i);
+            if (n != 0) {
+                out.append(upperBoundOf(i)).append(' ').append(n).append('\n');
+            }
+        }
+    }
+
+    /**
+     * 记录的单位是微秒时，按毫秒输出 n、p50、p90、p99、max。
+     */
+    public String summaryMillis() {
+        return String.format(Locale.US, "n=%d p50=%.1f p90=%.1f p99=%.1f max=%.1f ms",
+                getCount(), getPercentile(50) / 1000.0, getPercentile(90) / 1000.0,
+                getPercentile(99) / 1000.0, getMax() / 1000.0);
+    }
+}
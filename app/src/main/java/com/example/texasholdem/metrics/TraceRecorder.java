@@ -0,0 +1,147 @@
+package com.example.texasholdem.metrics;
+
+import java.util.Locale;
+
+/**
+ * 协议和渲染事件的环形缓冲区。每个事件只是一个类型编号加最多四个 int，
+ * 写进预先分配好的数组里，记录时不分配对象、不拼字符串；只有 dump 时才格式化。
+ * 写满后覆盖最旧的事件。
+ *
+ * 调用处统一写成 {@code if (BuildConfig.TRACE) TraceRecorder.record(...)}：
+ * release 构建里 TRACE 是编译期常量 false，整条语句连同参数计算都会被编译器去掉。
+ *
+ * 不依赖 Android。
+ */
+public final class TraceRecorder {
+
+    public static final int CAPACITY = 4096;
+
+    // 事件类型，对应 TYPES 里的名字和参数名
+    public static final int CONNECTED = 0;
+    public static final int DISCONNECTED = 1;
+    public static final int JOIN = 2;
+    public static final int RESUME = 3;
+    public static final int RESUME_REJECTED = 4;
+    public static final int RECV_JOINED_ROOM = 5;
+    public static final int RECV_PLAYER_JOINED = 6;
+    public static final int RECV_PLAYER_LEFT = 7;
+    public static final int RECV_GAME_STARTED = 8;
+    public static final int RECV_STATE_UPDATED = 9;
+    public static final int RECV_STATE_DELTA = 10;
+    public static final int SNAPSHOT = 11;
+    public static final int DELTA = 12;
+    public static final int DELTA_MISMATCH = 13;
+    public static final int BET_FOLD = 14;
+    public static final int BET_CALL = 15;
+    public static final int BET_RAISE = 16;
+    public static final int BET_ALL_IN = 17;
+    public static final int RENDER = 18;
+    public static final int PLAYER = 19;
+    public static final int BUTTONS = 20;
+    public static final int ROOM_PLAYERS = 21;
+
+    // PLAYER 事件的 flags
+    public static final int PLAYER_FOLDED = 1;
+    public static final int PLAYER_ALL_IN = 1 << 1;
+    public static final int PLAYER_CURRENT = 1 << 2;
+    public static final int PLAYER_DEALER = 1 << 3;
+    public static final int PLAYER_SELF = 1 << 4;
+
+    // 每行：事件名，然后是各参数的名字
+    private static final String[][] TYPES = {
+            {"connected"},
+            {"disconnected"},
+            {"join"},
+            {"resume", "lastSeq"},
+            {"resume.rejected"},
+            {"recv.joinedRoom", "seq", "actionId"},
+            {"recv.playerJoined", "seq", "actionId"},
+            {"recv.playerLeft", "seq", "actionId"},
+            {"recv.gameStarted", "seq", "actionId"},
+            {"recv.gameStateUpdated", "seq", "actionId"},
+            {"recv.stateDelta", "seq", "actionId"},
+            {"snapshot", "version", "players"},
+            {"delta", "base", "version", "patches"},
+            {"delta.mismatch", "base", "version", "local"},
+            {"bet.fold", "actionId"},
+            {"bet.call", "actionId"},
+            {"bet.raise", "actionId", "amount"},
+            {"bet.allIn", "actionId"},
+            {"render", "pot", "currentBet", "currentIndex", "communityCards"},
+            {"player", "index", "chips", "bet", "flags"},
+            {"buttons", "myIndex", "currentIndex", "enabled", "callAmount"},
+            {"room.players", "count"},
+    };
+
+    private static final TraceRecorder INSTANCE = new TraceRecorder(CAPACITY);
+
+    private final long[] times;
+    private final int[] types;
+    private final int[] args;
+    private long written;
+
+    TraceRecorder(int capacity) {
+        times = new long[capacity];
+        types = new int[capacity];
+        args = new int[capacity * 4];
+    }
+
+    public static TraceRecorder get() {
+        return INSTANCE;
+    }
+
+    public static void record(int type) {
+        INSTANCE.add(type, 0, 0, 0, 0);
+    }
+
+    public static void record(int type, int a) {
+        INSTANCE.add(type, a, 0, 0, 0);
+    }
+
+    public static void record(int type, int a, int b) {
+        INSTANCE.add(type, a, b, 0, 0);
+    }
+
+    public static void record(int type, int a, int b, int c) {
+        INSTANCE.add(type, a, b, c, 0);
+    }
+
+    public static void record(int type, int a, int b, int c, int d) {
+        INSTANCE.add(type, a, b, c, d);
+    }
+
+    synchronized void add(int type, int a, int b, int c, int d) {
+        int slot = (int) (written % times.length);
+        times[slot] = System.nanoTime();
+        types[slot] = type;
+        int base = slot * 4;
+        args[base] = a;
+        args[base + 1] = b;
+        args[base + 2] = c;
+        args[base + 3] = d;
+        written++;
+    }
+
+    /**
+     * 最近 windowMillis 毫秒内的事件，每行一个，时间是相对现在的毫秒数。
+     */
+    public synchronized String dump(long windowMillis) {
+        long now = System.nanoTime();
+        long since = now - windowMillis * 1_000_000L;
+        long first = Math.max(0, written - times.length);
+        StringBuilder out = new StringBuilder();
+        for (long i = first; i < written; i++) {
+            int slot = (int) (i % times.length);
+            if (times[slot] - since < 0) {
+                continue;
+            }
+            String[] type = TYPES[types[slot]];
+            out.append(String.format(Locale.US, "%10.3f ", (times[slot] - now) / 1e6)).append(type[0]);
+            for (int k = 1; k < type.length; k++) {
+                out.append(' ').append(type[k]).append('=').append(args[slot * 4 + k - 1]);
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+}
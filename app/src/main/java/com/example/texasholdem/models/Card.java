@@ -1,77 +1,147 @@
 package com.example.texasholdem.models;
 
-public class Card {
-    private String suit;
-    private String rank;
-    private int value;
-    private boolean isVisible;
+/**
+ * 一张牌。不可变，52 张牌各只有一个实例（Card.of），可以在线程、快照和缓存之间随意共享；
+ * 正面还是背面朝上由显示它的视图决定。
+ */
+public final class Card {
+    // 花色顺序与服务器 createDeck 一致
+    public static final int HEARTS = 0;
+    public static final int DIAMONDS = 1;
+    public static final int CLUBS = 2;
+    public static final int SPADES = 3;
 
-    public Card(String suit, String rank, int value) {
+    private static final String[] SUIT_NAMES = {"hearts", "diamonds", "clubs", "spades"};
+    private static final String[] SUIT_SYMBOLS = {"♥", "♦", "♣", "♠"};
+    private static final int[] SUIT_COLORS = {
+            0xFFE74C3C, 0xFFE74C3C, // 红色
+            0xFF2C3E50, 0xFF2C3E50  // 黑色
+    };
+    private static final String[] RANK_NAMES = {
+            "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"
+    };
+
+    private final String suit;
+    private final String rank;
+    private final int value;
+    // 紧凑编码 suitIndex * 13 + (value - 2)，无法识别时为 -1
+    private final int code;
+
+    // 52 张牌各一个实例，解析和解码时直接查表，不再分配
+    private static final Card[] DECK = new Card[52];
+
+    static {
+        for (int code = 0; code < DECK.length; code++) {
+            DECK[code] = new Card(suitName(code), rankName(code), valueOf(code), code);
+        }
+    }
+
+    private Card(String suit, String rank, int value, int code) {
         this.suit = suit;
         this.rank = rank;
         this.value = value;
-        this.isVisible = false;
+        this.code = code;
     }
 
-    public String getSuit() {
-        return suit;
+    /**
+     * 编码 0~51 对应的共享实例。
+     */
+    public static Card of(int code) {
+        if (code < 0 || code >= DECK.length) {
+            throw new IllegalArgumentException("Invalid card code: " + code);
+        }
+        return DECK[code];
     }
 
-    public void setSuit(String suit) {
-        this.suit = suit;
+    /**
+     * 服务器 JSON 中的牌。能识别时返回共享实例；无法识别时（服务器发来未知的花色或点数）
+     * 才新建一个编码为 -1 的实例，原样保留服务器的文字。
+     */
+    public static Card of(String suit, String rank, int value) {
+        int code = codeOf(suit, value);
+        return code >= 0 ? DECK[code] : new Card(suit, rank, value, -1);
     }
 
-    public String getRank() {
-        return rank;
+    /**
+     * 服务器 JSON 中的 {suit, value} 转成 0~51 的编码，无法识别时返回 -1。
+     */
+    public static int codeOf(String suit, int value) {
+        if (suit == null || value < 2 || value > 14) {
+            return -1;
+        }
+        int suitIndex = suitIndexOf(suit);
+        if (suitIndex < 0) {
+            suitIndex = suitIndexOf(suit.toLowerCase());
+            if (suitIndex < 0) {
+                return -1;
+            }
+        }
+        return suitIndex * 13 + (value - 2);
     }
 
-    public void setRank(String rank) {
-        this.rank = rank;
+    private static int suitIndexOf(String suit) {
+        switch (suit) {
+            case "hearts": return HEARTS;
+            case "diamonds": return DIAMONDS;
+            case "clubs": return CLUBS;
+            case "spades": return SPADES;
+            default: return -1;
+        }
     }
 
-    public int getValue() {
-        return value;
+    public static int suitOf(int code) {
+        return code / 13;
     }
 
-    public void setValue(int value) {
-        this.value = value;
+    // 0~12，对应 2~A
+    public static int rankOf(int code) {
+        return code % 13;
+    }
+
+    // 2~14，与服务器的 value 一致
+    public static int valueOf(int code) {
+        return code % 13 + 2;
+    }
+
+    public static String suitName(int code) {
+        return SUIT_NAMES[code / 13];
+    }
+
+    public static String rankName(int code) {
+        return RANK_NAMES[code % 13];
+    }
+
+    public int getCode() {
+        return code;
     }
 
-    public boolean isVisible() {
-        return isVisible;
+    public String getSuit() {
+        return suit;
     }
 
-    public void setVisible(boolean visible) {
-        isVisible = visible;
+    public String getRank() {
+        return rank;
+    }
+
+    public int getValue() {
+        return value;
     }
 
     public String getDisplayName() {
-        if (!isVisible) {
-            return "?";
-        }
         return rank + " of " + suit;
     }
 
     public String getSuitSymbol() {
-        switch (suit.toLowerCase()) {
-            case "hearts": return "♥";
-            case "diamonds": return "♦";
-            case "clubs": return "♣";
-            case "spades": return "♠";
-            default: return suit;
+        if (code < 0) {
+            return suit;
         }
+        return SUIT_SYMBOLS[code / 13];
     }
 
     public int getSuitColor() {
-        switch (suit.toLowerCase()) {
-            case "hearts":
-            case "diamonds":
-                return 0xFFE74C3C; // 红色
-            case "clubs":
-            case "spades":
-                return 0xFF2C3E50; // 黑色
-            default:
-                return 0xFF000000;
+        if (code < 0) {
+            return 0xFF000000;
         }
+        return SUIT_COLORS[code / 13];
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.example.texasholdem.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用一个 long 表示一组牌：第 Card.getCode() 位为 1 表示包含该牌。
+ * 每个花色占连续的 13 位，所以花色掩码、并集、去掉死牌都是一次位运算。
+ */
+public final class CardSet {
+
+    public static final long EMPTY = 0L;
+    public static final long FULL_DECK = (1L << 52) - 1;
+
+    private static final long SUIT_BITS = 0x1FFFL;
+
+    private CardSet() {
+    }
+
+    public static long of(int code) {
+        return 1L << code;
+    }
+
+    public static long of(int[] codes, int count) {
+        long set = EMPTY;
+        for (int i = 0; i < count; i++) {
+            set |= 1L << codes[i];
+        }
+        return set;
+    }
+
+    /**
+     * 无法识别的牌会被忽略。
+     */
+    public static long of(List<Card> cards) {
+        long set = EMPTY;
+        if (cards == null) {
+            return set;
+        }
+        for (int i = 0; i < cards.size(); i++) {
+            int code = cards.get(i).getCode();
+            if (code >= 0) {
+                set |= 1L << code;
+            }
+        }
+        return set;
+    }
+
+    public static long add(long set, int code) {
+        return set | (1L << code);
+    }
+
+    public static long remove(long set, int code) {
+        return set & ~(1L << code);
+    }
+
+    public static boolean contains(long set, int code) {
+        return (set & (1L << code)) != 0;
+    }
+
+    public static boolean intersects(long a, long b) {
+        return (a & b) != 0;
+    }
+
+    public static int size(long set) {
+        return Long.bitCount(set);
+    }
+
+    // 去掉已知的牌后剩下的牌堆
+    public static long remaining(long dead) {
+        return FULL_DECK & ~dead;
+    }
+
+    // 某个花色的 13 位点数掩码
+    public static int suitRanks(long set, int suit) {
+        return (int) (set >>> (suit * 13)) & (int) SUIT_BITS;
+    }
+
+    // 某个花色的全部 13 张牌
+    public static long suitMask(int suit) {
+        return SUIT_BITS << (suit * 13);
+    }
+
+    // 所有花色的点数并集
+    public static int ranks(long set) {
+        return (int) (set | (set >>> 13) | (set >>> 26) | (set >>> 39)) & (int) SUIT_BITS;
+    }
+
+    public static int first(long set) {
+        return Long.numberOfTrailingZeros(set);
+    }
+
+    public static long removeFirst(long set) {
+        return set & (set - 1);
+    }
+
+    /**
+     * 把集合里的牌按编码从小到大写入 out，返回张数。
+     */
+    public static int toCodes(long set, int[] out) {
+        int count = 0;
+        while (set != 0) {
+            out[count++] = Long.numberOfTrailingZeros(set);
+            set &= set - 1;
+        }
+        return count;
+    }
+
+    public static List<Card> toCards(long set) {
+        List<Card> cards = new ArrayList<>(Long.bitCount(set));
+        while (set != 0) {
+            cards.add(Card.of(Long.numberOfTrailingZeros(set)));
+            set &= set - 1;
+        }
+        return cards;
+    }
+}
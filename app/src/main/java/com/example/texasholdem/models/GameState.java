@@ -1,11 +1,19 @@
 package com.example.texasholdem.models;
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * 一局牌的状态。玩家列表和公共牌列表由自己持有，setPlayers / setCommunityCards 复制内容；
+ * clear 收回的座位（Player 对象）留着给 addSeat 复用，所以同一个对象反复解码或 copyFrom
+ * 时，只要座位数不超过以前用过的数目就不分配内存。
+ */
 public class GameState {
     private String roomId;
-    private List<Player> players;
-    private List<Card> communityCards;
+    private final List<Player> players = new ArrayList<>(8);
+    private final List<Card> communityCards = new ArrayList<>(5);
+    // clear 收回的座位，末尾是下一个要复用的
+    private final List<Player> spareSeats = new ArrayList<>(8);
     private int pot;
     private int currentBet;
     private int currentPlayerIndex;
@@ -19,8 +27,8 @@ public class GameState {
                     int pot, int currentBet, int currentPlayerIndex, 
                     String gamePhase, int dealerIndex) {
         this.roomId = roomId;
-        this.players = players;
-        this.communityCards = communityCards;
+        setPlayers(players);
+        setCommunityCards(communityCards);
         this.pot = pot;
         this.currentBet = currentBet;
         this.currentPlayerIndex = currentPlayerIndex;
@@ -28,6 +36,69 @@ public class GameState {
         this.dealerIndex = dealerIndex;
     }
 
+    /**
+     * 复制玩家和公共牌列表，Card 不可变，直接共享。
+     */
+    public GameState copy() {
+        GameState copy = new GameState();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * 变成 source 的副本：字段逐个复制，座位复用自己已有的 Player 对象原地覆盖。
+     */
+    public void copyFrom(GameState source) {
+        if (source == this) {
+            return;
+        }
+        clear();
+        roomId = source.roomId;
+        for (int i = 0; i < source.communityCards.size(); i++) {
+            communityCards.add(source.communityCards.get(i));
+        }
+        for (int i = 0; i < source.players.size(); i++) {
+            addSeat().copyFrom(source.players.get(i));
+        }
+        pot = source.pot;
+        currentBet = source.currentBet;
+        currentPlayerIndex = source.currentPlayerIndex;
+        gamePhase = source.gamePhase;
+        dealerIndex = source.dealerIndex;
+    }
+
+    /**
+     * 恢复成新建时的样子，座位收回备用。解码器原地重新填充之前调用。
+     */
+    public void clear() {
+        roomId = null;
+        communityCards.clear();
+        // 从后往前收回，addSeat 按原来的顺序取回
+        for (int i = players.size() - 1; i >= 0; i--) {
+            spareSeats.add(players.remove(i));
+        }
+        pot = 0;
+        currentBet = 0;
+        currentPlayerIndex = 0;
+        gamePhase = null;
+        dealerIndex = 0;
+    }
+
+    /**
+     * 在末尾加一个座位并返回它，优先复用 clear 收回的 Player，字段是构造时的默认值。
+     */
+    public Player addSeat() {
+        Player player;
+        if (spareSeats.isEmpty()) {
+            player = new Player(null, null);
+        } else {
+            player = spareSeats.remove(spareSeats.size() - 1);
+            player.reset();
+        }
+        players.add(player);
+        return player;
+    }
+
     public String getRoomId() {
         return roomId;
     }
@@ -40,8 +111,22 @@ public class GameState {
         return players;
     }
 
+    /**
+     * 把传入的玩家逐个复制到自己的座位里，不保留调用方的 Player 对象。
+     * 传入的 Player 不能是本对象自己的座位（传入 getPlayers() 本身除外）。
+     */
     public void setPlayers(List<Player> players) {
-        this.players = players;
+        if (players == this.players) {
+            return;
+        }
+        for (int i = this.players.size() - 1; i >= 0; i--) {
+            spareSeats.add(this.players.remove(i));
+        }
+        if (players != null) {
+            for (int i = 0; i < players.size(); i++) {
+                addSeat().copyFrom(players.get(i));
+            }
+        }
     }
 
     public List<Card> getCommunityCards() {
@@ -49,7 +134,15 @@ public class GameState {
     }
 
     public void setCommunityCards(List<Card> communityCards) {
-        this.communityCards = communityCards;
+        if (communityCards == this.communityCards) {
+            return;
+        }
+        this.communityCards.clear();
+        if (communityCards != null) {
+            for (int i = 0; i < communityCards.size(); i++) {
+                this.communityCards.add(communityCards.get(i));
+            }
+        }
     }
 
     public int getPot() {
@@ -0,0 +1,58 @@
+package com.example.texasholdem.models;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 解码线程和界面线程之间交换 GameState 的缓冲区，三个对象从头用到尾，不再分配。
+ *
+ * 解码线程把新状态写进后台缓冲（back），publish 时和中间的待取缓冲原子交换；
+ * 界面线程 acquire 时把待取缓冲换成前台缓冲（front）读。写的一方从不碰前台，读的一方从不碰后台，
+ * 所以两边都不用加锁；只有两个缓冲时写完必须等界面读完才能再写，多出的待取缓冲让解码线程不用等。
+ * 界面来不及取时，后一次 publish 直接覆盖掉前一次，和原来只保留最新值的槽一样。
+ *
+ * acquire 返回的对象在下一次 acquire 之前不会被修改，界面只能持有到那时：下一次 acquire 把它换成
+ * 待取缓冲，之后的一次 publish 就会把它交给解码线程覆盖。和双缓冲里前台一直归界面不同，三缓冲的前台
+ * 只在两次 acquire 之间归界面，所以不要把它存进字段；要保留更久的内容自己复制（GameState.copyFrom）。
+ * 不依赖 Android。
+ */
+public final class GameStateBuffers {
+
+    // pending 的低两位是待取缓冲的下标，FRESH 表示它还没被界面取走
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final GameState[] buffers = {new GameState(), new GameState(), new GameState()};
+    private final AtomicInteger pending = new AtomicInteger(1);
+    // 只在解码线程上使用
+    private int back = 0;
+    // 只在界面线程上使用
+    private int front = 2;
+
+    /**
+     * 解码线程写入用的后台缓冲，publish 之后要重新取。
+     */
+    public GameState back() {
+        return buffers[back];
+    }
+
+    /**
+     * 发布后台缓冲，返回 true 表示上一次发布还没被取走、被这次覆盖了。
+     */
+    public boolean publish() {
+        int previous = pending.getAndSet(back | FRESH);
+        back = previous & INDEX_MASK;
+        return (previous & FRESH) != 0;
+    }
+
+    /**
+     * 取走最新发布的状态成为前台缓冲；自上次以来没有新的发布时返回 null。只在界面线程调用。
+     */
+    public GameState acquire() {
+        if ((pending.get() & FRESH) == 0) {
+            return null;
+        }
+        // 只有这里会清掉 FRESH，写的一方只会把它再置上，所以不会取到旧的
+        front = pending.getAndSet(front) & INDEX_MASK;
+        return buffers[front];
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.texasholdem.models;
+
+import java.util.List;
+
+/**
+ * 5~7 张牌的牌型评估器。
+ *
+ * 结果是一个可以直接比较大小的 int：第 20 位以上是牌型 (category << 20)，
+ * 低 20 位依次是 5 个 4-bit 的点数（踢脚），数值越大牌越大，相等即平局。
+ *
+ * 输入使用 Card 的紧凑编码（见 Card.getCode），一手牌就是一个 CardSet 位集合，
+ * 每个花色恰好占 13 位，评估时只做位运算和查表，不分配任何对象。
+ */
+public final class HandEvaluator {
+
+    public static final int HIGH_CARD = 0;
+    public static final int ONE_PAIR = 1;
+    public static final int TWO_PAIR = 2;
+    public static final int THREE_OF_A_KIND = 3;
+    public static final int STRAIGHT = 4;
+    public static final int FLUSH = 5;
+    public static final int FULL_HOUSE = 6;
+    public static final int FOUR_OF_A_KIND = 7;
+    public static final int STRAIGHT_FLUSH = 8;
+
+    private static final int CATEGORY_SHIFT = 20;
+    private static final int RANK_MASK = 0x1FFF;
+
+    // 13 位点数掩码 -> 顺子最大点数 + 1（0 表示不成顺）
+    private static final byte[] STRAIGHT_HIGH = new byte[1 << 13];
+    // 13 位点数掩码 -> 最大 5 个点数打包成的踢脚（左对齐，每个 4 位）
+    private static final int[] TOP_FIVE = new int[1 << 13];
+    // 13 位单花色掩码 -> 同花 / 同花顺的完整评估值（不足 5 张为 0）
+    private static final int[] FLUSH_VALUE = new int[1 << 13];
+
+    static {
+        for (int mask = 0; mask < (1 << 13); mask++) {
+            STRAIGHT_HIGH[mask] = (byte) computeStraightHigh(mask);
+            TOP_FIVE[mask] = computeTopFive(mask);
+        }
+        for (int mask = 0; mask < (1 << 13); mask++) {
+            if (Integer.bitCount(mask) < 5) {
+                continue;
+            }
+            int straight = STRAIGHT_HIGH[mask];
+            if (straight != 0) {
+                FLUSH_VALUE[mask] = (STRAIGHT_FLUSH << CATEGORY_SHIFT) | ((straight - 1) << 16);
+            } else {
+                FLUSH_VALUE[mask] = (FLUSH << CATEGORY_SHIFT) | TOP_FIVE[mask];
+            }
+        }
+    }
+
+    private HandEvaluator() {
+    }
+
+    private static int computeStraightHigh(int mask) {
+        for (int high = 12; high >= 4; high--) {
+            int run = 0x1F << (high - 4);
+            if ((mask & run) == run) {
+                return high + 1;
+            }
+        }
+        // A-2-3-4-5
+        int wheel = (1 << 12) | 0xF;
+        if ((mask & wheel) == wheel) {
+            return 3 + 1;
+        }
+        return 0;
+    }
+
+    private static int computeTopFive(int mask) {
+        int packed = 0;
+        int taken = 0;
+        for (int rank = 12; rank >= 0 && taken < 5; rank--) {
+            if ((mask & (1 << rank)) != 0) {
+                packed |= rank << (16 - 4 * taken);
+                taken++;
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * 评估一个 long 位集合表示的 5~7 张牌（第 card 位为 1 表示持有该牌）。
+     */
+    public static int evaluate(long cards) {
+        int hearts = (int) cards & RANK_MASK;
+        int diamonds = (int) (cards >>> 13) & RANK_MASK;
+        int clubs = (int) (cards >>> 26) & RANK_MASK;
+        int spades = (int) (cards >>> 39) & RANK_MASK;
+
+        // 7 张牌以内出现同花时不可能同时有四条或葫芦，可以直接返回
+        int flush = FLUSH_VALUE[hearts] | FLUSH_VALUE[diamonds] | FLUSH_VALUE[clubs] | FLUSH_VALUE[spades];
+        if (flush != 0) {
+            return flush;
+        }
+
+        int ranks = hearts | diamonds | clubs | spades;
+        int quads = hearts & diamonds & clubs & spades;
+        int atLeastTwo = (hearts & diamonds) | (clubs & spades) | ((hearts | diamonds) & (clubs | spades));
+        int atLeastThree = ((hearts & diamonds) & (clubs | spades)) | ((clubs & spades) & (hearts | diamonds));
+
+        if (quads != 0) {
+            int quad = 31 - Integer.numberOfLeadingZeros(quads);
+            int kicker = TOP_FIVE[ranks & ~(1 << quad)] >>> 16;
+            return (FOUR_OF_A_KIND << CATEGORY_SHIFT) | (quad << 16) | (kicker << 12);
+        }
+
+        int trips = atLeastThree;
+        int pairs = atLeastTwo & ~atLeastThree;
+        if (trips != 0) {
+            int trip = 31 - Integer.numberOfLeadingZeros(trips);
+            int rest = (trips & ~(1 << trip)) | pairs;
+            if (rest != 0) {
+                int pair = 31 - Integer.numberOfLeadingZeros(rest);
+                return (FULL_HOUSE << CATEGORY_SHIFT) | (trip << 16) | (pair << 12);
+            }
+        }
+
+        int straight = STRAIGHT_HIGH[ranks];
+        if (straight != 0) {
+            return (STRAIGHT << CATEGORY_SHIFT) | ((straight - 1) << 16);
+        }
+
+        if (trips != 0) {
+            int trip = 31 - Integer.numberOfLeadingZeros(trips);
+            int kickers = TOP_FIVE[ranks & ~(1 << trip)] >>> 12;
+            return (THREE_OF_A_KIND << CATEGORY_SHIFT) | (trip << 16) | (kickers << 8);
+        }
+
+        if (pairs != 0) {
+            int high = 31 - Integer.numberOfLeadingZeros(pairs);
+            int lowerPairs = pairs & ~(1 << high);
+            if (lowerPairs != 0) {
+                int low = 31 - Integer.numberOfLeadingZeros(lowerPairs);
+                int kicker = TOP_FIVE[ranks & ~(1 << high) & ~(1 << low)] >>> 16;
+                return (TWO_PAIR << CATEGORY_SHIFT) | (high << 16) | (low << 12) | (kicker << 8);
+            }
+            int kickers = TOP_FIVE[ranks & ~(1 << high)] >>> 8;
+            return (ONE_PAIR << CATEGORY_SHIFT) | (high << 16) | (kickers << 4);
+        }
+
+        return TOP_FIVE[ranks];
+    }
+
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5) {
+        return evaluate((1L << c1) | (1L << c2) | (1L << c3) | (1L << c4) | (1L << c5));
+    }
+
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5, int c6) {
+        return evaluate((1L << c1) | (1L << c2) | (1L << c3) | (1L << c4) | (1L << c5) | (1L << c6));
+    }
+
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5, int c6, int c7) {
+        return evaluate((1L << c1) | (1L << c2) | (1L << c3) | (1L << c4) | (1L << c5)
+                | (1L << c6) | (1L << c7));
+    }
+
+    public static int evaluate(int[] cards, int offset, int count) {
+        long mask = 0L;
+        for (int i = offset; i < offset + count; i++) {
+            mask |= 1L << cards[i];
+        }
+        return evaluate(mask);
+    }
+
+    /**
+     * 手牌 + 公共牌，合计必须是 5~7 张，否则返回 -1。
+     */
+    public static int evaluate(List<Card> holeCards, List<Card> communityCards) {
+        long mask = 0L;
+        int count = 0;
+        if (holeCards != null) {
+            for (int i = 0; i < holeCards.size(); i++) {
+                int code = holeCards.get(i).getCode();
+                if (code < 0) return -1;
+                mask |= 1L << code;
+                count++;
+            }
+        }
+        if (communityCards != null) {
+            for (int i = 0; i < communityCards.size(); i++) {
+                int code = communityCards.get(i).getCode();
+                if (code < 0) return -1;
+                mask |= 1L << code;
+                count++;
+            }
+        }
+        if (count < 5 || count > 7 || Long.bitCount(mask) != count) {
+            return -1;
+        }
+        return evaluate(mask);
+    }
+
+    public static int getCategory(int handValue) {
+        return handValue >>> CATEGORY_SHIFT;
+    }
+
+    public static String getCategoryName(int handValue) {
+        switch (getCategory(handValue)) {
+            case STRAIGHT_FLUSH: return "同花顺";
+            case FOUR_OF_A_KIND: return "四条";
+            case FULL_HOUSE: return "葫芦";
+            case FLUSH: return "同花";
+            case STRAIGHT: return "顺子";
+            case THREE_OF_A_KIND: return "三条";
+            case TWO_PAIR: return "两对";
+            case ONE_PAIR: return "一对";
+            default: return "高牌";
+        }
+    }
+}
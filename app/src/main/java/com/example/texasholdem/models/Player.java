@@ -1,12 +1,14 @@
 package com.example.texasholdem.models;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class Player {
     private String id;
     private String name;
     private int chips;
-    private List<Card> hand;
+    // 自己持有的列表，setHand 复制内容，回收的座位复用它
+    private final List<Card> hand = new ArrayList<>(2);
     private int bet;
     private boolean folded;
     private boolean allIn;
@@ -24,6 +26,40 @@ public class Player {
         this.isDealer = false;
     }
 
+    public Player copy() {
+        Player copy = new Player(id, name);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * 把 source 的全部字段复制过来，手牌复制到自己的列表里，不分配内存。
+     */
+    public void copyFrom(Player source) {
+        id = source.id;
+        name = source.name;
+        chips = source.chips;
+        setHand(source.hand);
+        bet = source.bet;
+        folded = source.folded;
+        allIn = source.allIn;
+        isCurrentPlayer = source.isCurrentPlayer;
+        isDealer = source.isDealer;
+    }
+
+    // 回收的座位重新使用前恢复成构造时的默认值
+    void reset() {
+        id = null;
+        name = null;
+        chips = 1000;
+        hand.clear();
+        bet = 0;
+        folded = false;
+        allIn = false;
+        isCurrentPlayer = false;
+        isDealer = false;
+    }
+
     public String getId() {
         return id;
     }
@@ -52,8 +88,20 @@ public class Player {
         return hand;
     }
 
+    /**
+     * 复制 hand 的内容，之后修改传入的列表不影响这个玩家；null 表示没有手牌。
+     */
     public void setHand(List<Card> hand) {
-        this.hand = hand;
+        if (hand == this.hand) {
+            return;
+        }
+        this.hand.clear();
+        if (hand != null) {
+            // 不用 addAll，它会先复制出一个数组
+            for (int i = 0; i < hand.size(); i++) {
+                this.hand.add(hand.get(i));
+            }
+        }
     }
 
     public int getBet() {
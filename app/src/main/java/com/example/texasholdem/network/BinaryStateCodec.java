@@ -0,0 +1,263 @@
+package com.example.texasholdem.network;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 服务器 binaryCodec.js 的客户端解码器，握手时带上 stateFormat=binary 后
+ * 状态消息以 byte[] 形式到达。牌是一个字节（Card.getCode），筹码是 varint，
+ * 玩家用座位号表示；id 和名字组成的座位表只在变化时发送，这里保存最近一份，
+ * 所以每个连接一个实例，断线后需要 reset。带 Event / StateDelta 参数的重载原地解码，
+ * 连同字节游标一起都复用，稳定状态下不分配内存。
+ *
+ * 不依赖 Android，benchmark 模块也会编译这个类。
+ */
+public class BinaryStateCodec {
+    public static final int FORMAT_VERSION = 1;
+
+    static final int FLAG_SUCCESS = 1;
+    static final int FLAG_ROSTER = 1 << 1;
+    static final int FLAG_MESSAGE = 1 << 2;
+    static final int FLAG_PLAYER_ID = 1 << 3;
+    static final int FLAG_GAME_STATE = 1 << 4;
+    static final int FLAG_DELTA = 1 << 5;
+
+    static final int PLAYER_FOLDED = 1;
+    static final int PLAYER_ALL_IN = 1 << 1;
+    static final int PLAYER_CURRENT = 1 << 2;
+    static final int PLAYER_DEALER = 1 << 3;
+
+    // 增量里这几个布尔字段的新值合在一个字节里
+    private static final int PATCH_FLAGS = StateDelta.FOLDED | StateDelta.ALL_IN
+            | StateDelta.IS_CURRENT_PLAYER | StateDelta.IS_DEALER;
+
+    private static final String[] PHASES = {"waiting", "preflop", "flop", "turn", "river", "showdown"};
+
+    private String roomId;
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+
+    private final Input in = new Input();
+
+    // 字节游标，越界时抛 IOException；每条消息 reset 一次，反复使用
+    private static class Input {
+        byte[] data;
+        int pos;
+
+        void reset(byte[] data) {
+            this.data = data;
+            this.pos = 0;
+        }
+
+        int u8() throws IOException {
+            if (pos >= data.length) {
+                throw new IOException("Truncated binary state");
+            }
+            return data[pos++] & 0xFF;
+        }
+
+        long varlong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        int varint() throws IOException {
+            long value = varlong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("Value out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        String string() throws IOException {
+            int length = varint();
+            if (pos + length > data.length) {
+                throw new IOException("Truncated binary state");
+            }
+            String value = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        // 读一组牌，替换 out 原来的内容
+        void cards(List<Card> out) throws IOException {
+            int count = u8();
+            out.clear();
+            for (int i = 0; i < count; i++) {
+                int code = u8();
+                if (code >= 52) {
+                    throw new IOException("Invalid card code: " + code);
+                }
+                out.add(Card.of(code));
+            }
+        }
+    }
+
+    public static boolean isDelta(byte[] data) {
+        return data.length > 1 && (data[1] & FLAG_DELTA) != 0;
+    }
+
+    /**
+     * 断线重连后服务器会重新发送座位表，旧的不能再用。
+     */
+    public void reset() {
+        roomId = null;
+        ids.clear();
+        names.clear();
+    }
+
+    public GameStateDecoder.Event decode(byte[] data) throws IOException {
+        return decode(data, new GameStateDecoder.Event());
+    }
+
+    public GameStateDecoder.Event decode(byte[] data, GameStateDecoder.Event event) throws IOException {
+        in.reset(data);
+        int flags = readHeader(in);
+        event.reset();
+        event.version = in.varlong();
+        if ((flags & FLAG_DELTA) != 0) {
+            throw new IOException("Expected a snapshot but got a delta");
+        }
+        int currentSeat = in.varint();
+        int joinedSeat = in.varint();
+        event.success = (flags & FLAG_SUCCESS) != 0;
+        if ((flags & FLAG_MESSAGE) != 0) event.message = in.string();
+        if ((flags & FLAG_PLAYER_ID) != 0) event.playerId = in.string();
+        if ((flags & FLAG_ROSTER) != 0) readRoster(in);
+        event.currentPlayerId = idAt(currentSeat);
+
+        if ((flags & FLAG_GAME_STATE) != 0) {
+            GameState gameState = event.state;
+            readGameState(in, gameState);
+            event.hasGameState = true;
+            if (joinedSeat > 0 && joinedSeat <= gameState.getPlayers().size()) {
+                // 交给界面线程，不能是会被下一条消息覆盖的座位
+                event.player = gameState.getPlayers().get(joinedSeat - 1).copy();
+            }
+        }
+        return event;
+    }
+
+    public StateDelta decodeDelta(byte[] data) throws IOException {
+        return decodeDelta(data, new StateDelta());
+    }
+
+    public StateDelta decodeDelta(byte[] data, StateDelta delta) throws IOException {
+        in.reset(data);
+        int flags = readHeader(in);
+        if ((flags & FLAG_DELTA) == 0) {
+            throw new IOException("Expected a delta but got a snapshot");
+        }
+        delta.reset();
+        delta.version = in.varlong();
+        delta.baseVersion = in.varlong();
+        int currentSeat = in.varint();
+        in.varint(); // 增量不会带新加入的玩家
+        if ((flags & FLAG_MESSAGE) != 0) in.string();
+        if ((flags & FLAG_PLAYER_ID) != 0) in.string();
+        if ((flags & FLAG_ROSTER) != 0) readRoster(in);
+        delta.currentPlayerId = idAt(currentSeat);
+
+        int changed = in.u8();
+        delta.changed = changed;
+        if ((changed & StateDelta.POT) != 0) delta.pot = in.varint();
+        if ((changed & StateDelta.CURRENT_BET) != 0) delta.currentBet = in.varint();
+        if ((changed & StateDelta.CURRENT_PLAYER_INDEX) != 0) delta.currentPlayerIndex = in.u8();
+        if ((changed & StateDelta.GAME_PHASE) != 0) delta.gamePhase = phaseName(in.u8());
+        if ((changed & StateDelta.DEALER_INDEX) != 0) delta.dealerIndex = in.u8();
+        if ((changed & StateDelta.COMMUNITY_CARDS) != 0) in.cards(delta.communityCards);
+
+        int count = in.u8();
+        for (int i = 0; i < count; i++) {
+            StateDelta.PlayerPatch patch = delta.addPlayer();
+            patch.index = in.u8();
+            int mask = in.u8();
+            patch.changed = mask;
+            if ((mask & StateDelta.CHIPS) != 0) patch.chips = in.varint();
+            if ((mask & StateDelta.BET) != 0) patch.bet = in.varint();
+            if ((mask & PATCH_FLAGS) != 0) {
+                int values = in.u8();
+                patch.folded = (values & PLAYER_FOLDED) != 0;
+                patch.allIn = (values & PLAYER_ALL_IN) != 0;
+                patch.isCurrentPlayer = (values & PLAYER_CURRENT) != 0;
+                patch.isDealer = (values & PLAYER_DEALER) != 0;
+            }
+            if ((mask & StateDelta.HAND) != 0) in.cards(patch.hand);
+        }
+        return delta;
+    }
+
+    private static int readHeader(Input in) throws IOException {
+        int format = in.u8();
+        if (format != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary state format: " + format);
+        }
+        return in.u8();
+    }
+
+    private void readRoster(Input in) throws IOException {
+        roomId = in.string();
+        int count = in.u8();
+        ids.clear();
+        names.clear();
+        for (int i = 0; i < count; i++) {
+            ids.add(in.string());
+            names.add(in.string());
+        }
+    }
+
+    // 座位号从 1 开始，0 表示没有
+    private String idAt(int seat) {
+        return seat > 0 && seat <= ids.size() ? ids.get(seat - 1) : null;
+    }
+
+    private static String phaseName(int code) throws IOException {
+        if (code >= PHASES.length) {
+            throw new IOException("Invalid game phase: " + code);
+        }
+        return PHASES[code];
+    }
+
+    // 原地解码到 gameState 里，座位复用上一次的 Player
+    private void readGameState(Input in, GameState gameState) throws IOException {
+        gameState.clear();
+        gameState.setRoomId(roomId);
+        gameState.setPot(in.varint());
+        gameState.setCurrentBet(in.varint());
+        gameState.setCurrentPlayerIndex(in.u8());
+        gameState.setDealerIndex(in.u8());
+        gameState.setGamePhase(phaseName(in.u8()));
+        in.cards(gameState.getCommunityCards());
+
+        int count = in.u8();
+        if (count != ids.size()) {
+            throw new IOException("Player count " + count + " does not match roster " + ids.size());
+        }
+        for (int i = 0; i < count; i++) {
+            int flags = in.u8();
+            Player player = gameState.addSeat();
+            player.setId(ids.get(i));
+            player.setName(names.get(i));
+            player.setChips(in.varint());
+            player.setBet(in.varint());
+            player.setFolded((flags & PLAYER_FOLDED) != 0);
+            player.setAllIn((flags & PLAYER_ALL_IN) != 0);
+            player.setCurrentPlayer((flags & PLAYER_CURRENT) != 0);
+            player.setDealer((flags & PLAYER_DEALER) != 0);
+            in.cards(player.getHand());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.texasholdem.network;
+
+import com.example.texasholdem.models.GameState;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+
+/**
+ * 客户端协议里与平台无关的部分：握手参数、事件名、请求体，以及状态消息的解码和增量合并。
+ * GameSocketManager 在解码线程上使用它，压测工具（loadtest 模块）的每个机器人各持有一个。
+ *
+ * 实例不是线程安全的，只能在一个线程上使用；构建请求体的静态方法可以随处调用。
+ * 消息都原地解码到实例自己持有的对象里，返回的 Event、StateDelta、GameState 在下一次解码时
+ * 会被覆盖，需要留到之后的要自己复制（GameState.copyFrom）。不依赖 Android。
+ */
+public class GameProtocol {
+
+    // 优先请求二进制状态（BinaryStateCodec），不支持的服务器会退回 JSON；
+    // sync=delta 让下注过程中的状态更新只发送变化的字段
+    public static final String HANDSHAKE_QUERY = "stateFormat=binary&sync=delta";
+
+    // 服务器发来的事件
+    public static final String JOINED_ROOM = "joinedRoom";
+    public static final String PLAYER_JOINED = "playerJoined";
+    public static final String PLAYER_LEFT = "playerLeft";
+    public static final String GAME_STARTED = "gameStarted";
+    public static final String GAME_STATE_UPDATED = "gameStateUpdated";
+    public static final String STATE_DELTA = "stateDelta";
+    public static final String SESSION = "session";
+    public static final String SESSION_RESUMED = "sessionResumed";
+
+    // 发给服务器的事件
+    public static final String JOIN_ROOM = "joinRoom";
+    public static final String LEAVE_ROOM = "leaveRoom";
+    public static final String RESUME_SESSION = "resumeSession";
+    public static final String START_GAME = "startGame";
+    public static final String MAKE_BET = "makeBet";
+    public static final String REQUEST_SNAPSHOT = "requestSnapshot";
+
+    private final GameStateDecoder decoder = new GameStateDecoder();
+    private final BinaryStateCodec binaryCodec = new BinaryStateCodec();
+    // 快照直接解码进 syncedState，增量也在它上面原地合并
+    private final GameState syncedState = new GameState();
+    private final GameStateDecoder.Event event = new GameStateDecoder.Event(syncedState);
+    private final StateDelta delta = new StateDelta();
+    // 增量同步的基准：syncedState 有效时它的版本号
+    private boolean synced;
+    private long stateVersion = -1;
+    private boolean snapshotRequested;
+
+    /**
+     * 状态消息的第二个参数是房间事件序号，旧版服务器不带时返回 -1。
+     */
+    public static long seqOf(Object[] args) {
+        return args.length > 1 && args[1] instanceof Number ? ((Number) args[1]).longValue() : -1;
+    }
+
+    /**
+     * 反映自己下注的状态消息带回的 actionId（第三个参数），没有时返回 0。
+     */
+    public static int actionIdOf(Object[] args) {
+        return args.length > 2 && args[2] instanceof Number ? ((Number) args[2]).intValue() : 0;
+    }
+
+    public static JSONObject joinRoom(String roomId, String playerName) throws JSONException {
+        JSONObject data = new JSONObject();
+        data.put("roomId", roomId);
+        data.put("playerName", playerName);
+        return data;
+    }
+
+    public static JSONObject resumeSession(String token, long lastSeq) throws JSONException {
+        JSONObject data = new JSONObject();
+        data.put("token", token);
+        data.put("lastSeq", lastSeq);
+        return data;
+    }
+
+    public static JSONObject startGame(String roomId) throws JSONException {
+        JSONObject data = new JSONObject();
+        data.put("roomId", roomId);
+        return data;
+    }
+
+    public static JSONObject makeBet(String roomId, String action, int amount, int actionId) throws JSONException {
+        JSONObject data = new JSONObject();
+        data.put("roomId", roomId);
+        data.put("action", action);
+        if (amount > 0) {
+            data.put("amount", amount);
+        }
+        data.put("actionId", actionId);
+        return data;
+    }
+
+    /**
+     * 解码带完整状态的消息（joinedRoom、playerJoined、playerLeft、gameStarted、gameStateUpdated），
+     * 有版本号的快照同时成为之后增量的基准。
+     */
+    public GameStateDecoder.Event decodeSnapshot(Object payload) throws IOException {
+        // 解码到一半失败时基准已经被改了一部分，只能等下一份快照
+        synced = false;
+        decode(payload);
+        if (event.getGameState() != null && event.getVersion() >= 0) {
+            synced = true;
+            stateVersion = event.getVersion();
+            snapshotRequested = false;
+        }
+        return event;
+    }
+
+    public StateDelta decodeDelta(Object payload) throws IOException {
+        if (payload instanceof byte[]) {
+            return binaryCodec.decodeDelta((byte[]) payload, delta);
+        }
+        if (payload instanceof String) {
+            return decoder.decodeDelta((String) payload, delta);
+        }
+        return decoder.decodeDelta(payload.toString(), delta);
+    }
+
+    /**
+     * 把增量原地合并到基准上并返回基准。版本不连续（丢消息、基准失效）时
+     * 丢弃基准并返回 null，调用方应当用 claimSnapshotRequest 向服务器要一份全量快照。
+     */
+    public GameState applyDelta(StateDelta delta) {
+        if (!synced || delta.getBaseVersion() != stateVersion
+                || !delta.applyTo(syncedState)) {
+            synced = false;
+            return null;
+        }
+        stateVersion = delta.getVersion();
+        return syncedState;
+    }
+
+    /**
+     * 返回 true 时调用方应发送 requestSnapshot。快照回来之前后续的增量同样对不上，不必重复请求。
+     */
+    public boolean claimSnapshotRequest() {
+        if (snapshotRequested) {
+            return false;
+        }
+        snapshotRequested = true;
+        return true;
+    }
+
+    /**
+     * 消息解析失败时丢弃基准，等待新的快照。
+     */
+    public void invalidate() {
+        synced = false;
+    }
+
+    /**
+     * 连接断开时调用。版本号跟着会话走，恢复会话后增量还能接上，所以基准保留；
+     * 座位表按连接发送，重连后服务器会重新发；断线前发出的快照请求作废。
+     */
+    public void connectionLost() {
+        snapshotRequested = false;
+        binaryCodec.reset();
+    }
+
+    public long getStateVersion() {
+        return stateVersion;
+    }
+
+    // 按服务器实际发送的格式解码：二进制附件是 byte[]，stateFormat=text 是字符串；
+    // 旧版服务器仍会发 JSONObject，这时退回到先序列化再解码
+    private void decode(Object payload) throws IOException {
+        if (payload instanceof byte[]) {
+            binaryCodec.decode((byte[]) payload, event);
+        } else if (payload instanceof String) {
+            decoder.decode((String) payload, event);
+        } else {
+            decoder.decode(payload.toString(), event);
+        }
+    }
+}
@@ -1,53 +1,154 @@
 package com.example.texasholdem.network;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import android.view.Choreographer;
 
-import com.example.texasholdem.models.Card;
+import com.example.texasholdem.BuildConfig;
+import com.example.texasholdem.metrics.LatencyTracker;
+import com.example.texasholdem.metrics.TraceRecorder;
 import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.GameStateBuffers;
 import com.example.texasholdem.models.Player;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import io.socket.client.IO;
 import io.socket.client.Socket;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
+/**
+ * 状态管线：socket 线程只把原始消息交给单线程的解码线程，解码、增量合并都在那里完成；
+ * 得到的状态复制进 GameStateBuffers 的后台缓冲再原子交换出去，由 Choreographer 每帧最多取一次交给界面。
+ * 连续到来的多次更新（例如服务器清理掉线玩家时的广播）只会渲染最后一次。
+ * 从解码到交给界面用的都是预先分配、反复使用的对象，稳定状态下每次更新不分配 GameState 和 Player。
+ *
+ * 整个应用共用一个实例（getInstance），MainActivity 启动时就开始连接，
+ * 房间成员身份跨界面保持；各界面在 onResume / onPause 中切换监听器。
+ * 所有回调都在主线程执行，getInstance 也必须在主线程调用。
+ *
+ * 断线后按指数退避加随机抖动重连；重连成功时凭 resumeToken 恢复会话，
+ * 服务器只补发 lastSeq 之后错过的事件，增量同步接着原来的版本继续。
+ */
 public class GameSocketManager {
     private static final String TAG = "GameSocketManager";
     private static final String SERVER_URL = "http://10.0.2.2:3000"; // Android模拟器使用10.0.2.2访问localhost
     
+    private static GameSocketManager instance;
+    
     private Socket socket;
     private GameSocketListener listener;
-    private String currentRoomId;
-    private String currentPlayerId;
+    // 要加入的房间，连接建立（包括重连）后自动加入；在 joinLock 内修改
+    private final Object joinLock = new Object();
+    private volatile String currentRoomId;
+    private String currentPlayerName;
+    private boolean socketConnected;
+    private volatile String currentPlayerId;
+    // 服务器在入座时下发，断线重连后用来拿回座位；在 joinLock 内修改
+    private String resumeToken;
+    // 收到的最后一个房间事件序号，在 socket 线程上按到达顺序更新
+    private volatile long lastSeq;
+    // 解码和增量合并，只在解码线程上使用
+    private final GameProtocol protocol = new GameProtocol();
+    // 下注从点击到界面更新的各段耗时
+    private final LatencyTracker latencyTracker = new LatencyTracker();
+    
+    // 按到达顺序解码，保证增量按版本依次应用
+    private final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "GameStateDecoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Choreographer choreographer = Choreographer.getInstance();
+    // 交给界面的 GameState 在下一次交付之前不会被修改，界面不能持有得更久
+    private final GameStateBuffers stateBuffers = new GameStateBuffers();
+    private final AtomicBoolean frameScheduled = new AtomicBoolean();
+    // 最近一次交给界面的状态（前台缓冲），切换监听器时补发给新界面；只在主线程读写
+    private GameState renderedState;
+    // 下一帧没有新状态时补发 renderedState，只在主线程读写
+    private boolean redeliver;
+    private final Choreographer.FrameCallback renderCallback = frameTimeNanos -> {
+        // 先清标志再取状态，取走之后新发布的状态会再排一帧
+        frameScheduled.set(false);
+        GameState state = stateBuffers.acquire();
+        if (state == null && redeliver) {
+            state = renderedState;
+        }
+        redeliver = false;
+        if (state != null) {
+            renderedState = state;
+            if (listener != null) {
+                listener.onGameStateUpdated(state);
+            }
+            latencyTracker.rendered();
+        }
+    };
     
     public interface GameSocketListener {
         void onConnected();
         void onDisconnected();
-        void onJoinedRoom(boolean success, String message, GameState gameState);
-        void onPlayerJoined(Player player, GameState gameState);
-        void onPlayerLeft(String playerId, GameState gameState);
-        void onGameStarted(GameState gameState);
+        void onJoinedRoom(boolean success, String message);
+        void onPlayerJoined(Player player);
+        void onPlayerLeft(String playerId);
+        void onGameStarted();
+        // 每帧最多一次，只带最新的状态；gameState 会被复用，只在下一次回调之前有效
         void onGameStateUpdated(GameState gameState);
         void onError(String error);
     }
     
-    public GameSocketManager(GameSocketListener listener) {
-        this.listener = listener;
+    public static GameSocketManager getInstance() {
+        if (instance == null) {
+            instance = new GameSocketManager();
+        }
+        return instance;
+    }
+    
+    private GameSocketManager() {
         initializeSocket();
     }
     
+    /**
+     * 界面在 onResume 中调用。新监听器会在下一帧收到当前的游戏状态。
+     */
+    public void setListener(GameSocketListener listener) {
+        this.listener = listener;
+        if (listener != null && renderedState != null) {
+            // 已有更新的状态在排队时优先交付新的
+            redeliver = true;
+            if (frameScheduled.compareAndSet(false, true)) {
+                choreographer.postFrameCallback(renderCallback);
+            }
+        }
+    }
+    
+    /**
+     * 界面在 onPause 中调用，只有当前监听器是它自己时才清除。
+     */
+    public void removeListener(GameSocketListener listener) {
+        if (this.listener == listener) {
+            this.listener = null;
+        }
+    }
+    
     private void initializeSocket() {
         try {
             IO.Options options = new IO.Options();
-            options.forceNew = true;
             options.reconnection = true;
-            options.reconnectionAttempts = 5;
+            // 不限次数，间隔从 1s 起翻倍到 30s 封顶，每次上下浮动 50%，
+            // 服务器重启时大量客户端不会在同一时刻一起重连
+            options.reconnectionAttempts = Integer.MAX_VALUE;
             options.reconnectionDelay = 1000;
+            options.reconnectionDelayMax = 30000;
+            options.randomizationFactor = 0.5;
+            options.query = GameProtocol.HANDSHAKE_QUERY;
             
             socket = IO.socket(SERVER_URL, options);
             setupEventListeners();
@@ -62,139 +163,263 @@ public class GameSocketManager {
     private void setupEventListeners() {
         socket.on(Socket.EVENT_CONNECT, args -> {
             Log.d(TAG, "Connected to server");
-            if (listener != null) {
-                listener.onConnected();
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.CONNECTED);
+            synchronized (joinLock) {
+                socketConnected = true;
+                // 连接真正建立后再加入房间；重连时先尝试恢复原来的会话
+                if (currentRoomId != null) {
+                    if (resumeToken != null) {
+                        emitResume();
+                    } else {
+                        emitJoin();
+                    }
+                }
             }
+            postToMain(() -> {
+                if (listener != null) {
+                    listener.onConnected();
+                }
+            });
         });
         
         socket.on(Socket.EVENT_DISCONNECT, args -> {
             Log.d(TAG, "Disconnected from server");
-            if (listener != null) {
-                listener.onDisconnected();
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.DISCONNECTED);
+            synchronized (joinLock) {
+                socketConnected = false;
             }
+            decodeExecutor.execute(protocol::connectionLost);
+            postToMain(() -> {
+                if (listener != null) {
+                    listener.onDisconnected();
+                }
+            });
         });
         
         socket.on(Socket.EVENT_CONNECT_ERROR, args -> {
             Log.e(TAG, "Connection error: " + args[0]);
-            if (listener != null) {
-                listener.onError("Connection error: " + args[0]);
-            }
-        });
-        
-        socket.on("joinedRoom", args -> {
-            try {
-                JSONObject data = (JSONObject) args[0];
-                boolean success = data.getBoolean("success");
-                String message = data.optString("message", "");
-                GameState gameState = null;
-                
-                Log.d(TAG, "joinedRoom event received: " + data.toString());
-                
-                if (success && data.has("gameState")) {
-                    gameState = parseGameState(data.getJSONObject("gameState"));
-                    if (data.has("playerId")) {
-                        currentPlayerId = data.getString("playerId");
-                    }
-                    if (data.has("currentPlayerId")) {
-                        currentPlayerId = data.getString("currentPlayerId");
-                    }
-                    
-                    Log.d(TAG, "Current player ID set to: " + currentPlayerId);
-                    if (gameState != null && gameState.getPlayers() != null) {
-                        Log.d(TAG, "Game state contains " + gameState.getPlayers().size() + " players");
-                        for (Player p : gameState.getPlayers()) {
-                            Log.d(TAG, "Player: " + p.getName() + " (ID: " + p.getId() + ")");
-                        }
-                    }
-                }
-                
+            String error = "Connection error: " + args[0];
+            postToMain(() -> {
                 if (listener != null) {
-                    listener.onJoinedRoom(success, message, gameState);
+                    listener.onError(error);
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error parsing joinedRoom event: " + e.getMessage());
-            }
+            });
         });
         
-        socket.on("playerJoined", args -> {
-            try {
-                JSONObject data = (JSONObject) args[0];
-                Log.d(TAG, "playerJoined event received: " + data.toString());
-                
-                Player player = null;
-                if (data.has("player") && !data.isNull("player")) {
-                    player = parsePlayer(data.getJSONObject("player"));
-                }
-                
-                GameState gameState = null;
-                if (data.has("gameState") && !data.isNull("gameState")) {
-                    gameState = parseGameState(data.getJSONObject("gameState"));
-                    if (gameState != null && gameState.getPlayers() != null) {
-                        Log.d(TAG, "playerJoined game state contains " + gameState.getPlayers().size() + " players");
-                        for (Player p : gameState.getPlayers()) {
-                            Log.d(TAG, "Player: " + p.getName() + " (ID: " + p.getId() + ")");
-                        }
-                    }
+        socket.on(GameProtocol.SESSION, args -> handleSession((JSONObject) args[0]));
+        socket.on(GameProtocol.SESSION_RESUMED, args -> handleSessionResumed((JSONObject) args[0]));
+        
+        onStateEvent(GameProtocol.JOINED_ROOM, TraceRecorder.RECV_JOINED_ROOM, this::handleJoinedRoom);
+        onStateEvent(GameProtocol.PLAYER_JOINED, TraceRecorder.RECV_PLAYER_JOINED, this::handlePlayerJoined);
+        onStateEvent(GameProtocol.PLAYER_LEFT, TraceRecorder.RECV_PLAYER_LEFT, this::handlePlayerLeft);
+        onStateEvent(GameProtocol.GAME_STARTED, TraceRecorder.RECV_GAME_STARTED, this::handleGameStarted);
+        onStateEvent(GameProtocol.GAME_STATE_UPDATED, TraceRecorder.RECV_STATE_UPDATED, this::handleGameStateUpdated);
+        onStateEvent(GameProtocol.STATE_DELTA, TraceRecorder.RECV_STATE_DELTA, this::handleStateDelta);
+    }
+    
+    // 状态消息的参数依次是消息体、房间事件序号（旧版服务器不带）、
+    // 以及自己下注时带回的 actionId；序号按到达顺序在 socket 线程上记下，消息体交给解码线程
+    private void onStateEvent(String event, int traceType, Consumer<Object> handler) {
+        socket.on(event, args -> {
+            long arrivedNanos = System.nanoTime();
+            long seq = GameProtocol.seqOf(args);
+            if (seq >= 0) {
+                lastSeq = seq;
+            }
+            int actionId = GameProtocol.actionIdOf(args);
+            long sentNanos = actionId != 0 ? latencyTracker.responseReceived(actionId, arrivedNanos) : 0;
+            if (BuildConfig.TRACE) TraceRecorder.record(traceType, (int) lastSeq, actionId);
+            decodeExecutor.execute(() -> {
+                handler.accept(args[0]);
+                if (sentNanos != 0) {
+                    latencyTracker.published(sentNanos, arrivedNanos);
                 }
-                
-                if (listener != null) {
-                    listener.onPlayerJoined(player, gameState);
+            });
+        });
+    }
+    
+    // 入座（包括按名字重新加入）时下发的会话信息，之后的事件序号从 seq 往后数
+    private void handleSession(JSONObject data) {
+        synchronized (joinLock) {
+            resumeToken = data.optString("token", null);
+        }
+        lastSeq = data.optLong("seq");
+        currentPlayerId = data.optString("playerId", currentPlayerId);
+    }
+    
+    private void handleSessionResumed(JSONObject data) {
+        if (data.optBoolean("success")) {
+            Log.d(TAG, "Session resumed after seq " + lastSeq);
+            currentPlayerId = data.optString("playerId", currentPlayerId);
+            return;
+        }
+        // 宽限期已过或服务器重启过，座位已经没了，重新加入房间
+        Log.d(TAG, "Session expired, joining room again");
+        if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.RESUME_REJECTED);
+        synchronized (joinLock) {
+            resumeToken = null;
+            if (socketConnected && currentRoomId != null) {
+                emitJoin();
+            }
+        }
+    }
+    
+    // 以下 handle* 方法都在解码线程上执行
+    
+    private void handleJoinedRoom(Object payload) {
+        try {
+            GameStateDecoder.Event event = decodeSnapshot(payload);
+            
+            if (event.isSuccess() && event.getGameState() != null) {
+                GameState gameState = event.getGameState();
+                if (event.getPlayerId() != null) {
+                    currentPlayerId = event.getPlayerId();
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error parsing playerJoined event: " + e.getMessage());
-                if (listener != null) {
-                    listener.onPlayerJoined(null, null);
+                if (event.getCurrentPlayerId() != null) {
+                    currentPlayerId = event.getCurrentPlayerId();
                 }
+                publish(gameState);
             }
-        });
-        
-        socket.on("playerLeft", args -> {
-            try {
-                JSONObject data = (JSONObject) args[0];
-                String playerId = data.getString("playerId");
-                GameState gameState = parseGameState(data.getJSONObject("gameState"));
-                
+            
+            boolean success = event.isSuccess();
+            String message = event.getMessage();
+            postToMain(() -> {
                 if (listener != null) {
-                    listener.onPlayerLeft(playerId, gameState);
+                    listener.onJoinedRoom(success, message);
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error parsing playerLeft event: " + e.getMessage());
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing joinedRoom event: " + e.getMessage());
+        }
+    }
+    
+    private void handlePlayerJoined(Object payload) {
+        Player player = null;
+        try {
+            GameStateDecoder.Event event = decodeSnapshot(payload);
+            GameState gameState = event.getGameState();
+            player = event.getPlayer();
+            publish(gameState);
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing playerJoined event: " + e.getMessage());
+        }
+        
+        Player joined = player;
+        postToMain(() -> {
+            if (listener != null) {
+                listener.onPlayerJoined(joined);
             }
         });
-        
-        socket.on("gameStarted", args -> {
-            try {
-                JSONObject data = (JSONObject) args[0];
-                GameState gameState = parseGameState(data.getJSONObject("gameState"));
-                
-                if (data.has("currentPlayerId")) {
-                    currentPlayerId = data.getString("currentPlayerId");
-                }
-                
+    }
+    
+    private void handlePlayerLeft(Object payload) {
+        try {
+            GameStateDecoder.Event event = decodeSnapshot(payload);
+            publish(event.getGameState());
+            
+            String playerId = event.getPlayerId();
+            postToMain(() -> {
                 if (listener != null) {
-                    listener.onGameStarted(gameState);
+                    listener.onPlayerLeft(playerId);
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error parsing gameStarted event: " + e.getMessage());
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing playerLeft event: " + e.getMessage());
+        }
+    }
+    
+    private void handleGameStarted(Object payload) {
+        try {
+            GameStateDecoder.Event event = decodeSnapshot(payload);
+            
+            if (event.getCurrentPlayerId() != null) {
+                currentPlayerId = event.getCurrentPlayerId();
             }
-        });
-        
-        socket.on("gameStateUpdated", args -> {
-            try {
-                JSONObject data = (JSONObject) args[0];
-                GameState gameState = parseGameState(data.getJSONObject("gameState"));
-                
-                if (data.has("currentPlayerId")) {
-                    currentPlayerId = data.getString("currentPlayerId");
-                }
-                
+            publish(event.getGameState());
+            
+            postToMain(() -> {
                 if (listener != null) {
-                    listener.onGameStateUpdated(gameState);
+                    listener.onGameStarted();
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error parsing gameStateUpdated event: " + e.getMessage());
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing gameStarted event: " + e.getMessage());
+        }
+    }
+    
+    private void handleGameStateUpdated(Object payload) {
+        try {
+            GameStateDecoder.Event event = decodeSnapshot(payload);
+            
+            if (event.getCurrentPlayerId() != null) {
+                currentPlayerId = event.getCurrentPlayerId();
             }
-        });
+            publish(event.getGameState());
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing gameStateUpdated event: " + e.getMessage());
+        }
+    }
+    
+    private void handleStateDelta(Object payload) {
+        try {
+            StateDelta delta = protocol.decodeDelta(payload);
+            long localVersion = protocol.getStateVersion();
+            GameState gameState = protocol.applyDelta(delta);
+            
+            if (gameState == null) {
+                // 版本不连续（丢消息、重连后基准失效）时丢弃增量，向服务器要一份全量快照
+                Log.w(TAG, "State delta " + delta.getBaseVersion() + " -> " + delta.getVersion()
+                        + " does not match local version " + localVersion);
+                if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.DELTA_MISMATCH,
+                        (int) delta.getBaseVersion(), (int) delta.getVersion(), (int) localVersion);
+                requestSnapshot();
+                return;
+            }
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.DELTA,
+                    (int) delta.getBaseVersion(), (int) delta.getVersion(), delta.players.size());
+            
+            if (delta.getCurrentPlayerId() != null) {
+                currentPlayerId = delta.getCurrentPlayerId();
+            }
+            
+            // applyDelta 返回的是协议内部的基准，publish 复制一份，下一次打补丁不会改到界面正在使用的对象
+            publish(gameState);
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing stateDelta event: " + e.getMessage());
+            protocol.invalidate();
+            requestSnapshot();
+        }
+    }
+    
+    // 复制进后台缓冲后发布，只保留最新的状态，并保证下一帧会取走它
+    private void publish(GameState gameState) {
+        if (gameState == null) {
+            return;
+        }
+        stateBuffers.back().copyFrom(gameState);
+        stateBuffers.publish();
+        if (frameScheduled.compareAndSet(false, true)) {
+            choreographer.postFrameCallback(renderCallback);
+        }
+    }
+    
+    private void postToMain(Runnable runnable) {
+        mainHandler.post(runnable);
+    }
+    
+    private GameStateDecoder.Event decodeSnapshot(Object payload) throws IOException {
+        GameStateDecoder.Event event = protocol.decodeSnapshot(payload);
+        GameState gameState = event.getGameState();
+        if (BuildConfig.TRACE && gameState != null) TraceRecorder.record(TraceRecorder.SNAPSHOT,
+                (int) event.getVersion(), gameState.getPlayers() == null ? 0 : gameState.getPlayers().size());
+        return event;
+    }
+    
+    private void requestSnapshot() {
+        if (socket == null || !socket.connected() || !protocol.claimSnapshotRequest()) {
+            return;
+        }
+        socket.emit(GameProtocol.REQUEST_SNAPSHOT);
     }
     
     public void connect() {
@@ -209,28 +434,86 @@ public class GameSocketManager {
         }
     }
     
+    /**
+     * 应用退出时调用：断开连接、停止解码线程，之后不会再有任何回调。
+     * 之后 getInstance 会创建新的实例。
+     */
+    public void release() {
+        if (instance == this) {
+            instance = null;
+        }
+        listener = null;
+        if (socket != null) {
+            socket.off();
+            socket.disconnect();
+        }
+        choreographer.removeFrameCallback(renderCallback);
+        mainHandler.removeCallbacksAndMessages(null);
+        decodeExecutor.shutdownNow();
+    }
+    
+    /**
+     * 还没连上时先记下来，连接建立后自动加入。
+     */
     public void joinRoom(String roomId, String playerName) {
-        if (socket != null && socket.connected()) {
+        synchronized (joinLock) {
             currentRoomId = roomId;
-            
-            JSONObject data = new JSONObject();
-            try {
-                data.put("roomId", roomId);
-                data.put("playerName", playerName);
-                socket.emit("joinRoom", data);
-                Log.d(TAG, "Joining room: " + roomId + " as " + playerName);
-            } catch (Exception e) {
-                Log.e(TAG, "Error joining room: " + e.getMessage());
+            currentPlayerName = playerName;
+            resumeToken = null;
+            if (socketConnected) {
+                emitJoin();
             }
         }
+        connect();
+    }
+    
+    // 调用方持有 joinLock
+    private void emitResume() {
+        try {
+            socket.emit(GameProtocol.RESUME_SESSION, GameProtocol.resumeSession(resumeToken, lastSeq));
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.RESUME, (int) lastSeq);
+            Log.d(TAG, "Resuming session in room " + currentRoomId + " after seq " + lastSeq);
+        } catch (Exception e) {
+            Log.e(TAG, "Error resuming session: " + e.getMessage());
+        }
+    }
+    
+    // 调用方持有 joinLock
+    private void emitJoin() {
+        try {
+            socket.emit(GameProtocol.JOIN_ROOM, GameProtocol.joinRoom(currentRoomId, currentPlayerName));
+            if (BuildConfig.TRACE) TraceRecorder.record(TraceRecorder.JOIN);
+            Log.d(TAG, "Joining room: " + currentRoomId + " as " + currentPlayerName);
+        } catch (Exception e) {
+            Log.e(TAG, "Error joining room: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 离开房间但保持连接，回到大厅后可以直接加入下一个房间。
+     */
+    public void leaveRoom() {
+        synchronized (joinLock) {
+            if (currentRoomId == null) {
+                return;
+            }
+            currentRoomId = null;
+            currentPlayerName = null;
+            resumeToken = null;
+            if (socketConnected) {
+                socket.emit(GameProtocol.LEAVE_ROOM);
+            }
+        }
+        // 丢掉还没交付的状态
+        stateBuffers.acquire();
+        renderedState = null;
+        redeliver = false;
     }
     
     public void startGame() {
         if (socket != null && socket.connected() && currentRoomId != null) {
-            JSONObject data = new JSONObject();
             try {
-                data.put("roomId", currentRoomId);
-                socket.emit("startGame", data);
+                socket.emit(GameProtocol.START_GAME, GameProtocol.startGame(currentRoomId));
             } catch (Exception e) {
                 Log.e(TAG, "Error starting game: " + e.getMessage());
             }
@@ -239,20 +522,33 @@ public class GameSocketManager {
     
     public void makeBet(String action, int amount) {
         if (socket != null && socket.connected() && currentRoomId != null) {
-            JSONObject data = new JSONObject();
             try {
-                data.put("roomId", currentRoomId);
-                data.put("action", action);
-                if (amount > 0) {
-                    data.put("amount", amount);
-                }
-                socket.emit("makeBet", data);
+                int actionId = latencyTracker.actionSent();
+                socket.emit(GameProtocol.MAKE_BET, GameProtocol.makeBet(currentRoomId, action, amount, actionId));
+                if (BuildConfig.TRACE) traceBet(action, actionId, amount);
             } catch (Exception e) {
                 Log.e(TAG, "Error making bet: " + e.getMessage());
             }
         }
     }
     
+    private static void traceBet(String action, int actionId, int amount) {
+        switch (action) {
+            case "fold":
+                TraceRecorder.record(TraceRecorder.BET_FOLD, actionId);
+                break;
+            case "call":
+                TraceRecorder.record(TraceRecorder.BET_CALL, actionId);
+                break;
+            case "raise":
+                TraceRecorder.record(TraceRecorder.BET_RAISE, actionId, amount);
+                break;
+            case "allIn":
+                TraceRecorder.record(TraceRecorder.BET_ALL_IN, actionId);
+                break;
+        }
+    }
+    
     public void fold() {
         makeBet("fold", 0);
     }
@@ -269,113 +565,6 @@ public class GameSocketManager {
         makeBet("allIn", 0);
     }
     
-    private GameState parseGameState(JSONObject json) {
-        try {
-            GameState gameState = new GameState();
-            gameState.setRoomId(json.getString("roomId"));
-            gameState.setPot(json.getInt("pot"));
-            gameState.setCurrentBet(json.getInt("currentBet"));
-            gameState.setCurrentPlayerIndex(json.getInt("currentPlayerIndex"));
-            gameState.setGamePhase(json.getString("gamePhase"));
-            gameState.setDealerIndex(json.getInt("dealerIndex"));
-            
-            // Parse players
-            List<Player> players = new ArrayList<>();
-            if (json.has("players")) {
-                JSONArray playersArray = json.getJSONArray("players");
-                for (int i = 0; i < playersArray.length(); i++) {
-                    JSONObject playerJson = playersArray.getJSONObject(i);
-                    Player player = parsePlayer(playerJson);
-                    if (player != null) {
-                        players.add(player);
-                    }
-                }
-            }
-            gameState.setPlayers(players);
-            
-            // Parse community cards
-            List<Card> communityCards = new ArrayList<>();
-            if (json.has("communityCards")) {
-                JSONArray cardsArray = json.getJSONArray("communityCards");
-                for (int i = 0; i < cardsArray.length(); i++) {
-                    JSONObject cardJson = cardsArray.getJSONObject(i);
-                    Card card = parseCard(cardJson);
-                    if (card != null) {
-                        communityCards.add(card);
-                    }
-                }
-            }
-            gameState.setCommunityCards(communityCards);
-            
-            return gameState;
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing game state: " + e.getMessage());
-            return null;
-        }
-    }
-    
-    private Player parsePlayer(JSONObject json) {
-        try {
-            if (json == null) {
-                Log.e(TAG, "parsePlayer: JSON object is null");
-                return null;
-            }
-            
-            Log.d(TAG, "parsePlayer: parsing JSON: " + json.toString());
-            
-            String id = json.getString("id");
-            String name = json.getString("name");
-            Player player = new Player(id, name);
-            
-            // 设置默认值，避免JSON中缺少字段时的错误
-            player.setChips(json.optInt("chips", 1000));
-            player.setBet(json.optInt("bet", 0));
-            player.setFolded(json.optBoolean("folded", false));
-            player.setAllIn(json.optBoolean("allIn", false));
-            
-            // 解析当前玩家和庄家标识
-            player.setCurrentPlayer(json.optBoolean("isCurrentPlayer", false));
-            player.setDealer(json.optBoolean("isDealer", false));
-            
-            Log.d(TAG, "parsePlayer: player " + name + " - isCurrentPlayer: " + player.isCurrentPlayer() + ", isDealer: " + player.isDealer());
-            
-            // Parse hand cards
-            List<Card> hand = new ArrayList<>();
-            if (json.has("hand") && !json.isNull("hand")) {
-                JSONArray handArray = json.getJSONArray("hand");
-                for (int i = 0; i < handArray.length(); i++) {
-                    JSONObject cardJson = handArray.getJSONObject(i);
-                    Card card = parseCard(cardJson);
-                    if (card != null) {
-                        hand.add(card);
-                    }
-                }
-            }
-            player.setHand(hand);
-            
-            Log.d(TAG, "parsePlayer: successfully parsed player: " + name);
-            return player;
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing player: " + e.getMessage());
-            Log.e(TAG, "JSON content: " + (json != null ? json.toString() : "null"));
-            return null;
-        }
-    }
-    
-    private Card parseCard(JSONObject json) {
-        try {
-            String suit = json.getString("suit");
-            String rank = json.getString("rank");
-            int value = json.getInt("value");
-            Card card = new Card(suit, rank, value);
-            card.setVisible(true); // 默认显示卡牌
-            return card;
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing card: " + e.getMessage());
-            return null;
-        }
-    }
-    
     public boolean isConnected() {
         return socket != null && socket.connected();
     }
@@ -387,4 +576,8 @@ public class GameSocketManager {
     public String getCurrentPlayerId() {
         return currentPlayerId;
     }
+    
+    public LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
 } 
\ No newline at end of file
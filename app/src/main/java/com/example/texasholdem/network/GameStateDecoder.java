@@ -0,0 +1,385 @@
+package com.example.texasholdem.network;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * 基于 Gson JsonReader 的流式解码器：一次遍历直接填充 GameState / Player / Card，
+ * 不构建中间的 JSON 树。服务器在 stateFormat=text 时把整个消息作为字符串发送，
+ * 由这里解码；未知字段直接跳过。增量消息 stateDelta 由 decodeDelta 解码。
+ * 带 Event / StateDelta 参数的重载把消息原地解码到上一次用过的对象里，座位和列表都复用。
+ *
+ * 不依赖 Android，benchmark 模块也会编译这个类。
+ */
+public class GameStateDecoder {
+
+    /**
+     * 一条服务器消息里可能出现的全部字段，缺失的字段保持默认值。
+     */
+    public static class Event {
+        boolean success;
+        String message = "";
+        String playerId;
+        String currentPlayerId;
+        Player player;
+        // 状态解码到这个对象里，消息不带状态时 getGameState 返回 null
+        final GameState state;
+        boolean hasGameState;
+        // 服务器给该连接的状态版本号，旧版服务器不发送时为 -1
+        long version = -1;
+
+        public Event() {
+            this(new GameState());
+        }
+
+        /**
+         * 状态原地解码到 state 里，它的内容会被每条带状态的消息覆盖。
+         */
+        public Event(GameState state) {
+            this.state = state;
+        }
+
+        void reset() {
+            success = false;
+            message = "";
+            playerId = null;
+            currentPlayerId = null;
+            player = null;
+            hasGameState = false;
+            version = -1;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        public String getCurrentPlayerId() {
+            return currentPlayerId;
+        }
+
+        public Player getPlayer() {
+            return player;
+        }
+
+        public GameState getGameState() {
+            return hasGameState ? state : null;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    public Event decode(String json) throws IOException {
+        return decode(json, new Event());
+    }
+
+    public Event decode(String json, Event event) throws IOException {
+        event.reset();
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            readEvent(reader, event);
+        }
+        return event;
+    }
+
+    private void readEvent(JsonReader reader, Event event) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "success": event.success = reader.nextBoolean(); break;
+                case "message": event.message = reader.nextString(); break;
+                case "playerId": event.playerId = reader.nextString(); break;
+                case "currentPlayerId": event.currentPlayerId = reader.nextString(); break;
+                case "player": event.player = readPlayer(reader); break;
+                case "gameState":
+                    readGameState(reader, event.state);
+                    event.hasGameState = true;
+                    break;
+                case "version": event.version = reader.nextLong(); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+    }
+
+    public StateDelta decodeDelta(String json) throws IOException {
+        return decodeDelta(json, new StateDelta());
+    }
+
+    public StateDelta decodeDelta(String json, StateDelta delta) throws IOException {
+        delta.reset();
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            readDelta(reader, delta);
+        }
+        return delta;
+    }
+
+    private void readDelta(JsonReader reader, StateDelta delta) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "baseVersion": delta.baseVersion = reader.nextLong(); break;
+                case "version": delta.version = reader.nextLong(); break;
+                case "currentPlayerId": delta.currentPlayerId = reader.nextString(); break;
+                case "changes": readChanges(reader, delta); break;
+                case "players":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readPlayerPatch(reader, delta.addPlayer());
+                    }
+                    reader.endArray();
+                    break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readChanges(JsonReader reader, StateDelta delta) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "pot":
+                    delta.pot = reader.nextInt();
+                    delta.changed |= StateDelta.POT;
+                    break;
+                case "currentBet":
+                    delta.currentBet = reader.nextInt();
+                    delta.changed |= StateDelta.CURRENT_BET;
+                    break;
+                case "currentPlayerIndex":
+                    delta.currentPlayerIndex = reader.nextInt();
+                    delta.changed |= StateDelta.CURRENT_PLAYER_INDEX;
+                    break;
+                case "gamePhase":
+                    delta.gamePhase = reader.nextString();
+                    delta.changed |= StateDelta.GAME_PHASE;
+                    break;
+                case "dealerIndex":
+                    delta.dealerIndex = reader.nextInt();
+                    delta.changed |= StateDelta.DEALER_INDEX;
+                    break;
+                case "communityCards":
+                    delta.communityCards.clear();
+                    readCards(reader, delta.communityCards);
+                    delta.changed |= StateDelta.COMMUNITY_CARDS;
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readPlayerPatch(JsonReader reader, StateDelta.PlayerPatch patch) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "index":
+                    patch.index = reader.nextInt();
+                    break;
+                case "chips":
+                    patch.chips = reader.nextInt();
+                    patch.changed |= StateDelta.CHIPS;
+                    break;
+                case "bet":
+                    patch.bet = reader.nextInt();
+                    patch.changed |= StateDelta.BET;
+                    break;
+                case "folded":
+                    patch.folded = reader.nextBoolean();
+                    patch.changed |= StateDelta.FOLDED;
+                    break;
+                case "allIn":
+                    patch.allIn = reader.nextBoolean();
+                    patch.changed |= StateDelta.ALL_IN;
+                    break;
+                case "isCurrentPlayer":
+                    patch.isCurrentPlayer = reader.nextBoolean();
+                    patch.changed |= StateDelta.IS_CURRENT_PLAYER;
+                    break;
+                case "isDealer":
+                    patch.isDealer = reader.nextBoolean();
+                    patch.changed |= StateDelta.IS_DEALER;
+                    break;
+                case "hand":
+                    patch.hand.clear();
+                    readCards(reader, patch.hand);
+                    patch.changed |= StateDelta.HAND;
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    public GameState readGameState(JsonReader reader) throws IOException {
+        GameState gameState = new GameState();
+        readGameState(reader, gameState);
+        return gameState;
+    }
+
+    /**
+     * 原地解码到 gameState 里：先 clear，座位用 addSeat 依次取回。
+     */
+    public void readGameState(JsonReader reader, GameState gameState) throws IOException {
+        gameState.clear();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "roomId": gameState.setRoomId(reader.nextString()); break;
+                case "pot": gameState.setPot(reader.nextInt()); break;
+                case "currentBet": gameState.setCurrentBet(reader.nextInt()); break;
+                case "currentPlayerIndex": gameState.setCurrentPlayerIndex(reader.nextInt()); break;
+                case "gamePhase": gameState.setGamePhase(reader.nextString()); break;
+                case "dealerIndex": gameState.setDealerIndex(reader.nextInt()); break;
+                case "players":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readPlayer(reader, gameState.addSeat());
+                    }
+                    reader.endArray();
+                    break;
+                case "communityCards":
+                    readCards(reader, gameState.getCommunityCards());
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    public Player readPlayer(JsonReader reader) throws IOException {
+        Player player = new Player(null, null);
+        readPlayer(reader, player);
+        return player;
+    }
+
+    // 覆盖 player 的全部字段，消息里没有的字段取默认值
+    private void readPlayer(JsonReader reader, Player player) throws IOException {
+        String id = null;
+        String name = null;
+        // 与 parsePlayer 相同的默认值
+        int chips = 1000;
+        int bet = 0;
+        boolean folded = false;
+        boolean allIn = false;
+        boolean isCurrentPlayer = false;
+        boolean isDealer = false;
+        // 手牌直接读进玩家自己的列表
+        List<Card> hand = player.getHand();
+        hand.clear();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "id": id = reader.nextString(); break;
+                case "name": name = reader.nextString(); break;
+                case "chips": chips = reader.nextInt(); break;
+                case "bet": bet = reader.nextInt(); break;
+                case "folded": folded = reader.nextBoolean(); break;
+                case "allIn": allIn = reader.nextBoolean(); break;
+                case "isCurrentPlayer": isCurrentPlayer = reader.nextBoolean(); break;
+                case "isDealer": isDealer = reader.nextBoolean(); break;
+                case "hand": readCards(reader, hand); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+
+        player.setId(id);
+        player.setName(name);
+        player.setChips(chips);
+        player.setBet(bet);
+        player.setFolded(folded);
+        player.setAllIn(allIn);
+        player.setCurrentPlayer(isCurrentPlayer);
+        player.setDealer(isDealer);
+    }
+
+    private void readCards(JsonReader reader, List<Card> out) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Card card = readCard(reader);
+            if (card != null) {
+                out.add(card);
+            }
+        }
+        reader.endArray();
+    }
+
+    private Card readCard(JsonReader reader) throws IOException {
+        String suit = null;
+        String rank = null;
+        int value = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "suit": suit = reader.nextString(); break;
+                case "rank": rank = reader.nextString(); break;
+                case "value": value = reader.nextInt(); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        if (suit == null || rank == null) {
+            return null;
+        }
+        return Card.of(suit, rank, value);
+    }
+}
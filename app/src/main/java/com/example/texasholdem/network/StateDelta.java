@@ -0,0 +1,145 @@
+package com.example.texasholdem.network;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 服务器 stateDelta 消息：相对 baseVersion 发生变化的字段。
+ * 由 GameStateDecoder 解码，applyTo 原地修改上一个版本的 GameState。
+ *
+ * 可以反复解码到同一个对象里：reset 之后座位变化和牌的列表都复用上一次的，不分配内存。
+ */
+public class StateDelta {
+    static final int POT = 1;
+    static final int CURRENT_BET = 1 << 1;
+    static final int CURRENT_PLAYER_INDEX = 1 << 2;
+    static final int GAME_PHASE = 1 << 3;
+    static final int DEALER_INDEX = 1 << 4;
+    static final int COMMUNITY_CARDS = 1 << 5;
+
+    static final int CHIPS = 1;
+    static final int BET = 1 << 1;
+    static final int FOLDED = 1 << 2;
+    static final int ALL_IN = 1 << 3;
+    static final int IS_CURRENT_PLAYER = 1 << 4;
+    static final int IS_DEALER = 1 << 5;
+    static final int HAND = 1 << 6;
+
+    /**
+     * 单个座位的变化，index 是玩家在 players 列表中的位置。
+     */
+    static class PlayerPatch {
+        int index = -1;
+        int changed;
+        int chips;
+        int bet;
+        boolean folded;
+        boolean allIn;
+        boolean isCurrentPlayer;
+        boolean isDealer;
+        final List<Card> hand = new ArrayList<>(2);
+
+        void reset() {
+            index = -1;
+            changed = 0;
+            hand.clear();
+        }
+
+        void applyTo(Player player) {
+            if ((changed & CHIPS) != 0) player.setChips(chips);
+            if ((changed & BET) != 0) player.setBet(bet);
+            if ((changed & FOLDED) != 0) player.setFolded(folded);
+            if ((changed & ALL_IN) != 0) player.setAllIn(allIn);
+            if ((changed & IS_CURRENT_PLAYER) != 0) player.setCurrentPlayer(isCurrentPlayer);
+            if ((changed & IS_DEALER) != 0) player.setDealer(isDealer);
+            if ((changed & HAND) != 0) player.setHand(hand);
+        }
+    }
+
+    long baseVersion = -1;
+    long version = -1;
+    String currentPlayerId;
+    int changed;
+    int pot;
+    int currentBet;
+    int currentPlayerIndex;
+    String gamePhase;
+    int dealerIndex;
+    final List<Card> communityCards = new ArrayList<>(5);
+    final List<PlayerPatch> players = new ArrayList<>();
+    // 用过的 PlayerPatch，前 players.size() 个就是 players 里的那些
+    private final List<PlayerPatch> patches = new ArrayList<>();
+
+    /**
+     * 清空上一次解码的内容，准备解码下一条消息。
+     */
+    void reset() {
+        baseVersion = -1;
+        version = -1;
+        currentPlayerId = null;
+        changed = 0;
+        gamePhase = null;
+        communityCards.clear();
+        players.clear();
+    }
+
+    /**
+     * 追加一个座位变化，复用之前分配过的 PlayerPatch。
+     */
+    PlayerPatch addPlayer() {
+        PlayerPatch patch;
+        if (players.size() < patches.size()) {
+            patch = patches.get(players.size());
+            patch.reset();
+        } else {
+            patch = new PlayerPatch();
+            patches.add(patch);
+        }
+        players.add(patch);
+        return patch;
+    }
+
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getCurrentPlayerId() {
+        return currentPlayerId;
+    }
+
+    /**
+     * 把变化应用到 baseVersion 对应的状态上。座位下标越界说明基准已经对不上，
+     * 此时不做任何修改并返回 false，调用方应重新请求快照。
+     */
+    public boolean applyTo(GameState gameState) {
+        List<Player> target = gameState.getPlayers();
+        int size = target == null ? 0 : target.size();
+        for (int i = 0; i < players.size(); i++) {
+            int index = players.get(i).index;
+            if (index < 0 || index >= size) {
+                return false;
+            }
+        }
+
+        if ((changed & POT) != 0) gameState.setPot(pot);
+        if ((changed & CURRENT_BET) != 0) gameState.setCurrentBet(currentBet);
+        if ((changed & CURRENT_PLAYER_INDEX) != 0) gameState.setCurrentPlayerIndex(currentPlayerIndex);
+        if ((changed & GAME_PHASE) != 0) gameState.setGamePhase(gamePhase);
+        if ((changed & DEALER_INDEX) != 0) gameState.setDealerIndex(dealerIndex);
+        if ((changed & COMMUNITY_CARDS) != 0) gameState.setCommunityCards(communityCards);
+
+        for (int i = 0; i < players.size(); i++) {
+            PlayerPatch patch = players.get(i);
+            patch.applyTo(target.get(patch.index));
+        }
+        return true;
+    }
+}
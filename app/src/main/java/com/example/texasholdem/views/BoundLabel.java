@@ -0,0 +1,100 @@
+package com.example.texasholdem.views;
+
+import android.widget.TextView;
+
+/**
+ * 固定前缀、后缀加一段可变内容的标签，例如 "筹码: 1000"、"跟注 (20)"。
+ *
+ * 记住上次显示的值，没变时不碰 TextView（setText 总会触发重绘，wrap_content 时还会重新布局）；
+ * 变了时在复用的 char[] 里原地改写数字或文字，用 setText(char[], int, int) 交给 TextView，
+ * 不再每次拼接字符串。TextView 直接引用这个数组，所以只在紧接着 setText 之前改写它。
+ * 只能在主线程使用。
+ */
+public final class BoundLabel {
+
+    // int 最长 11 个字符（含负号）
+    private static final int MAX_INT_CHARS = 11;
+
+    private final TextView view;
+    private final String prefix;
+    private final String suffix;
+    private char[] buffer;
+
+    private boolean bound;
+    private int number;
+    // 上次显示的是文字时非 null
+    private String text;
+
+    public BoundLabel(TextView view, String prefix) {
+        this(view, prefix, "");
+    }
+
+    public BoundLabel(TextView view, String prefix, String suffix) {
+        this.view = view;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        ensureCapacity(prefix.length() + MAX_INT_CHARS + suffix.length());
+    }
+
+    /**
+     * 显示数字，返回是否更新了视图。
+     */
+    public boolean setNumber(int value) {
+        if (bound && text == null && number == value) {
+            return false;
+        }
+        bound = true;
+        number = value;
+        text = null;
+
+        int pos = prefix.length();
+        long v = value;
+        if (v < 0) {
+            buffer[pos++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + v % 10);
+            v /= 10;
+        }
+        return publish(pos + digits);
+    }
+
+    /**
+     * 显示文字，null 按空串处理，返回是否更新了视图。
+     */
+    public boolean setText(String value) {
+        if (value == null) {
+            value = "";
+        }
+        if (bound && value.equals(text)) {
+            return false;
+        }
+        bound = true;
+        text = value;
+
+        int pos = prefix.length();
+        ensureCapacity(pos + value.length() + suffix.length());
+        value.getChars(0, value.length(), buffer, pos);
+        return publish(pos + value.length());
+    }
+
+    private boolean publish(int end) {
+        suffix.getChars(0, suffix.length(), buffer, end);
+        view.setText(buffer, 0, end + suffix.length());
+        return true;
+    }
+
+    // 容量不够时换一个更大的数组，前缀只在这时写入
+    private void ensureCapacity(int capacity) {
+        if (buffer != null && buffer.length >= capacity) {
+            return;
+        }
+        buffer = new char[Math.max(capacity, buffer != null ? buffer.length * 2 : 0)];
+        prefix.getChars(0, prefix.length(), buffer, 0);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.texasholdem.views;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.LruCache;
+
+import com.example.texasholdem.models.Card;
+
+/**
+ * 预先栅格化的卡牌图集：52 张牌面、牌背和空位画在同一张位图上，每种像素尺寸一份，TableView 的公共牌和手牌各用一份。
+ *
+ * 格子在第一次用到时才绘制，之后画一张牌只是一次 drawBitmap；硬件加速下整张图集也只上传一次纹理。
+ * 像素尺寸已经包含了屏幕密度，所以按宽高缓存即可。只能在主线程使用。
+ */
+public final class CardAtlas {
+
+    // 0~51 是牌面，编码与 Card.getCode() 相同
+    public static final int BACK = 52;
+    public static final int EMPTY = 53;
+    private static final int CELLS = 54;
+    private static final int COLUMNS = 9;
+
+    private static final int CORNER_RADIUS = 8;
+
+    // 按位图字节数计算，上限取堆的 1/8；同时在用的只有公共牌和手牌两种尺寸，余量留给旋转屏幕
+    private static final LruCache<Integer, CardAtlas> CACHE =
+            new LruCache<Integer, CardAtlas>((int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8)) {
+                @Override
+                protected int sizeOf(Integer key, CardAtlas atlas) {
+                    return atlas.bitmap.getAllocationByteCount();
+                }
+            };
+
+    private final int cellWidth;
+    private final int cellHeight;
+    private final Bitmap bitmap;
+    private final Canvas atlasCanvas;
+    private final boolean[] rendered = new boolean[CELLS];
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF cardRect = new RectF();
+    private final Rect src = new Rect();
+    private final RectF dst = new RectF();
+
+    private CardAtlas(int cellWidth, int cellHeight) {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        int rows = (CELLS + COLUMNS - 1) / COLUMNS;
+        bitmap = Bitmap.createBitmap(cellWidth * COLUMNS, cellHeight * rows, Bitmap.Config.ARGB_8888);
+        atlasCanvas = new Canvas(bitmap);
+    }
+
+    /**
+     * 取得给定像素尺寸的图集，没有时新建。会装箱键，调用方应在尺寸变化时取一次并持有。
+     */
+    public static CardAtlas get(int width, int height) {
+        int key = width << 16 | height;
+        CardAtlas atlas = CACHE.get(key);
+        if (atlas == null) {
+            atlas = new CardAtlas(width, height);
+            CACHE.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    /**
+     * 释放所有图集，之后用到时重新绘制。
+     */
+    public static void clear() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * 牌对应的格子：null 是空位，背面朝上是牌背。
+     */
+    public static int cellOf(Card card, boolean faceUp) {
+        if (card == null) {
+            return EMPTY;
+        }
+        return faceUp ? card.getCode() : BACK;
+    }
+
+    public int getCellWidth() {
+        return cellWidth;
+    }
+
+    public int getCellHeight() {
+        return cellHeight;
+    }
+
+    /**
+     * 把牌画到 canvas 的 (left, top)，大小为图集的格子尺寸。正反面由调用方决定。
+     */
+    public void draw(Canvas canvas, Card card, boolean faceUp, float left, float top) {
+        drawCell(canvas, cellOf(card, faceUp), card, left, top);
+    }
+
+    /**
+     * 画 cellOf 算出的格子。牌面格子第一次绘制时需要 card 提供点数和花色。
+     */
+    public void drawCell(Canvas canvas, int cell, Card card, float left, float top) {
+        if (cell < 0) {
+            // 无法识别的牌没有格子，直接画
+            canvas.save();
+            canvas.translate(left, top);
+            renderCard(canvas, card, cell);
+            canvas.restore();
+            return;
+        }
+        if (!rendered[cell]) {
+            renderCell(cell, card);
+        }
+        int x = cell % COLUMNS * cellWidth;
+        int y = cell / COLUMNS * cellHeight;
+        src.set(x, y, x + cellWidth, y + cellHeight);
+        dst.set(left, top, left + cellWidth, top + cellHeight);
+        canvas.drawBitmap(bitmap, src, dst, null);
+    }
+
+    private void renderCell(int cell, Card card) {
+        atlasCanvas.save();
+        atlasCanvas.translate(cell % COLUMNS * cellWidth, cell / COLUMNS * cellHeight);
+        atlasCanvas.clipRect(0, 0, cellWidth, cellHeight);
+        renderCard(atlasCanvas, card, cell);
+        atlasCanvas.restore();
+        rendered[cell] = true;
+    }
+
+    private void renderCard(Canvas canvas, Card card, int cell) {
+        cardRect.set(0, 0, cellWidth, cellHeight);
+        if (cell == EMPTY) {
+            drawEmptyCard(canvas);
+            return;
+        }
+
+        // 绘制卡牌背景
+        paint.setColor(Color.WHITE);
+        paint.setStyle(Paint.Style.FILL);
+        canvas.drawRoundRect(cardRect, CORNER_RADIUS, CORNER_RADIUS, paint);
+
+        // 绘制边框
+        paint.setColor(Color.BLACK);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(2);
+        canvas.drawRoundRect(cardRect, CORNER_RADIUS, CORNER_RADIUS, paint);
+
+        if (cell == BACK) {
+            drawCardBack(canvas);
+        } else {
+            drawCardContent(canvas, card);
+        }
+    }
+
+    private void drawEmptyCard(Canvas canvas) {
+        // 绘制空白卡牌背景
+        paint.setColor(Color.LTGRAY);
+        paint.setStyle(Paint.Style.FILL);
+        canvas.drawRoundRect(cardRect, CORNER_RADIUS, CORNER_RADIUS, paint);
+
+        // 绘制边框
+        paint.setColor(Color.DKGRAY);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(2);
+        canvas.drawRoundRect(cardRect, CORNER_RADIUS, CORNER_RADIUS, paint);
+    }
+
+    private void drawCardContent(Canvas canvas, Card card) {
+        // 绘制花色符号
+        paint.setColor(card.getSuitColor());
+        paint.setTextSize(24);
+        paint.setTextAlign(Paint.Align.CENTER);
+
+        String suitSymbol = card.getSuitSymbol();
+        canvas.drawText(suitSymbol, cellWidth / 2f, 30, paint);
+
+        // 绘制点数
+        paint.setColor(Color.BLACK);
+        paint.setTextSize(20);
+        canvas.drawText(card.getRank(), cellWidth / 2f, 60, paint);
+
+        // 绘制右下角的小符号
+        paint.setTextSize(16);
+        paint.setColor(card.getSuitColor());
+        canvas.drawText(suitSymbol, cellWidth - 15, cellHeight - 10, paint);
+
+        paint.setColor(Color.BLACK);
+        canvas.drawText(card.getRank(), cellWidth - 15, cellHeight - 25, paint);
+    }
+
+    private void drawCardBack(Canvas canvas) {
+        // 绘制卡牌背面图案
+        paint.setColor(Color.BLUE);
+        paint.setStyle(Paint.Style.FILL);
+
+        // 绘制网格图案
+        paint.setStrokeWidth(1);
+        for (int i = 0; i < cellWidth; i += 10) {
+            canvas.drawLine(i, 0, i, cellHeight, paint);
+        }
+        for (int i = 0; i < cellHeight; i += 10) {
+            canvas.drawLine(0, i, cellWidth, i, paint);
+        }
+
+        // 绘制中心文字
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(16);
+        paint.setTextAlign(Paint.Align.CENTER);
+        canvas.drawText("POKER", cellWidth / 2f, cellHeight / 2f, paint);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.texasholdem.views;
+
+import android.widget.TextView;
+
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+
+/**
+ * 把 GameState 绑定到牌桌界面：顶部信息栏的四个标签和 TableView。
+ *
+ * 每个字段和上次显示的值比较，只有变了的视图才会被更新和重绘；
+ * 一次普通的下注通常只改动底池、当前下注、当前玩家和牌桌本身。只能在主线程使用。
+ */
+public final class GameStateBinder {
+
+    private final BoundLabel phase;
+    private final BoundLabel pot;
+    private final BoundLabel currentBet;
+    private final BoundLabel currentPlayer;
+    private final TableView table;
+
+    public GameStateBinder(TextView tvGamePhase, TextView tvPot, TextView tvCurrentBet,
+                           TextView tvCurrentPlayer, TableView table) {
+        this.phase = new BoundLabel(tvGamePhase, "游戏阶段: ");
+        this.pot = new BoundLabel(tvPot, "底池: ");
+        this.currentBet = new BoundLabel(tvCurrentBet, "当前下注: ");
+        this.currentPlayer = new BoundLabel(tvCurrentPlayer, "当前玩家: ");
+        this.table = table;
+    }
+
+    public void bind(GameState gameState, String selfId) {
+        phase.setText(gameState.getGamePhaseText());
+        pot.setNumber(gameState.getPot());
+        currentBet.setNumber(gameState.getCurrentBet());
+
+        Player player = gameState.getCurrentPlayer();
+        currentPlayer.setText(player != null ? player.getName() : "无");
+
+        table.setGameState(gameState, selfId);
+    }
+}
@@ -0,0 +1,490 @@
+package com.example.texasholdem.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.texasholdem.R;
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+
+import java.util.List;
+
+/**
+ * 整张牌桌：公共牌和最多 8 个座位（名字、状态、筹码、下注、手牌）在一次 onDraw 里画完。
+ *
+ * 尺寸只取决于宽度，状态更新不会触发 measure/layout；每个座位缓存自己的文字，只有对应的值变了
+ * 才重新生成，什么都没变时连重绘都省掉。卡牌从 CardAtlas 取，点击座位通过 OnSeatClickListener 回调。
+ */
+public class TableView extends View {
+
+    public interface OnSeatClickListener {
+        void onSeatClick(int seat, Player player);
+    }
+
+    public static final int MAX_SEATS = 8;
+    private static final int COLUMNS = 2;
+    private static final int COMMUNITY_CARDS = 5;
+
+    // 尺寸（dp / sp），8 个座位两列排开
+    private static final float PADDING_DP = 16;
+    private static final float COMMUNITY_PADDING_DP = 16;
+    private static final float COMMUNITY_CARD_WIDTH_DP = 80;
+    private static final float COMMUNITY_CARD_MARGIN_DP = 4;
+    private static final float SEAT_GAP_DP = 16;
+    private static final float SEAT_MARGIN_DP = 4;
+    private static final float SEAT_PADDING_DP = 12;
+    private static final float SEAT_LINE_GAP_DP = 8;
+    private static final float AVATAR_DP = 32;
+    private static final float SEAT_CARD_WIDTH_DP = 60;
+    private static final float SEAT_CARD_MARGIN_DP = 2;
+    private static final float CORNER_DP = 8;
+    private static final float BORDER_DP = 2;
+    private static final float BADGE_PADDING_H_DP = 8;
+    private static final float BADGE_PADDING_V_DP = 4;
+    private static final float BADGE_CORNER_DP = 12;
+    private static final float NAME_TEXT_SP = 14;
+    private static final float INFO_TEXT_SP = 12;
+    private static final float STATUS_TEXT_SP = 10;
+
+    private static final int SELF_BACKGROUND = 0xFFE8F5E8; // 浅绿色背景
+    private static final int SEAT_BACKGROUND = 0xFFFFFFFF; // 白色背景
+    private static final int SEAT_BORDER = 0xFFE0E0E0;
+
+    private final float padding;
+    private final float communityPadding;
+    private final float communityCardWidth;
+    private final float communityCardMargin;
+    private final float seatGap;
+    private final float seatMargin;
+    private final float seatPadding;
+    private final float lineGap;
+    private final float avatarSize;
+    private final int seatCardWidth;
+    private final int seatCardHeight;
+    private final float seatCardMargin;
+    private final float corner;
+    private final float border;
+    private final float badgePaddingH;
+    private final float badgePaddingV;
+    private final float badgeCorner;
+    private final float seatHeight;
+
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint namePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint infoPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint statusPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Drawable avatar;
+    private final int primaryColor;
+    private final int successColor;
+
+    // 布局结果，只在尺寸变化时计算
+    private final RectF communityRect = new RectF();
+    private final RectF[] seatRects = new RectF[MAX_SEATS];
+    private final RectF scratchRect = new RectF();
+    private int communityCardW;
+    private int communityCardH;
+    // 尺寸变化或 releaseCardAtlases 时置空，下一次 onDraw 重新取
+    private CardAtlas communityAtlas;
+    private CardAtlas seatAtlas;
+
+    private final Seat[] seats = new Seat[MAX_SEATS];
+    private final Card[] communityCards = new Card[COMMUNITY_CARDS];
+    private final int[] communityCells = new int[COMMUNITY_CARDS];
+    private int communityCount;
+
+    private OnSeatClickListener seatClickListener;
+    private int pressedSeat = -1;
+
+    public TableView(Context context) {
+        this(context, null);
+    }
+
+    public TableView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public TableView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        DisplayMetrics dm = getResources().getDisplayMetrics();
+        padding = dp(dm, PADDING_DP);
+        communityPadding = dp(dm, COMMUNITY_PADDING_DP);
+        communityCardWidth = dp(dm, COMMUNITY_CARD_WIDTH_DP);
+        communityCardMargin = dp(dm, COMMUNITY_CARD_MARGIN_DP);
+        seatGap = dp(dm, SEAT_GAP_DP);
+        seatMargin = dp(dm, SEAT_MARGIN_DP);
+        seatPadding = dp(dm, SEAT_PADDING_DP);
+        lineGap = dp(dm, SEAT_LINE_GAP_DP);
+        avatarSize = dp(dm, AVATAR_DP);
+        seatCardWidth = Math.round(dp(dm, SEAT_CARD_WIDTH_DP));
+        seatCardHeight = seatCardWidth * 3 / 2;
+        seatCardMargin = dp(dm, SEAT_CARD_MARGIN_DP);
+        corner = dp(dm, CORNER_DP);
+        border = dp(dm, BORDER_DP);
+        badgePaddingH = dp(dm, BADGE_PADDING_H_DP);
+        badgePaddingV = dp(dm, BADGE_PADDING_V_DP);
+        badgeCorner = dp(dm, BADGE_CORNER_DP);
+
+        namePaint.setTextSize(sp(dm, NAME_TEXT_SP));
+        namePaint.setTypeface(Typeface.DEFAULT_BOLD);
+        namePaint.setColor(ContextCompat.getColor(context, R.color.primary_text));
+        infoPaint.setTextSize(sp(dm, INFO_TEXT_SP));
+        infoPaint.setColor(ContextCompat.getColor(context, R.color.secondary_text));
+        statusPaint.setTextSize(sp(dm, STATUS_TEXT_SP));
+        statusPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        primaryColor = ContextCompat.getColor(context, R.color.primary_color);
+        successColor = ContextCompat.getColor(context, R.color.success_color);
+        avatar = ContextCompat.getDrawable(context, R.drawable.ic_person);
+
+        seatHeight = seatMargin * 2 + seatPadding * 2 + avatarSize + lineGap
+                + textHeight(infoPaint) + lineGap + seatCardHeight + seatCardMargin * 2;
+
+        for (int i = 0; i < MAX_SEATS; i++) {
+            seats[i] = new Seat();
+            seatRects[i] = new RectF();
+        }
+    }
+
+    public void setOnSeatClickListener(OnSeatClickListener listener) {
+        this.seatClickListener = listener;
+    }
+
+    /**
+     * 放开持有的图集，CardAtlas.clear() 之前调用才能真正释放位图；下次绘制时重新取。
+     */
+    public void releaseCardAtlases() {
+        communityAtlas = null;
+        seatAtlas = null;
+    }
+
+    /**
+     * 绑定新的状态。selfId 是自己的玩家 id：自己的座位高亮并显示手牌，其他人的手牌画牌背。
+     */
+    public void setGameState(GameState gameState, String selfId) {
+        boolean changed = false;
+        List<Player> players = gameState.getPlayers();
+        for (int i = 0; i < MAX_SEATS; i++) {
+            Player player = players != null && i < players.size() ? players.get(i) : null;
+            changed |= seats[i].bind(player, selfId);
+        }
+
+        List<Card> cards = gameState.getCommunityCards();
+        int count = cards != null ? Math.min(cards.size(), COMMUNITY_CARDS) : 0;
+        if (count != communityCount) {
+            communityCount = count;
+            changed = true;
+        }
+        for (int i = 0; i < count; i++) {
+            Card card = cards.get(i);
+            int cell = CardAtlas.cellOf(card, true);
+            if (cell != communityCells[i] || cell < 0) {
+                communityCells[i] = cell;
+                changed = true;
+            }
+            communityCards[i] = card;
+        }
+
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int cardHeight = communityCardWidthFor(width) * 3 / 2;
+        float communityHeight = communityPadding * 2 + communityCardMargin * 2 + cardHeight;
+        int rows = (MAX_SEATS + COLUMNS - 1) / COLUMNS;
+        float height = padding * 2 + communityHeight + seatGap + rows * seatHeight + (rows - 1) * seatGap;
+        setMeasuredDimension(width, resolveSize((int) Math.ceil(height), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        communityCardW = communityCardWidthFor(w);
+        communityCardH = communityCardW * 3 / 2;
+        communityAtlas = null;
+        communityRect.set(padding, padding, w - padding,
+                padding + communityPadding * 2 + communityCardMargin * 2 + communityCardH);
+
+        float seatTop = communityRect.bottom + seatGap;
+        float seatWidth = (w - padding * 2 - seatGap * (COLUMNS - 1)) / COLUMNS;
+        for (int i = 0; i < MAX_SEATS; i++) {
+            float left = padding + (i % COLUMNS) * (seatWidth + seatGap);
+            float top = seatTop + (i / COLUMNS) * (seatHeight + seatGap);
+            seatRects[i].set(left + seatMargin, top + seatMargin,
+                    left + seatWidth - seatMargin, top + seatHeight - seatMargin);
+            // 名字的可用宽度变了，需要重新截断
+            seats[i].displayName = null;
+        }
+    }
+
+    // 5 张牌按 80dp 排不下时等比缩小
+    private int communityCardWidthFor(int width) {
+        float available = (width - padding * 2 - communityPadding * 2
+                - COMMUNITY_CARDS * communityCardMargin * 2) / COMMUNITY_CARDS;
+        return Math.max(1, (int) Math.min(communityCardWidth, available));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        drawCommunityCards(canvas);
+        for (int i = 0; i < MAX_SEATS; i++) {
+            if (seats[i].player != null) {
+                drawSeat(canvas, seats[i], seatRects[i]);
+            }
+        }
+    }
+
+    private void drawCommunityCards(Canvas canvas) {
+        // 公共牌区域背景，与原来的 bg_community_cards 相同
+        fillPaint.setStyle(Paint.Style.FILL);
+        fillPaint.setColor(SEAT_BACKGROUND);
+        canvas.drawRoundRect(communityRect, corner, corner, fillPaint);
+        fillPaint.setStyle(Paint.Style.STROKE);
+        fillPaint.setStrokeWidth(border);
+        fillPaint.setColor(primaryColor);
+        canvas.drawRoundRect(communityRect, corner, corner, fillPaint);
+
+        if (communityAtlas == null) {
+            communityAtlas = CardAtlas.get(communityCardW, communityCardH);
+        }
+        CardAtlas atlas = communityAtlas;
+        float slot = communityCardW + communityCardMargin * 2;
+        float left = communityRect.centerX() - slot * COMMUNITY_CARDS / 2 + communityCardMargin;
+        float top = communityRect.top + communityPadding + communityCardMargin;
+        // 还没发的牌位置留空
+        for (int i = 0; i < communityCount; i++) {
+            atlas.drawCell(canvas, communityCells[i], communityCards[i], left + i * slot, top);
+        }
+    }
+
+    private void drawSeat(Canvas canvas, Seat seat, RectF rect) {
+        fillPaint.setStyle(Paint.Style.FILL);
+        fillPaint.setColor(seat.self ? SELF_BACKGROUND : SEAT_BACKGROUND);
+        canvas.drawRoundRect(rect, corner, corner, fillPaint);
+        fillPaint.setStyle(Paint.Style.STROKE);
+        fillPaint.setStrokeWidth(1);
+        fillPaint.setColor(SEAT_BORDER);
+        canvas.drawRoundRect(rect, corner, corner, fillPaint);
+
+        float left = rect.left + seatPadding;
+        float right = rect.right - seatPadding;
+        float top = rect.top + seatPadding;
+
+        // 第一行：头像、名字、状态标签
+        float centerY = top + avatarSize / 2;
+        if (avatar != null) {
+            avatar.setBounds((int) left, (int) top, (int) (left + avatarSize), (int) (top + avatarSize));
+            avatar.draw(canvas);
+        }
+
+        float badgeWidth = seat.statusWidth + badgePaddingH * 2;
+        float badgeHeight = textHeight(statusPaint) + badgePaddingV * 2;
+        scratchRect.set(right - badgeWidth, centerY - badgeHeight / 2, right, centerY + badgeHeight / 2);
+        fillPaint.setStyle(Paint.Style.FILL);
+        fillPaint.setColor(successColor);
+        canvas.drawRoundRect(scratchRect, badgeCorner, badgeCorner, fillPaint);
+        statusPaint.setColor(seat.statusColor);
+        canvas.drawText(seat.statusText, scratchRect.left + badgePaddingH, baseline(statusPaint, centerY), statusPaint);
+
+        float nameLeft = left + avatarSize + lineGap;
+        if (seat.displayName == null) {
+            float available = Math.max(0, scratchRect.left - lineGap - nameLeft);
+            seat.displayName = TextUtils.ellipsize(seat.name, namePaint, available, TextUtils.TruncateAt.END).toString();
+        }
+        canvas.drawText(seat.displayName, nameLeft, baseline(namePaint, centerY), namePaint);
+
+        // 第二行：筹码和下注
+        float infoTop = top + avatarSize + lineGap;
+        float infoBaseline = infoTop - infoPaint.ascent();
+        infoPaint.setTextAlign(Paint.Align.LEFT);
+        canvas.drawText(seat.chipsText, left, infoBaseline, infoPaint);
+        infoPaint.setTextAlign(Paint.Align.RIGHT);
+        canvas.drawText(seat.betText, right, infoBaseline, infoPaint);
+
+        // 第三行：手牌，居中
+        if (seat.cardCount > 0) {
+            if (seatAtlas == null) {
+                seatAtlas = CardAtlas.get(seatCardWidth, seatCardHeight);
+            }
+            CardAtlas atlas = seatAtlas;
+            float slot = seatCardWidth + seatCardMargin * 2;
+            float cardLeft = rect.centerX() - slot * seat.cardCount / 2 + seatCardMargin;
+            float cardTop = infoTop + textHeight(infoPaint) + lineGap + seatCardMargin;
+            for (int i = 0; i < seat.cardCount; i++) {
+                atlas.drawCell(canvas, seat.cells[i], seat.cards[i], cardLeft + i * slot, cardTop);
+            }
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                pressedSeat = seatAt(event.getX(), event.getY());
+                return pressedSeat >= 0;
+            case MotionEvent.ACTION_UP:
+                int seat = pressedSeat;
+                pressedSeat = -1;
+                if (seat >= 0 && seat == seatAt(event.getX(), event.getY())) {
+                    performClick();
+                    if (seatClickListener != null) {
+                        seatClickListener.onSeatClick(seat, seats[seat].player);
+                    }
+                }
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                pressedSeat = -1;
+                return true;
+            default:
+                return pressedSeat >= 0;
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    // 有人坐的座位才能点
+    private int seatAt(float x, float y) {
+        for (int i = 0; i < MAX_SEATS; i++) {
+            if (seats[i].player != null && seatRects[i].contains(x, y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static float textHeight(Paint paint) {
+        return paint.descent() - paint.ascent();
+    }
+
+    // 让文字在 centerY 上垂直居中的基线
+    private static float baseline(Paint paint, float centerY) {
+        return centerY - (paint.ascent() + paint.descent()) / 2;
+    }
+
+    private static float dp(DisplayMetrics dm, float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, dm);
+    }
+
+    private static float sp(DisplayMetrics dm, float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, value, dm);
+    }
+
+    /**
+     * 一个座位上要画的内容。bind 只在值变化时重新生成文字，返回是否需要重绘。
+     */
+    private final class Seat {
+        Player player;
+        String playerId;
+        boolean self;
+
+        // 服务器给的名字，只用来判断是否变化；name 是显示用的，自己的座位带 " (我)"
+        String rawName;
+        String name;
+        // 按当前宽度截断后的名字，宽度或名字变化时置空，绘制时重新生成
+        String displayName;
+        int chips = -1;
+        String chipsText;
+        int bet = -1;
+        String betText;
+        boolean folded;
+        boolean allIn;
+        String statusText;
+        float statusWidth;
+        int statusColor;
+
+        final Card[] cards = new Card[2];
+        final int[] cells = new int[2];
+        int cardCount;
+
+        boolean bind(Player p, String selfId) {
+            player = p;
+            if (p == null) {
+                boolean changed = playerId != null;
+                playerId = null;
+                return changed;
+            }
+
+            boolean changed = false;
+            boolean isSelf = selfId != null && selfId.equals(p.getId());
+            if (!p.getId().equals(playerId) || isSelf != self || !TextUtils.equals(p.getName(), rawName)) {
+                playerId = p.getId();
+                self = isSelf;
+                rawName = p.getName();
+                name = isSelf ? rawName + " (我)" : rawName;
+                displayName = null;
+                changed = true;
+            }
+            if (p.getChips() != chips) {
+                chips = p.getChips();
+                chipsText = "筹码: " + chips;
+                changed = true;
+            }
+            if (p.getBet() != bet || p.isFolded() != folded || p.isAllIn() != allIn || statusText == null) {
+                boolean betChanged = p.getBet() != bet;
+                bet = p.getBet();
+                folded = p.isFolded();
+                allIn = p.isAllIn();
+                if (betChanged || betText == null) {
+                    betText = "下注: " + bet;
+                }
+                statusText = p.getStatusText();
+                statusWidth = statusPaint.measureText(statusText);
+                statusColor = statusColor(p);
+                // 状态标签变宽变窄会影响名字能用的宽度
+                displayName = null;
+                changed = true;
+            }
+            changed |= bindCards(p.getHand());
+            return changed;
+        }
+
+        // 只有自己能看到自己的手牌，其他玩家看到背面
+        private boolean bindCards(List<Card> hand) {
+            int count = hand != null ? Math.min(hand.size(), cards.length) : 0;
+            boolean changed = count != cardCount;
+            cardCount = count;
+            for (int i = 0; i < count; i++) {
+                Card card = hand.get(i);
+                int cell = CardAtlas.cellOf(card, self);
+                if (cell != cells[i] || cell < 0) {
+                    cells[i] = cell;
+                    changed = true;
+                }
+                cards[i] = card;
+            }
+            return changed;
+        }
+    }
+
+    // 根据玩家状态设置不同的颜色
+    private static int statusColor(Player player) {
+        if (player.isFolded()) {
+            return 0xFFE74C3C; // 红色
+        } else if (player.isAllIn()) {
+            return 0xFFF39C12; // 橙色
+        } else if (player.getBet() > 0) {
+            return 0xFF27AE60; // 绿色
+        }
+        return 0xFF2C3E50; // 深色
+    }
+}
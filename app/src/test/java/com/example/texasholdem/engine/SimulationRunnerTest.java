@@ -0,0 +1,121 @@
+package com.example.texasholdem.engine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 检查点续跑：被截断或损坏的行对应的分片重跑，最终结果与一次跑完相同。
+ */
+public class SimulationRunnerTest {
+
+    private static final int HANDS = 4000;
+    private static final int SHARD_SIZE = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resultDoesNotDependOnThreadCount() throws Exception {
+        assertEquals(run(folder.newFolder(), 1), run(folder.newFolder(), 3));
+    }
+
+    @Test
+    public void tornLastLineIsTruncatedAndRerun() throws Exception {
+        File dir = folder.newFolder();
+        String expected = run(dir, 2);
+        File checkpoint = new File(dir, "shards.log");
+        List<String> lines = readLines(checkpoint);
+        assertEquals(1 + HANDS / SHARD_SIZE, lines.size());
+
+        // 末行在最后一个字段中间断开，字段数不变但没有换行
+        String torn = lines.get(2).substring(0, lines.get(2).length() - 3);
+        write(checkpoint, lines.get(0) + "\n" + lines.get(1) + "\n" + torn);
+
+        assertEquals(expected, run(dir, 2));
+        byte[] bytes = Files.readAllBytes(checkpoint.toPath());
+        assertEquals('\n', bytes[bytes.length - 1]);
+        List<String> rewritten = readLines(checkpoint);
+        assertEquals(1 + HANDS / SHARD_SIZE, rewritten.size());
+        for (int i = 1; i < rewritten.size(); i++) {
+            assertNotNull(rewritten.get(i), SimulationRunner.stripChecksum(rewritten.get(i)));
+        }
+    }
+
+    @Test
+    public void lineWithBadChecksumIsRerun() throws Exception {
+        File dir = folder.newFolder();
+        String expected = run(dir, 2);
+        File checkpoint = new File(dir, "shards.log");
+        List<String> lines = readLines(checkpoint);
+
+        // 改掉一个数字，字段数不变
+        String line = lines.get(1);
+        int digit = line.indexOf(' ') + 1;
+        char changed = line.charAt(digit) == '9' ? '8' : (char) (line.charAt(digit) + 1);
+        lines.set(1, line.substring(0, digit) + changed + line.substring(digit + 1));
+        write(checkpoint, String.join("\n", lines) + "\n");
+
+        assertEquals(expected, run(dir, 2));
+    }
+
+    @Test
+    public void tornHeaderStartsOver() throws Exception {
+        File dir = folder.newFolder();
+        String expected = run(dir, 1);
+        File checkpoint = new File(dir, "shards.log");
+        write(checkpoint, readLines(checkpoint).get(0).substring(0, 10));
+
+        assertEquals(expected, run(dir, 1));
+        assertEquals(1 + HANDS / SHARD_SIZE, readLines(checkpoint).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void differentParametersAreRejected() throws Exception {
+        File dir = folder.newFolder();
+        run(dir, 1);
+        new SimulationRunner(HANDS, 4, 1L, SHARD_SIZE, 1, dir).run();
+    }
+
+    @Test
+    public void shardFailureLeavesNoSummary() throws Exception {
+        File dir = folder.newFolder();
+        // 1 个座位在 runShard 里构造 TableEngine 时抛出 IllegalArgumentException
+        try {
+            new SimulationRunner(HANDS, 1, 1L, SHARD_SIZE, 2, dir).run();
+            fail("Shard failure must be rethrown");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertFalse(new File(dir, "summary.txt").exists());
+        assertEquals(1, readLines(new File(dir, "shards.log")).size());
+    }
+
+    @Test
+    public void checksumRoundTrip() {
+        String line = SimulationRunner.withChecksum("3 10 20 30");
+        assertEquals("3 10 20 30", SimulationRunner.stripChecksum(line));
+        assertNull(SimulationRunner.stripChecksum("3 10 20 31" + line.substring(line.lastIndexOf(' '))));
+        assertNull(SimulationRunner.stripChecksum(line.substring(0, line.length() - 1)));
+        assertNull(SimulationRunner.stripChecksum("3"));
+    }
+
+    private static String run(File dir, int threads) throws Exception {
+        return new SimulationRunner(HANDS, 3, 1L, SHARD_SIZE, threads, dir).run().toReport();
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static void write(File file, String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    }
+}
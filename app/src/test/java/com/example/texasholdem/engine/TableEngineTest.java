@@ -0,0 +1,176 @@
+package com.example.texasholdem.engine;
+
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.HandEvaluator;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * 底池、摊牌和卡住的规则，都按 server.js 的行为：没有边池，赢家拿走整个底池。
+ */
+public class TableEngineTest {
+
+    @Test
+    public void raiseAndCallsMovePotAndAdvancePhase() {
+        TableEngine table = new TableEngine(3, 1L);
+        table.startHand();
+        int dealer = table.getDealerIndex();
+        assertEquals(TableEngine.PHASE_PREFLOP, table.getPhase());
+        assertEquals(dealer, table.getCurrentPlayerIndex());
+
+        assertTrue(table.act(50));
+        assertEquals(50, table.getPot());
+        assertEquals(50, table.getCurrentBet());
+        assertEquals(TableEngine.STARTING_CHIPS - 50, table.getChips(dealer));
+        assertEquals((dealer + 1) % 3, table.getCurrentPlayerIndex());
+
+        assertTrue(table.act(TableEngine.CALL));
+        assertEquals(100, table.getPot());
+        assertEquals(TableEngine.PHASE_PREFLOP, table.getPhase());
+
+        assertTrue(table.act(TableEngine.CALL));
+        assertEquals(150, table.getPot());
+        assertEquals(TableEngine.PHASE_FLOP, table.getPhase());
+        assertEquals(3, CardSet.size(table.getBoard()));
+        // 新一轮 currentBet 归零，玩家的 bet 不清零，仍由庄家先行动
+        assertEquals(0, table.getCurrentBet());
+        assertEquals(50, table.getBet((dealer + 2) % 3));
+        assertEquals(dealer, table.getCurrentPlayerIndex());
+    }
+
+    @Test
+    public void checkFromDealerEndsTheRound() {
+        TableEngine table = new TableEngine(4, 2L);
+        table.startHand();
+        // 所有人 bet 都是 0，庄家过牌后 allBetsEqual 已经成立
+        assertTrue(table.act(TableEngine.CALL));
+        assertEquals(TableEngine.PHASE_FLOP, table.getPhase());
+        assertTrue(table.act(TableEngine.CALL));
+        assertEquals(TableEngine.PHASE_TURN, table.getPhase());
+        assertTrue(table.act(TableEngine.CALL));
+        assertEquals(TableEngine.PHASE_RIVER, table.getPhase());
+        assertTrue(table.act(TableEngine.CALL));
+        assertEquals(TableEngine.PHASE_SHOWDOWN, table.getPhase());
+        assertEquals(5, CardSet.size(table.getBoard()));
+        assertFalse(table.act(TableEngine.CALL));
+    }
+
+    @Test
+    public void invalidRaiseIsIgnored() {
+        TableEngine table = new TableEngine(2, 3L);
+        table.startHand();
+        int dealer = table.getDealerIndex();
+        assertFalse(table.act(TableEngine.BASE_BET - 1));
+        assertFalse(table.act(TableEngine.STARTING_CHIPS + 1));
+        assertEquals(0, table.getPot());
+        assertEquals(dealer, table.getCurrentPlayerIndex());
+        assertEquals(0, table.getActionCount());
+    }
+
+    @Test
+    public void foldedDealerStallsNextRound() {
+        TableEngine table = new TableEngine(3, 4L);
+        table.startHand();
+        assertTrue(table.act(TableEngine.FOLD));
+        // 剩下两人 bet 相等，直接进入翻牌圈，但每轮从已弃牌的庄家开始
+        assertEquals(TableEngine.PHASE_FLOP, table.getPhase());
+        assertTrue(table.isStalled());
+        assertFalse(table.act(TableEngine.CALL));
+    }
+
+    @Test
+    public void dealerAllInStallsHeadsUp() {
+        TableEngine table = new TableEngine(2, 5L);
+        table.startHand();
+        int dealer = table.getDealerIndex();
+        assertTrue(table.act(TableEngine.ALL_IN));
+        assertTrue(table.isAllIn(dealer));
+        assertEquals(TableEngine.STARTING_CHIPS, table.getPot());
+        assertEquals(0, table.getChips(dealer));
+        assertTrue(table.isStalled());
+    }
+
+    @Test
+    public void playHandReportsStall() {
+        TableEngine table = new TableEngine(3, 6L);
+        assertFalse(table.playHand((t, seat) -> seat == t.getDealerIndex() ? TableEngine.FOLD : TableEngine.CALL));
+        assertTrue(table.isStalled());
+        assertTrue(table.playHand((t, seat) -> TableEngine.CALL));
+        assertEquals(TableEngine.PHASE_SHOWDOWN, table.getPhase());
+    }
+
+    @Test
+    public void randomHandsConserveChipsAndPayWholePotToBestHand() {
+        int seats = 5;
+        TableEngine table = new TableEngine(seats, 7L);
+        SplittableRandom random = new SplittableRandom(8L);
+        TableEngine.Strategy strategy = (t, seat) -> {
+            int roll = random.nextInt(100);
+            if (roll < 10 && seat != t.getDealerIndex()) {
+                return TableEngine.FOLD;
+            } else if (roll < 13) {
+                return TableEngine.ALL_IN;
+            } else if (roll < 35) {
+                return TableEngine.BASE_BET + random.nextInt(50);
+            }
+            return TableEngine.CALL;
+        };
+
+        int showdowns = 0;
+        int allInWinners = 0;
+        for (int hand = 0; hand < 2000; hand++) {
+            if (!table.playHand(strategy)) {
+                // 卡住的手牌底池留在桌上，重新开始计筹码
+                table.resetChips();
+                continue;
+            }
+            showdowns++;
+            int total = 0;
+            for (int i = 0; i < seats; i++) {
+                assertTrue(table.getChips(i) >= 0);
+                total += table.getChips(i);
+            }
+            assertEquals(0, table.getPot());
+            assertEquals(seats * TableEngine.STARTING_CHIPS, total);
+
+            int winner = table.getLastWinner();
+            int best = HandEvaluator.evaluate(table.getHoleCards(winner) | table.getBoard());
+            for (int i = 0; i < seats; i++) {
+                if (table.isFolded(i)) {
+                    continue;
+                }
+                int value = HandEvaluator.evaluate(table.getHoleCards(i) | table.getBoard());
+                // 平局时座位靠前者获胜
+                assertTrue(value < best || (value == best && i >= winner));
+            }
+            if (table.isAllIn(winner)) {
+                allInWinners++;
+                // 全下的赢家也拿走整个底池，不分边池
+                assertEquals(table.getLastPot(), table.getChips(winner));
+            }
+        }
+        assertTrue(showdowns > 100);
+        assertTrue(allInWinners > 0);
+    }
+
+    @Test
+    public void gameStateShowsOnlyViewerHand() {
+        TableEngine table = new TableEngine(3, 9L);
+        table.startHand();
+        table.act(30);
+        GameState state = table.toGameState("room", 1);
+        assertEquals("preflop", state.getGamePhase());
+        assertEquals(30, state.getPot());
+        assertEquals(3, state.getPlayers().size());
+        assertEquals(2, state.getPlayers().get(1).getHand().size());
+        assertTrue(state.getPlayers().get(0).getHand().isEmpty());
+        assertTrue(state.getPlayers().get(2).getHand().isEmpty());
+        assertEquals(table.getDealerIndex(), state.getDealerIndex());
+        assertEquals(table.getCurrentPlayerIndex(), state.getCurrentPlayerIndex());
+    }
+}
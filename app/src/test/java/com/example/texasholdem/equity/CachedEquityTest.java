@@ -0,0 +1,88 @@
+package com.example.texasholdem.equity;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.texasholdem.models.TestCards.set;
+import static org.junit.Assert.*;
+
+/**
+ * 花色同构命中、LRU 淘汰计数，以及固定 seed 的 MonteCarloEquity 作为被缓存的引擎。
+ */
+public class CachedEquityTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    // 只计数的引擎，缓存命中时不会被调用
+    private final EquityEngine counting = spot -> {
+        calls.incrementAndGet();
+        return new EquityResult(1, 0, 0, 1, 1);
+    };
+
+    @Test
+    public void suitPermutedSpotHitsCachedMonteCarloResult() {
+        MonteCarloEquity monteCarlo = new MonteCarloEquity();
+        monteCarlo.setTrials(50_000);
+        monteCarlo.setSeed(3L);
+        CachedEquity cache = new CachedEquity(monteCarlo, 16);
+
+        EquityResult first = cache.calculate(new EquitySpot(set("Ah Kh"), set("Qh Jd 2c"), 1));
+        // 红桃 → 黑桃，方块 → 红桃
+        EquitySpot permuted = new EquitySpot(set("As Ks"), set("Qs Jh 2c"), 1);
+        EquityResult second = cache.calculate(permuted);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0);
+        assertEquals(new ExactEquity().calculate(permuted).getEquity(), second.getEquity(), 0.01);
+    }
+
+    @Test
+    public void fixedSeedMakesMonteCarloEngineDeterministic() {
+        MonteCarloEquity monteCarlo = new MonteCarloEquity();
+        monteCarlo.setTrials(20_000);
+        EquitySpot spot = new EquitySpot(set("7c 7d"), set("Ks 8h 2d"), 2);
+        EquityResult a = monteCarlo.calculate(spot);
+        EquityResult b = monteCarlo.calculate(spot);
+        assertEquals(20_000, a.getTrials());
+        assertEquals(a.getWins(), b.getWins());
+        assertEquals(a.getTies(), b.getTies());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        CachedEquity cache = new CachedEquity(counting, 2);
+        EquitySpot a = new EquitySpot(set("Ah Ad"), set("2c 7d 9s"), 1);
+        EquitySpot b = new EquitySpot(set("Kh Kd"), set("2c 7d 9s"), 1);
+        EquitySpot c = new EquitySpot(set("Qh Qd"), set("2c 7d 9s"), 1);
+
+        cache.calculate(a);
+        cache.calculate(b);
+        cache.calculate(a);
+        cache.calculate(c);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertEquals(3, calls.get());
+
+        // b 最久没用过，已被淘汰；a 还在
+        cache.calculate(a);
+        assertEquals(3, calls.get());
+        cache.calculate(b);
+        assertEquals(4, calls.get());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void deadCardsBypassCache() {
+        CachedEquity cache = new CachedEquity(counting, 4);
+        EquitySpot spot = new EquitySpot(set("Ah Ad"), set("2c 7d 9s"), set("Kc"), 1);
+        cache.calculate(spot);
+        cache.calculate(spot);
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.HandEvaluator;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.example.texasholdem.models.TestCards.set;
+import static org.junit.Assert.*;
+
+/**
+ * 与直接按定义逐个发牌的参考实现对比。参考实现把对手手牌按有序方式枚举，
+ * 和 ExactEquity 的无序枚举次数不同，但胜、平、负的比例和 equity 必须相同。
+ */
+public class ExactEquityTest {
+
+    private static final double EPSILON = 1e-12;
+
+    private final ExactEquity exact = new ExactEquity();
+
+    @Test
+    public void riverHeadsUpMatchesBruteForce() {
+        assertMatchesBruteForce(new EquitySpot(set("As Kd"), set("2c 7d 9h Js Kh"), 1));
+    }
+
+    @Test
+    public void turnHeadsUpMatchesBruteForce() {
+        assertMatchesBruteForce(new EquitySpot(set("8h 9h"), set("Th Jc 2h 3d"), 1));
+    }
+
+    @Test
+    public void riverThreeWayMatchesBruteForce() {
+        assertMatchesBruteForce(new EquitySpot(set("Qs Qd"), set("2c 7d 9h Js 4s"), 2));
+    }
+
+    @Test
+    public void deadCardsAreNeverDealt() {
+        // 对手可能的 A 全部是死牌后，hero 的 K 高永远不会输给 A 高
+        EquitySpot spot = new EquitySpot(set("Kh Qd"), set("2c 7d 9h 4s 3c"), set("Ah Ad Ac As"), 1);
+        assertMatchesBruteForce(spot);
+    }
+
+    @Test
+    public void boardPlaysForEveryoneOnRoyalBoard() {
+        EquityResult result = exact.calculate(new EquitySpot(set("2c 3d"), set("Ts Js Qs Ks As"), 1));
+        assertEquals(1.0, result.getTieProbability(), EPSILON);
+        assertEquals(0.5, result.getEquity(), EPSILON);
+        assertEquals(45 * 44 / 2, result.getTrials());
+    }
+
+    @Test
+    public void resultDoesNotDependOnParallelism() {
+        EquitySpot spot = new EquitySpot(set("8h 9h"), set("Th Jc 2h"), 1);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            EquityResult a = new ExactEquity(single).calculate(spot);
+            EquityResult b = exact.calculate(spot);
+            assertEquals(a.getWins(), b.getWins());
+            assertEquals(a.getTies(), b.getTies());
+            assertEquals(a.getLosses(), b.getLosses());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void preflopIsRejected() {
+        exact.calculate(new EquitySpot(set("As Ad"), CardSet.EMPTY, 1));
+    }
+
+    private void assertMatchesBruteForce(EquitySpot spot) {
+        EquityResult actual = exact.calculate(spot);
+        BruteForce expected = new BruteForce(spot);
+        expected.dealBoard(0, spot.getBoard());
+        long trials = expected.wins + expected.ties + expected.losses;
+        assertEquals((double) expected.wins / trials, actual.getWinProbability(), EPSILON);
+        assertEquals((double) expected.ties / trials, actual.getTieProbability(), EPSILON);
+        assertEquals(expected.equitySum / trials, actual.getEquity(), EPSILON);
+    }
+
+    /**
+     * 先补齐公共牌（无序），再依次给每个对手发两张（对手之间有序）。
+     */
+    static final class BruteForce {
+        private final long hero;
+        private final int opponents;
+        private final int[] live = new int[52];
+        private final int liveCount;
+        private final int[] ranks;
+
+        long wins;
+        long ties;
+        long losses;
+        double equitySum;
+
+        BruteForce(EquitySpot spot) {
+            this.hero = spot.getHeroCards();
+            this.opponents = spot.getOpponents();
+            this.liveCount = CardSet.toCodes(spot.getLiveCards(), live);
+            this.ranks = new int[opponents];
+        }
+
+        void dealBoard(int start, long board) {
+            if (CardSet.size(board) == 5) {
+                dealOpponent(0, board, hero | board);
+                return;
+            }
+            for (int i = start; i < liveCount; i++) {
+                dealBoard(i + 1, board | (1L << live[i]));
+            }
+        }
+
+        private void dealOpponent(int index, long board, long used) {
+            if (index == opponents) {
+                score(HandEvaluator.evaluate(hero | board));
+                return;
+            }
+            for (int i = 0; i < liveCount; i++) {
+                for (int j = i + 1; j < liveCount; j++) {
+                    long hand = (1L << live[i]) | (1L << live[j]);
+                    if ((hand & used) != 0) {
+                        continue;
+                    }
+                    ranks[index] = HandEvaluator.evaluate(hand | board);
+                    dealOpponent(index + 1, board, used | hand);
+                }
+            }
+        }
+
+        private void score(int heroRank) {
+            int best = 0;
+            int tied = 0;
+            for (int rank : ranks) {
+                best = Math.max(best, rank);
+                if (rank == heroRank) tied++;
+            }
+            if (heroRank > best) {
+                wins++;
+                equitySum += 1;
+            } else if (heroRank == best) {
+                ties++;
+                equitySum += 1.0 / (tied + 1);
+            } else {
+                losses++;
+            }
+        }
+    }
+}
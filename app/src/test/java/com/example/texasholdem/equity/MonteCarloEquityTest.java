@@ -0,0 +1,69 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.example.texasholdem.models.TestCards.set;
+import static org.junit.Assert.*;
+
+/**
+ * 蒙特卡洛结果与 ExactEquity 的精确值对比，容差取 200k 次模拟标准误差的 5 倍左右。
+ */
+public class MonteCarloEquityTest {
+
+    private static final int TRIALS = 200_000;
+    private static final double TOLERANCE = 0.006;
+
+    private final MonteCarloEquity monteCarlo = new MonteCarloEquity();
+    private final ExactEquity exact = new ExactEquity();
+
+    @Test
+    public void flopHeadsUpIsCloseToExact() {
+        assertCloseToExact(new EquitySpot(set("8h 9h"), set("Th Jc 2h"), 1));
+    }
+
+    @Test
+    public void turnThreeWayIsCloseToExact() {
+        assertCloseToExact(new EquitySpot(set("As Kd"), set("Ks 7c 2d 9h"), 2));
+    }
+
+    @Test
+    public void sameSeedGivesSameResultOnAnyPool() {
+        EquitySpot spot = new EquitySpot(set("As Ad"), CardSet.EMPTY, 3);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            EquityResult a = new MonteCarloEquity(single).calculate(spot, 50_000, 42L);
+            EquityResult b = monteCarlo.calculate(spot, 50_000, 42L);
+            assertEquals(50_000, a.getTrials());
+            assertEquals(a.getWins(), b.getWins());
+            assertEquals(a.getTies(), b.getTies());
+            assertEquals(a.getLosses(), b.getLosses());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void stopsOnceConfidenceTargetIsReached() {
+        EquitySpot spot = new EquitySpot(set("As Ad"), CardSet.EMPTY, 1);
+        EquityResult result = monteCarlo.calculate(spot, 50_000_000L, 0, 0.01, 7L);
+        assertTrue(result.getTrials() < 50_000_000L);
+        assertTrue(result.getConfidenceHalfWidth() <= 0.01);
+    }
+
+    @Test
+    public void noOpponentsWinsOutright() {
+        EquityResult result = monteCarlo.calculate(new EquitySpot(set("2c 7d"), CardSet.EMPTY, 0), 1000, 1L);
+        assertEquals(1.0, result.getEquity(), 0);
+    }
+
+    private void assertCloseToExact(EquitySpot spot) {
+        double expected = exact.calculate(spot).getEquity();
+        EquityResult result = monteCarlo.calculate(spot, TRIALS, 12345L);
+        assertEquals(TRIALS, result.getTrials());
+        assertEquals(expected, result.getEquity(), TOLERANCE);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.texasholdem.equity;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.example.texasholdem.models.TestCards.code;
+import static com.example.texasholdem.models.TestCards.set;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 起手牌类别的编号和查表。查表用合成的表（值 = 类别 * 10 + 对手数），
+ * 胜率本身用 assets 里生成好的表检查。
+ */
+public class PreflopTableTest {
+
+    private static final String ASSET = "src/main/assets/" + PreflopTable.ASSET_NAME;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void classIndexOrdersSuitedAndOffsuit() {
+        // 同花在对角线上方 (大, 小)，非同花在下方 (小, 大)
+        assertEquals(12 * 13 + 11, PreflopTable.classIndex(code("Ah"), code("Kh")));
+        assertEquals(11 * 13 + 12, PreflopTable.classIndex(code("Ah"), code("Kd")));
+        assertEquals(12 * 13 + 12, PreflopTable.classIndex(code("As"), code("Ac")));
+        assertEquals(5 * 13 + 0, PreflopTable.classIndex(code("2c"), code("7c")));
+        assertEquals(0 * 13 + 5, PreflopTable.classIndex(code("2c"), code("7d")));
+
+        assertEquals("AKs", PreflopTable.className(PreflopTable.classIndex(code("Ks"), code("As"))));
+        assertEquals("AKo", PreflopTable.className(PreflopTable.classIndex(code("Ks"), code("Ad"))));
+        assertEquals("TT", PreflopTable.className(PreflopTable.classIndex(code("Th"), code("Td"))));
+    }
+
+    @Test
+    public void classIndexIgnoresOrderAndSuitNames() {
+        for (int a = 0; a < 52; a++) {
+            for (int b = 0; b < 52; b++) {
+                if (a == b) {
+                    continue;
+                }
+                int index = PreflopTable.classIndex(a, b);
+                assertEquals(index, PreflopTable.classIndex(b, a));
+                assertTrue(index >= 0 && index < PreflopTable.CLASS_COUNT);
+            }
+        }
+        for (int c = 0; c < PreflopTable.CLASS_COUNT; c++) {
+            int cards = PreflopTable.representative(c);
+            assertEquals(c, PreflopTable.classIndex(cards >> 8, cards & 0xFF));
+        }
+    }
+
+    @Test
+    public void handEquityLooksUpClassAndOpponents() throws IOException {
+        PreflopTable table = PreflopTable.wrap(syntheticTable());
+        int aks = PreflopTable.classIndex(code("As"), code("Ks"));
+        assertEquals(aks * 10 + 1, table.getHandEquity(set("As Ks"), 1), 0);
+        assertEquals(aks * 10 + 7, table.getHandEquity(set("Kh Ah"), 7), 0);
+        int ako = PreflopTable.classIndex(code("As"), code("Kd"));
+        assertEquals(ako * 10 + 3, table.getHandEquity(set("Kd As"), 3), 0);
+        assertEquals(table.getEquity(ako, 3), table.getEquity(code("As"), code("Kd"), 3), 0);
+    }
+
+    @Test
+    public void handEquityChecksArguments() throws IOException {
+        PreflopTable table = PreflopTable.wrap(syntheticTable());
+        assertThrows(IllegalArgumentException.class, () -> table.getHandEquity(set("As"), 1));
+        assertThrows(IllegalArgumentException.class, () -> table.getHandEquity(set("As Ks Qs"), 1));
+        assertThrows(IllegalArgumentException.class, () -> table.getHandEquity(set("As Ks"), 0));
+        assertThrows(IllegalArgumentException.class, () -> table.getHandEquity(set("As Ks"), PreflopTable.MAX_OPPONENTS + 1));
+    }
+
+    @Test
+    public void rejectsBadHeaderAndShortFile() throws IOException {
+        ByteBuffer buffer = syntheticTable();
+        buffer.putInt(4, PreflopTable.VERSION + 1);
+        try {
+            PreflopTable.wrap(buffer);
+            fail("Version mismatch must be rejected");
+        } catch (IOException expected) {
+        }
+        File file = writeTable(folder.newFile());
+        try (FileChannel channel = new FileInputStream(file).getChannel()) {
+            PreflopTable.map(channel, 0, PreflopTable.FILE_SIZE - 1);
+            fail("Short table must be rejected");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void openLeavesCallerFdOpen() throws IOException {
+        File file = writeTable(folder.newFile());
+        try (FileInputStream in = new FileInputStream(file)) {
+            PreflopTable table = PreflopTable.open(in.getFD(), 0, file.length());
+            assertTrue(in.getFD().valid());
+            // 流仍然可读：MAGIC 的第一个字节
+            assertEquals(PreflopTable.MAGIC >>> 24, in.read());
+            assertEquals(1, table.getEquity(0, 1), 0);
+        }
+    }
+
+    @Test
+    public void generatedAssetIsPlausible() throws IOException {
+        File asset = new File(ASSET);
+        assumeTrue(asset.isFile());
+        try (FileChannel channel = new FileInputStream(asset).getChannel()) {
+            PreflopTable table = PreflopTable.map(channel, 0, channel.size());
+            float aces = table.getHandEquity(set("Ah Ad"), 1);
+            assertEquals(0.85, aces, 0.01);
+            assertTrue(aces > table.getHandEquity(set("Kh Kd"), 1));
+            assertTrue(table.getHandEquity(set("As Ks"), 1) > table.getHandEquity(set("As Kd"), 1));
+            assertTrue(table.getHandEquity(set("7c 2d"), 1) < 0.4);
+            for (int opponents = 2; opponents <= PreflopTable.MAX_OPPONENTS; opponents++) {
+                assertTrue(table.getHandEquity(set("Ah Ad"), opponents) < table.getHandEquity(set("Ah Ad"), opponents - 1));
+            }
+        }
+    }
+
+    private static ByteBuffer syntheticTable() {
+        ByteBuffer buffer = ByteBuffer.allocate(PreflopTable.FILE_SIZE);
+        buffer.putInt(PreflopTable.MAGIC).putInt(PreflopTable.VERSION)
+                .putInt(PreflopTable.CLASS_COUNT).putInt(PreflopTable.MAX_OPPONENTS);
+        for (int c = 0; c < PreflopTable.CLASS_COUNT; c++) {
+            for (int o = 1; o <= PreflopTable.MAX_OPPONENTS; o++) {
+                buffer.putFloat(c * 10 + o);
+            }
+        }
+        return buffer;
+    }
+
+    private static File writeTable(File file) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(syntheticTable().array());
+        }
+        return file;
+    }
+}
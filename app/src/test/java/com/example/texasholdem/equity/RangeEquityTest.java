@@ -0,0 +1,116 @@
+package com.example.texasholdem.equity;
+
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.HandEvaluator;
+
+import org.junit.Test;
+
+import static com.example.texasholdem.models.TestCards.set;
+import static org.junit.Assert.*;
+
+/**
+ * 与穷举所有 runout 和所有不冲突 combo 组合的加权结果对比。
+ */
+public class RangeEquityTest {
+
+    private final RangeEquity rangeEquity = new RangeEquity();
+
+    @Test
+    public void headsUpMatchesEnumeration() {
+        Range hero = Range.parse("AKs, QQ");
+        Range villain = Range.parse("JJ+, AQo:0.5");
+        long board = set("Ah 7d 2c 9s");
+        assertArrayEquals(enumerate(board, hero, villain),
+                rangeEquity.calculate(board, hero, villain), 1e-9);
+    }
+
+    @Test
+    public void threeWayTurnMatchesEnumeration() {
+        // 河牌发出 A/K/Q 时对应的对子只剩 3 个 combo，runout 不能等权
+        Range aces = Range.parse("AA");
+        Range kings = Range.parse("KK");
+        Range queens = Range.parse("QQ");
+        long board = set("2c 5d 9h Js");
+        double[] expected = enumerate(board, aces, kings, queens);
+        assertEquals(0.9048, expected[0], 1e-4);
+
+        rangeEquity.setMultiwaySamples(2_000_000);
+        assertArrayEquals(expected, rangeEquity.calculate(board, CardSet.EMPTY, 7L, aces, kings, queens), 0.003);
+    }
+
+    @Test
+    public void threeWayWeightedFlopMatchesEnumeration() {
+        Range first = Range.parse("AKs, TT:0.5");
+        Range second = Range.parse("KQs, AA:0.25");
+        Range third = Range.parse("TT, 99");
+        long board = set("Ks Td 4h");
+        double[] expected = enumerate(board, first, second, third);
+
+        rangeEquity.setMultiwaySamples(3_000_000);
+        assertArrayEquals(expected, rangeEquity.calculate(board, CardSet.EMPTY, 11L, first, second, third), 0.005);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSingleRange() {
+        rangeEquity.calculate(CardSet.EMPTY, Range.parse("AA"));
+    }
+
+    // 每个 runout 上枚举所有 combo 组合，权重为各 combo 权重之积
+    private static double[] enumerate(long board, Range... ranges) {
+        int[] live = new int[52];
+        int n = CardSet.toCodes(CardSet.remaining(board), live);
+        double[] shares = new double[ranges.length];
+        double[] weight = new double[1];
+        if (CardSet.size(board) == 5) {
+            enumerateCombos(board, ranges, 0, CardSet.EMPTY, 1, new int[ranges.length], shares, weight);
+        } else if (CardSet.size(board) == 4) {
+            for (int i = 0; i < n; i++) {
+                enumerateCombos(board | (1L << live[i]), ranges, 0, CardSet.EMPTY, 1,
+                        new int[ranges.length], shares, weight);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    enumerateCombos(board | (1L << live[i]) | (1L << live[j]), ranges, 0, CardSet.EMPTY, 1,
+                            new int[ranges.length], shares, weight);
+                }
+            }
+        }
+        for (int p = 0; p < shares.length; p++) {
+            shares[p] /= weight[0];
+        }
+        return shares;
+    }
+
+    private static void enumerateCombos(long board, Range[] ranges, int player, long used, double product,
+                                        int[] values, double[] shares, double[] weight) {
+        if (player == ranges.length) {
+            int best = 0;
+            int winners = 0;
+            for (int value : values) {
+                if (value > best) {
+                    best = value;
+                    winners = 1;
+                } else if (value == best) {
+                    winners++;
+                }
+            }
+            for (int p = 0; p < values.length; p++) {
+                if (values[p] == best) {
+                    shares[p] += product / winners;
+                }
+            }
+            weight[0] += product;
+            return;
+        }
+        for (int c = 0; c < Range.COMBO_COUNT; c++) {
+            float w = ranges[player].getWeight(c);
+            long mask = Range.comboMask(c);
+            if (w <= 0 || (mask & (board | used)) != 0) {
+                continue;
+            }
+            values[player] = HandEvaluator.evaluate(board | mask);
+            enumerateCombos(board, ranges, player + 1, used | mask, product * w, values, shares, weight);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.texasholdem.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyTrackerTest {
+
+    // 与 LatencyTracker.MAX_PENDING 相同
+    private static final int MAX_PENDING = 16;
+
+    private final LatencyTracker tracker = new LatencyTracker();
+
+    @Test
+    public void responseRecordsRtt() {
+        int actionId = tracker.actionSent();
+        assertTrue(actionId > 0);
+        long sent = tracker.responseReceived(actionId, System.nanoTime() + 5_000_000_000L);
+        assertTrue(sent > 0);
+        assertEquals(1, tracker.getRtt().getCount());
+        assertTrue(tracker.getRtt().getMax() >= 5_000_000);
+    }
+
+    @Test
+    public void unknownOrDuplicateActionIdReturnsZero() {
+        int actionId = tracker.actionSent();
+        assertEquals(0, tracker.responseReceived(actionId + 1, System.nanoTime()));
+        assertEquals(0, tracker.responseReceived(0, System.nanoTime()));
+        assertEquals(0, tracker.responseReceived(-actionId, System.nanoTime()));
+        assertTrue(tracker.responseReceived(actionId, System.nanoTime()) != 0);
+        // 重复补发的同一条消息
+        assertEquals(0, tracker.responseReceived(actionId, System.nanoTime()));
+        assertEquals(1, tracker.getRtt().getCount());
+        assertEquals(0, tracker.getUnanswered());
+    }
+
+    @Test
+    public void reusedSlotCountsAsUnanswered() {
+        int first = tracker.actionSent();
+        for (int i = 1; i < MAX_PENDING; i++) {
+            tracker.actionSent();
+        }
+        assertEquals(0, tracker.getUnanswered());
+        // 第 17 个操作占用第一个操作的槽位
+        int overwriting = tracker.actionSent();
+        assertEquals(1, tracker.getUnanswered());
+        assertEquals(0, tracker.responseReceived(first, System.nanoTime()));
+        assertTrue(tracker.responseReceived(overwriting, System.nanoTime()) != 0);
+        // 已回应的槽位再被占用不算
+        for (int i = 0; i < MAX_PENDING; i++) {
+            tracker.actionSent();
+        }
+        assertEquals(MAX_PENDING, tracker.getUnanswered());
+    }
+
+    @Test
+    public void renderPairsWithFirstPublishedAction() {
+        long now = System.nanoTime();
+        tracker.published(now - 3_000_000_000L, now - 1_000_000_000L);
+        tracker.published(now, now);
+        assertEquals(2, tracker.getDecode().getCount());
+        assertTrue(tracker.getDecode().getMax() >= 1_000_000);
+
+        tracker.rendered();
+        assertEquals(1, tracker.getRender().getCount());
+        assertEquals(1, tracker.getTotal().getCount());
+        // total 从第一个等待渲染的操作算起，第二个被合并进同一帧
+        assertTrue(tracker.getTotal().getMax() >= 3_000_000);
+        assertTrue(tracker.getRender().getMax() < tracker.getTotal().getMax());
+
+        // 没有等待中的操作时不记录
+        tracker.rendered();
+        assertEquals(1, tracker.getTotal().getCount());
+    }
+
+    @Test
+    public void resetClearsHistogramsAndPendingRender() {
+        tracker.actionSent();
+        long now = System.nanoTime();
+        tracker.published(now, now);
+        for (int i = 0; i < MAX_PENDING; i++) {
+            tracker.actionSent();
+        }
+        tracker.reset();
+        assertEquals(0, tracker.getUnanswered());
+        assertEquals(0, tracker.getDecode().getCount());
+        tracker.rendered();
+        assertEquals(0, tracker.getTotal().getCount());
+        assertTrue(tracker.export().startsWith(tracker.summary()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.texasholdem.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LogHistogramTest {
+
+    @Test
+    public void smallValuesHaveExactBuckets() {
+        for (int v = 0; v < 32; v++) {
+            assertEquals(v, LogHistogram.bucketOf(v));
+            assertEquals(v, LogHistogram.upperBoundOf(v));
+        }
+        // 从 32 开始每个桶宽 2
+        assertEquals(32, LogHistogram.bucketOf(32));
+        assertEquals(32, LogHistogram.bucketOf(33));
+        assertEquals(33, LogHistogram.upperBoundOf(32));
+        assertEquals(33, LogHistogram.bucketOf(34));
+    }
+
+    @Test
+    public void bucketEdgesAreContiguous() {
+        for (int bucket = 0; bucket < LogHistogram.BUCKETS - 1; bucket++) {
+            long upper = LogHistogram.upperBoundOf(bucket);
+            assertEquals(bucket, LogHistogram.bucketOf(upper));
+            assertEquals(bucket + 1, LogHistogram.bucketOf(upper + 1));
+        }
+        assertEquals(LogHistogram.BUCKETS - 1, LogHistogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LogHistogram.upperBoundOf(LogHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    public void relativeErrorIsAtMostOneSixteenth() {
+        for (int bucket = 16; bucket < LogHistogram.BUCKETS; bucket++) {
+            long lower = LogHistogram.upperBoundOf(bucket - 1) + 1;
+            long width = LogHistogram.upperBoundOf(bucket) - lower + 1;
+            assertTrue(width <= lower / 16 + 1);
+        }
+    }
+
+    @Test
+    public void percentilesUseRankAndClampToMax() {
+        LogHistogram histogram = new LogHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int v = 1; v <= 100; v++) {
+            histogram.record(v);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(1, histogram.getPercentile(1));
+        // 第 50 个值落在 [50, 51] 桶，返回上界
+        assertEquals(51, histogram.getPercentile(50));
+        // 100 所在的桶上界是 103，不超过最大值
+        assertEquals(100, histogram.getPercentile(100));
+        assertEquals(100, histogram.getPercentile(99.5));
+        assertEquals(100, histogram.getMax());
+    }
+
+    @Test
+    public void negativeValuesCountAsZero() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void mergeAddsCountsAndKeepsMax() {
+        LogHistogram a = new LogHistogram();
+        LogHistogram b = new LogHistogram();
+        a.record(10);
+        a.record(20);
+        b.record(1000);
+        a.merge(b);
+        assertEquals(3, a.getCount());
+        assertEquals(1030 / 3.0, a.getMean(), 1e-9);
+        assertEquals(1000, a.getMax());
+        assertEquals(20, a.getPercentile(66));
+        assertEquals(1000, a.getPercentile(100));
+        // 被合并的一方不变
+        assertEquals(1, b.getCount());
+
+        StringBuilder out = new StringBuilder();
+        a.appendBuckets(out);
+        assertEquals("10 1\n20 1\n1023 1\n", out.toString());
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(7);
+        histogram.record(70_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean(), 0);
+        assertEquals(0, histogram.getPercentile(99));
+        StringBuilder out = new StringBuilder();
+        histogram.appendBuckets(out);
+        assertEquals("", out.toString());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.texasholdem.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TraceRecorderTest {
+
+    @Test
+    public void wrapsAroundKeepingNewestInOrder() {
+        TraceRecorder recorder = new TraceRecorder(4);
+        for (int i = 1; i <= 6; i++) {
+            recorder.add(TraceRecorder.BET_RAISE, i, i * 100, 0, 0);
+        }
+        String[] lines = recorder.dump(60_000).split("\n");
+        assertEquals(4, lines.length);
+        for (int k = 0; k < 4; k++) {
+            int id = k + 3;
+            assertTrue(lines[k], lines[k].endsWith(" bet.raise actionId=" + id + " amount=" + id * 100));
+        }
+    }
+
+    @Test
+    public void formatsOnlyNamedArguments() {
+        TraceRecorder recorder = new TraceRecorder(4);
+        recorder.add(TraceRecorder.CONNECTED, 1, 2, 3, 4);
+        recorder.add(TraceRecorder.PLAYER, 2, 900, 100, TraceRecorder.PLAYER_SELF);
+        String[] lines = recorder.dump(60_000).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].endsWith(" connected"));
+        assertTrue(lines[1], lines[1].endsWith(" player index=2 chips=900 bet=100 flags=16"));
+    }
+
+    @Test
+    public void dumpSkipsEventsOutsideWindow() throws InterruptedException {
+        TraceRecorder recorder = new TraceRecorder(8);
+        assertEquals("", recorder.dump(60_000));
+        recorder.add(TraceRecorder.JOIN, 0, 0, 0, 0);
+        Thread.sleep(50);
+        recorder.add(TraceRecorder.RESUME, 7, 0, 0, 0);
+
+        String recent = recorder.dump(30);
+        assertFalse(recent, recent.contains("join"));
+        assertTrue(recent, recent.contains("resume lastSeq=7"));
+        assertEquals(2, recorder.dump(60_000).split("\n").length);
+    }
+}
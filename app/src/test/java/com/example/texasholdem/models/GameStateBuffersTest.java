@@ -0,0 +1,117 @@
+package com.example.texasholdem.models;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * 发布 / 取用的覆盖语义，以及界面拿到的对象在下一次 acquire 之前不会被解码线程写到。
+ */
+public class GameStateBuffersTest {
+
+    @Test
+    public void acquireWithoutPublishReturnsNull() {
+        GameStateBuffers buffers = new GameStateBuffers();
+        assertNull(buffers.acquire());
+        write(buffers, 1);
+        assertFalse(buffers.publish());
+        assertEquals(1, buffers.acquire().getPot());
+        assertNull(buffers.acquire());
+    }
+
+    @Test
+    public void unreadPublishIsOverwritten() {
+        GameStateBuffers buffers = new GameStateBuffers();
+        write(buffers, 1);
+        assertFalse(buffers.publish());
+        write(buffers, 2);
+        assertTrue(buffers.publish());
+        write(buffers, 3);
+        assertTrue(buffers.publish());
+
+        GameState front = buffers.acquire();
+        assertEquals(3, front.getPot());
+        assertNull(buffers.acquire());
+        write(buffers, 4);
+        assertFalse(buffers.publish());
+    }
+
+    @Test
+    public void uiIsNeverHandedTheBackBuffer() {
+        GameStateBuffers buffers = new GameStateBuffers();
+        SplittableRandom random = new SplittableRandom(1L);
+        GameState front = null;
+        int written = 0;
+        int frontPot = -1;
+        for (int step = 0; step < 10000; step++) {
+            if (random.nextBoolean()) {
+                assertNotSame(front, buffers.back());
+                write(buffers, ++written);
+                buffers.publish();
+            } else {
+                GameState acquired = buffers.acquire();
+                if (acquired != null) {
+                    // 总是拿到最新发布的那一份
+                    assertEquals(written, acquired.getPot());
+                    front = acquired;
+                    frontPot = written;
+                }
+            }
+            assertNotSame(front, buffers.back());
+            if (front != null) {
+                // 持有期间没有被写过
+                assertEquals(frontPot, front.getPot());
+            }
+        }
+    }
+
+    @Test
+    public void concurrentWriterNeverTouchesFront() throws Exception {
+        GameStateBuffers buffers = new GameStateBuffers();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                i++;
+                GameState back = buffers.back();
+                back.setPot(i);
+                back.setCurrentBet(i);
+                back.setDealerIndex(i);
+                buffers.publish();
+            }
+        });
+        writer.start();
+        try {
+            int last = 0;
+            int seen = 0;
+            long deadline = System.nanoTime() + 500_000_000L;
+            while (System.nanoTime() < deadline) {
+                GameState front = buffers.acquire();
+                if (front == null) {
+                    continue;
+                }
+                int pot = front.getPot();
+                assertTrue(pot > last);
+                // 写线程一直在跑，front 在下一次 acquire 之前保持不变
+                for (int k = 0; k < 100; k++) {
+                    assertEquals(pot, front.getCurrentBet());
+                    assertEquals(pot, front.getDealerIndex());
+                    assertEquals(pot, front.getPot());
+                }
+                last = pot;
+                seen++;
+            }
+            assertTrue(seen > 0);
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    private static void write(GameStateBuffers buffers, int pot) {
+        buffers.back().setPot(pot);
+    }
+}
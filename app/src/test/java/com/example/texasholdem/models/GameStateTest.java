@@ -0,0 +1,52 @@
+package com.example.texasholdem.models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GameStateTest {
+
+    @Test
+    public void setPlayersCopiesCallerObjects() {
+        Player alice = new Player("p1", "Alice");
+        alice.setChips(500);
+        alice.setHand(Arrays.asList(Card.of(0), Card.of(13)));
+        List<Player> players = new ArrayList<>(Arrays.asList(alice, new Player("p2", "Bob")));
+
+        GameState state = new GameState();
+        state.setPlayers(players);
+        Player seat = state.getPlayers().get(0);
+        assertNotSame(alice, seat);
+        assertEquals("Alice", seat.getName());
+        assertEquals(500, seat.getChips());
+        assertEquals(2, seat.getHand().size());
+
+        // 之后复用座位不会改到调用方的对象
+        state.clear();
+        state.addSeat().setName("Carol");
+        assertEquals("Alice", alice.getName());
+        assertEquals(500, alice.getChips());
+        assertEquals(2, alice.getHand().size());
+    }
+
+    @Test
+    public void setPlayersReusesOwnSeats() {
+        GameState state = new GameState();
+        state.setPlayers(Arrays.asList(new Player("p1", "Alice"), new Player("p2", "Bob")));
+        Player first = state.getPlayers().get(0);
+
+        state.setPlayers(Arrays.asList(new Player("p3", "Carol")));
+        assertEquals(1, state.getPlayers().size());
+        assertSame(first, state.getPlayers().get(0));
+        assertEquals("Carol", first.getName());
+
+        state.setPlayers(state.getPlayers());
+        assertEquals(1, state.getPlayers().size());
+        state.setPlayers(null);
+        assertTrue(state.getPlayers().isEmpty());
+    }
+}
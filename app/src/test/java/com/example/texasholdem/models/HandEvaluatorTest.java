@@ -0,0 +1,174 @@
+package com.example.texasholdem.models;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * 与一个直白的参考实现对比：5 张牌按点数分组排序后打包，7 张牌取 21 种组合里最大的。
+ */
+public class HandEvaluatorTest {
+
+    @Test
+    public void matchesNaiveEvaluatorOnRandomHands() {
+        SplittableRandom random = new SplittableRandom(20240601L);
+        int[] cards = new int[7];
+        for (int trial = 0; trial < 50000; trial++) {
+            int count = 5 + trial % 3;
+            long set = dealRandom(random, cards, count);
+            assertEquals(CardSet.toCards(set).toString(), naiveBest(cards, count), HandEvaluator.evaluate(set));
+        }
+    }
+
+    @Test
+    public void wheelIsFiveHighStraight() {
+        int value = HandEvaluator.evaluate(parse("Ah 2d 3c 4s 5h 9d Kc"));
+        assertEquals(HandEvaluator.STRAIGHT, HandEvaluator.getCategory(value));
+        assertTrue(value < HandEvaluator.evaluate(parse("2d 3c 4s 5h 6h 9d Kc")));
+        assertEquals(naiveBest("Ah 2d 3c 4s 5h 9d Kc"), value);
+    }
+
+    @Test
+    public void steelWheelIsStraightFlush() {
+        int value = HandEvaluator.evaluate(parse("As 2s 3s 4s 5s Kd Kc"));
+        assertEquals(HandEvaluator.STRAIGHT_FLUSH, HandEvaluator.getCategory(value));
+        assertTrue(value < HandEvaluator.evaluate(parse("2s 3s 4s 5s 6s Kd Kc")));
+        assertTrue(value > HandEvaluator.evaluate(parse("Ah Ad Ac As Ks 2d 3c")));
+        assertEquals(naiveBest("As 2s 3s 4s 5s Kd Kc"), value);
+    }
+
+    @Test
+    public void flushBeatsStraightInSameHand() {
+        // 5~9 的顺子和红桃同花同时存在，但不是同花顺
+        int value = HandEvaluator.evaluate(parse("5h 6d 7h 8h 9c Jh 2h"));
+        assertEquals(HandEvaluator.FLUSH, HandEvaluator.getCategory(value));
+        assertEquals(naiveBest("5h 6d 7h 8h 9c Jh 2h"), value);
+    }
+
+    @Test
+    public void twoTripsMakeFullHouse() {
+        int value = HandEvaluator.evaluate(parse("9h 9d 9c 4s 4h 4d Ac"));
+        assertEquals(HandEvaluator.FULL_HOUSE, HandEvaluator.getCategory(value));
+        // 较大的三条作三条，较小的三条作对子
+        assertEquals(HandEvaluator.evaluate(parse("9h 9d 9c 4s 4h")), value);
+        assertEquals(naiveBest("9h 9d 9c 4s 4h 4d Ac"), value);
+    }
+
+    @Test
+    public void threePairsUseBestKicker() {
+        int value = HandEvaluator.evaluate(parse("Kh Kd 7c 7s 5h 5d 2c"));
+        assertEquals(HandEvaluator.TWO_PAIR, HandEvaluator.getCategory(value));
+        assertEquals(HandEvaluator.evaluate(parse("Kh Kd 7c 7s 5h")), value);
+    }
+
+    @Test
+    public void quadsWithTripsKicker() {
+        int value = HandEvaluator.evaluate(parse("3h 3d 3c 3s Qh Qd Qc"));
+        assertEquals(HandEvaluator.FOUR_OF_A_KIND, HandEvaluator.getCategory(value));
+        assertEquals(naiveBest("3h 3d 3c 3s Qh Qd Qc"), value);
+    }
+
+    private static long dealRandom(SplittableRandom random, int[] out, int count) {
+        long set = 0L;
+        int dealt = 0;
+        while (dealt < count) {
+            int code = random.nextInt(52);
+            if ((set & (1L << code)) == 0) {
+                set |= 1L << code;
+                out[dealt++] = code;
+            }
+        }
+        return set;
+    }
+
+    private static int naiveBest(String text) {
+        int[] cards = new int[7];
+        long set = parse(text);
+        int count = CardSet.toCodes(set, cards);
+        return naiveBest(cards, count);
+    }
+
+    // 枚举所有 5 张的组合
+    private static int naiveBest(int[] cards, int count) {
+        int best = -1;
+        int[] hand = new int[5];
+        for (int mask = 0; mask < (1 << count); mask++) {
+            if (Integer.bitCount(mask) != 5) {
+                continue;
+            }
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    hand[n++] = cards[i];
+                }
+            }
+            best = Math.max(best, naiveFive(hand));
+        }
+        return best;
+    }
+
+    private static int naiveFive(int[] hand) {
+        int[] counts = new int[13];
+        boolean flush = true;
+        for (int i = 0; i < 5; i++) {
+            counts[Card.rankOf(hand[i])]++;
+            flush &= Card.suitOf(hand[i]) == Card.suitOf(hand[0]);
+        }
+
+        int straightHigh = -1;
+        for (int high = 12; high >= 4 && straightHigh < 0; high--) {
+            boolean run = true;
+            for (int r = high - 4; r <= high; r++) {
+                run &= counts[r] == 1;
+            }
+            if (run) straightHigh = high;
+        }
+        if (straightHigh < 0 && counts[12] == 1 && counts[0] == 1 && counts[1] == 1
+                && counts[2] == 1 && counts[3] == 1) {
+            straightHigh = 3;
+        }
+
+        // 按 (张数, 点数) 从大到小排列的点数，依次打包成踢脚
+        int[] order = new int[5];
+        int groups = 0;
+        for (int size = 4; size >= 1; size--) {
+            for (int rank = 12; rank >= 0; rank--) {
+                if (counts[rank] == size) {
+                    order[groups++] = rank;
+                }
+            }
+        }
+        int kickers = 0;
+        for (int i = 0; i < groups; i++) {
+            kickers |= order[i] << (16 - 4 * i);
+        }
+
+        int category;
+        if (straightHigh >= 0 && flush) {
+            return (HandEvaluator.STRAIGHT_FLUSH << 20) | (straightHigh << 16);
+        } else if (counts[order[0]] == 4) {
+            category = HandEvaluator.FOUR_OF_A_KIND;
+        } else if (counts[order[0]] == 3 && counts[order[1]] == 2) {
+            category = HandEvaluator.FULL_HOUSE;
+        } else if (flush) {
+            category = HandEvaluator.FLUSH;
+        } else if (straightHigh >= 0) {
+            return (HandEvaluator.STRAIGHT << 20) | (straightHigh << 16);
+        } else if (counts[order[0]] == 3) {
+            category = HandEvaluator.THREE_OF_A_KIND;
+        } else if (counts[order[0]] == 2 && counts[order[1]] == 2) {
+            category = HandEvaluator.TWO_PAIR;
+        } else if (counts[order[0]] == 2) {
+            category = HandEvaluator.ONE_PAIR;
+        } else {
+            category = HandEvaluator.HIGH_CARD;
+        }
+        return (category << 20) | kickers;
+    }
+
+    private static long parse(String text) {
+        return TestCards.set(text);
+    }
+}
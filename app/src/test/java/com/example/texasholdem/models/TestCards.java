@@ -0,0 +1,30 @@
+package com.example.texasholdem.models;
+
+/**
+ * 测试里用的牌面写法："As Kd 2c"，点数 23456789TJQKA，花色 h d c s（与 Card 的花色编号顺序相同）。
+ */
+public final class TestCards {
+
+    private TestCards() {
+    }
+
+    public static int code(String card) {
+        int rank = "23456789TJQKA".indexOf(card.charAt(0));
+        int suit = "hdcs".indexOf(card.charAt(1));
+        if (card.length() != 2 || rank < 0 || suit < 0) {
+            throw new IllegalArgumentException("Bad card: " + card);
+        }
+        return suit * 13 + rank;
+    }
+
+    public static long set(String cards) {
+        long set = CardSet.EMPTY;
+        if (cards.trim().isEmpty()) {
+            return set;
+        }
+        for (String token : cards.trim().split("\\s+")) {
+            set |= 1L << code(token);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.texasholdem.network;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * 样例由 server/binaryCodec.test.js --fixtures 生成：两人桌翻牌圈的快照，
+ * 以及紧接着的一条增量。
+ */
+public class BinaryStateCodecTest {
+
+    private static final String SNAPSHOT =
+            "011205010007726f6f6d5f3432021e706c617965725f313730303030303030303030305f78787878"
+            + "787878783007506c61796572311e706c617965725f313730303030303030303030315f7878787878"
+            + "7836337a07506c6179657232d8092801000203220d090208e8070002330b04c5072800";
+    private static final String DELTA = "01200605010025800a0004220d092e0200100401139d075000";
+
+    private static final String PLAYER_1 = "player_1700000000000_xxxxxxxx0";
+    private static final String PLAYER_2 = "player_1700000000001_xxxxxx63z";
+
+    @Test
+    public void decodesSnapshot() throws IOException {
+        BinaryStateCodec codec = new BinaryStateCodec();
+        GameStateDecoder.Event event = codec.decode(hex(SNAPSHOT));
+
+        assertEquals(5, event.getVersion());
+        assertEquals(PLAYER_1, event.getCurrentPlayerId());
+
+        GameState state = event.getGameState();
+        assertEquals("room_42", state.getRoomId());
+        assertEquals(1240, state.getPot());
+        assertEquals(40, state.getCurrentBet());
+        assertEquals(1, state.getCurrentPlayerIndex());
+        assertEquals(0, state.getDealerIndex());
+        assertEquals("flop", state.getGamePhase());
+        assertEquals(3, state.getCommunityCards().size());
+        assertCard(state.getCommunityCards().get(0), "clubs", "10", 10);
+
+        assertEquals(2, state.getPlayers().size());
+        Player first = state.getPlayers().get(0);
+        assertEquals(PLAYER_1, first.getId());
+        assertEquals("Player1", first.getName());
+        assertEquals(1000, first.getChips());
+        assertEquals(0, first.getBet());
+        assertTrue(first.isDealer());
+        assertFalse(first.isCurrentPlayer());
+        assertEquals(2, first.getHand().size());
+        assertCard(first.getHand().get(0), "spades", "A", 14);
+        assertCard(first.getHand().get(1), "hearts", "K", 13);
+
+        Player second = state.getPlayers().get(1);
+        assertEquals(PLAYER_2, second.getId());
+        assertEquals(965, second.getChips());
+        assertEquals(40, second.getBet());
+        assertTrue(second.isCurrentPlayer());
+        assertTrue(second.getHand().isEmpty());
+    }
+
+    @Test
+    public void appliesDeltaOnTopOfSnapshot() throws IOException {
+        BinaryStateCodec codec = new BinaryStateCodec();
+        GameState state = codec.decode(hex(SNAPSHOT)).getGameState();
+
+        byte[] data = hex(DELTA);
+        assertTrue(BinaryStateCodec.isDelta(data));
+        StateDelta delta = codec.decodeDelta(data);
+        assertEquals(5, delta.getBaseVersion());
+        assertEquals(6, delta.getVersion());
+        assertEquals(PLAYER_1, delta.getCurrentPlayerId());
+        assertTrue(delta.applyTo(state));
+
+        assertEquals(1280, state.getPot());
+        assertEquals(0, state.getCurrentPlayerIndex());
+        assertEquals(4, state.getCommunityCards().size());
+        assertCard(state.getCommunityCards().get(3), "spades", "9", 9);
+        assertTrue(state.getPlayers().get(0).isCurrentPlayer());
+        assertEquals(1000, state.getPlayers().get(0).getChips());
+        assertEquals(925, state.getPlayers().get(1).getChips());
+        assertEquals(80, state.getPlayers().get(1).getBet());
+        assertFalse(state.getPlayers().get(1).isCurrentPlayer());
+    }
+
+    @Test
+    public void rejectsMismatchedMessages() {
+        BinaryStateCodec codec = new BinaryStateCodec();
+        try {
+            codec.decodeDelta(hex(SNAPSHOT));
+            fail("A snapshot is not a delta");
+        } catch (IOException expected) {
+        }
+        // 不带座位表的快照，而这个连接还没有收到过座位表
+        try {
+            codec.decode(hex("0110050000e807000000000001"));
+            fail("Player count must match the roster");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedInput() throws IOException {
+        byte[] full = hex(SNAPSHOT);
+        byte[] truncated = new byte[full.length - 3];
+        System.arraycopy(full, 0, truncated, 0, truncated.length);
+        new BinaryStateCodec().decode(truncated);
+    }
+
+    private static void assertCard(Card card, String suit, String rank, int value) {
+        assertEquals(suit, card.getSuit());
+        assertEquals(rank, card.getRank());
+        assertEquals(value, card.getValue());
+    }
+
+    private static byte[] hex(String text) {
+        byte[] data = new byte[text.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.parseInt(text.substring(i * 2, i * 2 + 2), 16);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.texasholdem.network;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static com.example.texasholdem.network.GameStateDecoderTest.SNAPSHOT;
+import static com.example.texasholdem.network.GameStateDecoderTest.card;
+import static org.junit.Assert.*;
+
+/**
+ * 增量同步：快照（版本 7）之后的增量链、版本不连续时请求快照、座位下标越界。
+ */
+public class GameProtocolTest {
+
+    private final GameProtocol protocol = new GameProtocol();
+
+    @Test
+    public void appliesDeltaChain() throws IOException {
+        GameState base = protocol.decodeSnapshot(SNAPSHOT).getGameState();
+        assertEquals(7, protocol.getStateVersion());
+
+        GameState state = protocol.applyDelta(protocol.decodeDelta(
+                delta(7, 8, "{\"pot\":200,\"currentPlayerIndex\":2}", "{\"index\":1,\"bet\":120,\"chips\":880}")));
+        assertSame(base, state);
+        assertEquals(8, protocol.getStateVersion());
+        assertEquals(200, state.getPot());
+        assertEquals(2, state.getCurrentPlayerIndex());
+        assertEquals(880, state.getPlayers().get(1).getChips());
+        assertEquals(120, state.getPlayers().get(1).getBet());
+        // 没出现在增量里的字段保持不变
+        assertEquals(40, state.getCurrentBet());
+        assertEquals("flop", state.getGamePhase());
+        assertTrue(state.getPlayers().get(1).isCurrentPlayer());
+        assertEquals(960, state.getPlayers().get(0).getChips());
+
+        state = protocol.applyDelta(protocol.decodeDelta(delta(8, 9,
+                "{\"gamePhase\":\"turn\",\"communityCards\":[" + card("hearts", "10", 10) + ","
+                        + card("clubs", "J", 11) + "," + card("spades", "2", 2) + "," + card("diamonds", "9", 9) + "]}",
+                "{\"index\":1,\"isCurrentPlayer\":false},{\"index\":0,\"hand\":[]}")));
+        assertNotNull(state);
+        assertEquals(9, protocol.getStateVersion());
+        assertEquals("turn", state.getGamePhase());
+        assertEquals(4, state.getCommunityCards().size());
+        assertSame(Card.of("diamonds", "9", 9), state.getCommunityCards().get(3));
+        assertFalse(state.getPlayers().get(1).isCurrentPlayer());
+        assertTrue(state.getPlayers().get(0).getHand().isEmpty());
+        assertEquals(120, state.getPlayers().get(1).getBet());
+    }
+
+    @Test
+    public void versionGapRequestsOneSnapshot() throws IOException {
+        protocol.decodeSnapshot(SNAPSHOT);
+        // 丢了 7 → 8
+        assertNull(protocol.applyDelta(protocol.decodeDelta(delta(8, 9, "{\"pot\":300}", ""))));
+        assertTrue(protocol.claimSnapshotRequest());
+        // 基准已失效，连上的下一条也不再合并，也不重复请求
+        assertNull(protocol.applyDelta(protocol.decodeDelta(delta(9, 10, "{\"pot\":400}", ""))));
+        assertFalse(protocol.claimSnapshotRequest());
+
+        GameState state = protocol.decodeSnapshot(SNAPSHOT.replace("\"version\":7", "\"version\":10"))
+                .getGameState();
+        assertEquals(120, state.getPot());
+        assertEquals(10, protocol.getStateVersion());
+        assertNotNull(protocol.applyDelta(protocol.decodeDelta(delta(10, 11, "{\"pot\":500}", ""))));
+        assertEquals(500, state.getPot());
+        // 新快照到了之后可以再次请求
+        assertNull(protocol.applyDelta(protocol.decodeDelta(delta(5, 6, "{}", ""))));
+        assertTrue(protocol.claimSnapshotRequest());
+    }
+
+    @Test
+    public void deltaBeforeAnySnapshotIsRejected() throws IOException {
+        assertNull(protocol.applyDelta(protocol.decodeDelta(delta(-1, 0, "{\"pot\":1}", ""))));
+        assertTrue(protocol.claimSnapshotRequest());
+    }
+
+    @Test
+    public void snapshotWithoutVersionIsNotABase() throws IOException {
+        protocol.decodeSnapshot(SNAPSHOT.replace("\"version\":7,", ""));
+        assertNull(protocol.applyDelta(protocol.decodeDelta(delta(-1, 0, "{\"pot\":1}", ""))));
+    }
+
+    @Test
+    public void outOfRangeSeatLeavesStateUntouched() throws IOException {
+        GameState state = protocol.decodeSnapshot(SNAPSHOT).getGameState();
+        StateDelta delta = protocol.decodeDelta(delta(7, 8, "{\"pot\":999}",
+                "{\"index\":0,\"chips\":1},{\"index\":3,\"chips\":2}"));
+        assertFalse(delta.applyTo(state));
+        assertEquals(120, state.getPot());
+        assertEquals(960, state.getPlayers().get(0).getChips());
+
+        assertNull(protocol.applyDelta(delta));
+        assertEquals(7, protocol.getStateVersion());
+        assertTrue(protocol.claimSnapshotRequest());
+    }
+
+    @Test
+    public void negativeSeatIndexIsRejected() throws IOException {
+        GameState state = new GameStateDecoder().decode(SNAPSHOT).getGameState();
+        // 缺少 index 字段时为 -1
+        StateDelta delta = new GameStateDecoder().decodeDelta(delta(7, 8, "{}", "{\"chips\":5}"));
+        assertFalse(delta.applyTo(state));
+    }
+
+    @Test
+    public void reusedDeltaDoesNotKeepOldChanges() throws IOException {
+        GameState state = protocol.decodeSnapshot(SNAPSHOT).getGameState();
+        StateDelta first = protocol.decodeDelta(delta(7, 8, "{\"pot\":150}", "{\"index\":2,\"chips\":10}"));
+        assertNotNull(protocol.applyDelta(first));
+        StateDelta second = protocol.decodeDelta(delta(8, 9, "{\"currentBet\":0}", ""));
+        assertSame(first, second);
+        state.setPot(1);
+        state.getPlayers().get(2).setChips(2);
+        assertNotNull(protocol.applyDelta(second));
+        assertEquals(1, state.getPot());
+        assertEquals(2, state.getPlayers().get(2).getChips());
+        assertEquals(0, state.getCurrentBet());
+    }
+
+    private static String delta(long baseVersion, long version, String changes, String players) {
+        return "{\"baseVersion\":" + baseVersion + ",\"version\":" + version
+                + ",\"changes\":" + changes + ",\"players\":[" + players + "]}";
+    }
+}
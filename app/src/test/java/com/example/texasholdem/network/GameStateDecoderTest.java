@@ -0,0 +1,138 @@
+package com.example.texasholdem.network;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * stateFormat=text 的 JSON 消息，字段名与 server.js 的 getGameStateForPlayer 一致。
+ */
+public class GameStateDecoderTest {
+
+    static final String SNAPSHOT = "{\"success\":true,\"playerId\":\"p1\",\"version\":7,"
+            + "\"gameState\":{\"roomId\":\"room_1\",\"pot\":120,\"currentBet\":40,"
+            + "\"currentPlayerIndex\":1,\"gamePhase\":\"flop\",\"dealerIndex\":0,"
+            + "\"communityCards\":[" + card("hearts", "10", 10) + "," + card("clubs", "J", 11) + ","
+            + card("spades", "2", 2) + "],"
+            + "\"players\":["
+            + "{\"id\":\"p1\",\"name\":\"Alice\",\"chips\":960,\"bet\":40,\"isDealer\":true,"
+            + "\"hand\":[" + card("spades", "A", 14) + "," + card("hearts", "K", 13) + "]},"
+            + "{\"id\":\"p2\",\"name\":\"Bob\",\"chips\":920,\"bet\":80,\"isCurrentPlayer\":true,\"hand\":[]},"
+            + "{\"id\":\"p3\",\"name\":\"Carol\",\"folded\":true,\"allIn\":false}"
+            + "]}}";
+
+    private final GameStateDecoder decoder = new GameStateDecoder();
+
+    @Test
+    public void decodesSnapshot() throws IOException {
+        GameStateDecoder.Event event = decoder.decode(SNAPSHOT);
+        assertTrue(event.isSuccess());
+        assertEquals("p1", event.getPlayerId());
+        assertEquals(7, event.getVersion());
+
+        GameState state = event.getGameState();
+        assertEquals("room_1", state.getRoomId());
+        assertEquals(120, state.getPot());
+        assertEquals(40, state.getCurrentBet());
+        assertEquals(1, state.getCurrentPlayerIndex());
+        assertEquals("flop", state.getGamePhase());
+        assertEquals(0, state.getDealerIndex());
+        assertEquals(3, state.getCommunityCards().size());
+        assertSame(Card.of("clubs", "J", 11), state.getCommunityCards().get(1));
+
+        assertEquals(3, state.getPlayers().size());
+        Player alice = state.getPlayers().get(0);
+        assertEquals("Alice", alice.getName());
+        assertEquals(960, alice.getChips());
+        assertEquals(40, alice.getBet());
+        assertTrue(alice.isDealer());
+        assertFalse(alice.isCurrentPlayer());
+        assertEquals(2, alice.getHand().size());
+        assertSame(Card.of("spades", "A", 14), alice.getHand().get(0));
+
+        assertTrue(state.getPlayers().get(1).isCurrentPlayer());
+        assertTrue(state.getPlayers().get(1).getHand().isEmpty());
+    }
+
+    @Test
+    public void missingPlayerFieldsUseDefaults() throws IOException {
+        Player carol = decoder.decode(SNAPSHOT).getGameState().getPlayers().get(2);
+        assertEquals("p3", carol.getId());
+        assertEquals(1000, carol.getChips());
+        assertEquals(0, carol.getBet());
+        assertTrue(carol.isFolded());
+        assertFalse(carol.isAllIn());
+        assertTrue(carol.getHand().isEmpty());
+    }
+
+    @Test
+    public void skipsUnknownFieldsAndNulls() throws IOException {
+        GameStateDecoder.Event event = decoder.decode("{\"extra\":{\"a\":[1,2,{\"b\":null}]},"
+                + "\"message\":null,\"currentPlayerId\":\"p2\",\"gameState\":{\"pot\":5,\"roomId\":null,"
+                + "\"timer\":[3],\"communityCards\":[{\"suit\":\"hearts\"}," + card("diamonds", "Q", 12) + "]}}");
+        assertEquals("", event.getMessage());
+        assertEquals("p2", event.getCurrentPlayerId());
+        assertEquals(-1, event.getVersion());
+        GameState state = event.getGameState();
+        assertNull(state.getRoomId());
+        assertEquals(5, state.getPot());
+        // 缺少 rank 的牌被丢掉
+        assertEquals(1, state.getCommunityCards().size());
+        assertSame(Card.of("diamonds", "Q", 12), state.getCommunityCards().get(0));
+    }
+
+    @Test
+    public void messageWithoutStateHasNoGameState() throws IOException {
+        GameStateDecoder.Event event = decoder.decode("{\"success\":false,\"message\":\"Room is full\"}");
+        assertFalse(event.isSuccess());
+        assertEquals("Room is full", event.getMessage());
+        assertNull(event.getGameState());
+    }
+
+    @Test
+    public void reusesEventAndSeats() throws IOException {
+        GameStateDecoder.Event event = new GameStateDecoder.Event();
+        GameState state = decoder.decode(SNAPSHOT, event).getGameState();
+        Player firstSeat = state.getPlayers().get(0);
+
+        assertSame(event, decoder.decode("{\"gameState\":{\"pot\":0,\"players\":[{\"id\":\"p9\"}]}}", event));
+        assertSame(state, event.getGameState());
+        assertEquals(1, state.getPlayers().size());
+        assertSame(firstSeat, state.getPlayers().get(0));
+        assertEquals("p9", firstSeat.getId());
+        assertNull(firstSeat.getName());
+        assertTrue(firstSeat.getHand().isEmpty());
+        assertFalse(firstSeat.isDealer());
+        assertTrue(state.getCommunityCards().isEmpty());
+        // 上一条消息的字段不会留下来
+        assertFalse(event.isSuccess());
+        assertNull(event.getPlayerId());
+        assertEquals(-1, event.getVersion());
+
+        decoder.decode("{\"success\":true}", event);
+        assertNull(event.getGameState());
+    }
+
+    @Test
+    public void decodesPlayerEvent() throws IOException {
+        Player player = decoder.decode("{\"player\":{\"id\":\"p4\",\"name\":\"Dan\",\"chips\":500}}").getPlayer();
+        assertEquals("p4", player.getId());
+        assertEquals("Dan", player.getName());
+        assertEquals(500, player.getChips());
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedMessageThrows() throws IOException {
+        decoder.decode(SNAPSHOT.substring(0, SNAPSHOT.length() / 2));
+    }
+
+    static String card(String suit, String rank, int value) {
+        return "{\"suit\":\"" + suit + "\",\"rank\":\"" + rank + "\",\"value\":" + value + "}";
+    }
+}
@@ -0,0 +1,46 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// 直接复用 app 中不依赖 Android 的源码，保证测的就是客户端跑的代码
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/texasholdem/models/**",
+                "com/example/texasholdem/equity/**",
+                "com/example/texasholdem/engine/**",
+                "com/example/texasholdem/network/GameStateDecoder.java",
+                "com/example/texasholdem/network/StateDelta.java"
+            )
+        }
+    }
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    // GameStateDecoder 依赖 Gson，版本与 app 保持一致
+    implementation("com.google.code.gson:gson:2.10.1")
+    // Android 自带 org.json，JVM 上需要单独引入
+    jmh(libs.org.json)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // 结果输出为 JSON，便于在不同提交之间对比
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
@@ -0,0 +1,74 @@
+package com.example.texasholdem.benchmark;
+
+import com.example.texasholdem.equity.EquitySpot;
+import com.example.texasholdem.equity.EquityResult;
+import com.example.texasholdem.equity.ExactEquity;
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.HandEvaluator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 牌型评估吞吐量，输入是预先生成的随机 7 张牌。
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HandEvaluatorBenchmark {
+
+    private static final int HANDS = 1 << 16;
+
+    private final long[] hands = new long[HANDS];
+    private final ExactEquity exactEquity = new ExactEquity();
+    private EquitySpot turnSpot;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] deck = new int[52];
+        for (int i = 0; i < 52; i++) {
+            deck[i] = i;
+        }
+        for (int h = 0; h < HANDS; h++) {
+            long mask = 0;
+            for (int i = 0; i < 7; i++) {
+                int j = i + random.nextInt(52 - i);
+                int tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+                mask |= 1L << deck[i];
+            }
+            hands[h] = mask;
+        }
+        // A♥A♦ 对 K♥ Q♦ 2♣ 9♠ 转牌
+        turnSpot = new EquitySpot(CardSet.of(12) | CardSet.of(25),
+                CardSet.of(11) | CardSet.of(23) | CardSet.of(26) | CardSet.of(46), 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(HANDS)
+    public int evaluateSevenCards() {
+        int sum = 0;
+        for (long hand : hands) {
+            sum += HandEvaluator.evaluate(hand);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public EquityResult exactTurnHeadsUp() {
+        return exactEquity.calculate(turnSpot);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.texasholdem.benchmark;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.CardSet;
+import com.example.texasholdem.models.GameState;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模型层的热点：活跃玩家计数、Card 与紧凑编码 / CardSet 之间的转换。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelBenchmark {
+
+    private GameState gameState;
+    private List<Card> cards;
+    private long cardSet;
+
+    @Setup
+    public void setup() throws Exception {
+        JSONObject data = new JSONObject(Payloads.load("game_state_8p.json"));
+        gameState = ProtocolParseBenchmark.parseGameState(data.getJSONObject("gameState"));
+        cards = new ArrayList<>(gameState.getCommunityCards());
+        cards.addAll(gameState.getPlayers().get(1).getHand());
+        cardSet = CardSet.of(cards);
+    }
+
+    @Benchmark
+    public int activePlayerCount() {
+        return gameState.getActivePlayerCount();
+    }
+
+    @Benchmark
+    public void cardCodeOf(Blackhole blackhole) {
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            blackhole.consume(Card.codeOf(card.getSuit(), card.getValue()));
+        }
+    }
+
+    @Benchmark
+    public void cardOf(Blackhole blackhole) {
+        for (int code = 0; code < 52; code++) {
+            blackhole.consume(Card.of(code));
+        }
+    }
+
+    @Benchmark
+    public long cardSetOfList() {
+        return CardSet.of(cards);
+    }
+
+    @Benchmark
+    public List<Card> cardSetToCards() {
+        return CardSet.toCards(cardSet);
+    }
+
+    @Benchmark
+    public void suitSymbolAndColor(Blackhole blackhole) {
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            blackhole.consume(card.getSuitSymbol());
+            blackhole.consume(card.getSuitColor());
+        }
+    }
+}
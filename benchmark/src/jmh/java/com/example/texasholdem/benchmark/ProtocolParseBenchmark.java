@@ -0,0 +1,128 @@
+package com.example.texasholdem.benchmark;
+
+import com.example.texasholdem.models.Card;
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+import com.example.texasholdem.network.GameStateDecoder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 原 GameSocketManager.parseGameState / parsePlayer / parseCard 的等价实现（去掉了 Log），
+ * 分别测量 org.json 建树和遍历树两部分，并与 GameStateDecoder 的流式解码对比。
+ * streamingDecodeReused 解码到同一个 Event 里，对应客户端稳定状态下复用座位的情况。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProtocolParseBenchmark {
+
+    @Param({"game_state_2p.json", "game_state_8p.json"})
+    public String payload;
+
+    private String text;
+    private JSONObject tree;
+    private final GameStateDecoder decoder = new GameStateDecoder();
+    private final GameStateDecoder.Event reusedEvent = new GameStateDecoder.Event();
+
+    @Setup
+    public void setup() throws Exception {
+        text = Payloads.load(payload);
+        tree = new JSONObject(text);
+    }
+
+    @Benchmark
+    public GameState buildTreeAndParse() throws Exception {
+        JSONObject data = new JSONObject(text);
+        return parseGameState(data.getJSONObject("gameState"));
+    }
+
+    @Benchmark
+    public JSONObject buildTreeOnly() throws Exception {
+        return new JSONObject(text);
+    }
+
+    @Benchmark
+    public GameState parseFromTree() throws Exception {
+        return parseGameState(tree.getJSONObject("gameState"));
+    }
+
+    @Benchmark
+    public GameState streamingDecode() throws Exception {
+        return decoder.decode(text).getGameState();
+    }
+
+    @Benchmark
+    public GameState streamingDecodeReused() throws Exception {
+        return decoder.decode(text, reusedEvent).getGameState();
+    }
+
+    static GameState parseGameState(JSONObject json) throws Exception {
+        GameState gameState = new GameState();
+        gameState.setRoomId(json.getString("roomId"));
+        gameState.setPot(json.getInt("pot"));
+        gameState.setCurrentBet(json.getInt("currentBet"));
+        gameState.setCurrentPlayerIndex(json.getInt("currentPlayerIndex"));
+        gameState.setGamePhase(json.getString("gamePhase"));
+        gameState.setDealerIndex(json.getInt("dealerIndex"));
+
+        List<Player> players = new ArrayList<>();
+        if (json.has("players")) {
+            JSONArray playersArray = json.getJSONArray("players");
+            for (int i = 0; i < playersArray.length(); i++) {
+                Player player = parsePlayer(playersArray.getJSONObject(i));
+                if (player != null) {
+                    players.add(player);
+                }
+            }
+        }
+        gameState.setPlayers(players);
+
+        List<Card> communityCards = new ArrayList<>();
+        if (json.has("communityCards")) {
+            JSONArray cardsArray = json.getJSONArray("communityCards");
+            for (int i = 0; i < cardsArray.length(); i++) {
+                communityCards.add(parseCard(cardsArray.getJSONObject(i)));
+            }
+        }
+        gameState.setCommunityCards(communityCards);
+        return gameState;
+    }
+
+    static Player parsePlayer(JSONObject json) throws Exception {
+        Player player = new Player(json.getString("id"), json.getString("name"));
+        player.setChips(json.optInt("chips", 1000));
+        player.setBet(json.optInt("bet", 0));
+        player.setFolded(json.optBoolean("folded", false));
+        player.setAllIn(json.optBoolean("allIn", false));
+        player.setCurrentPlayer(json.optBoolean("isCurrentPlayer", false));
+        player.setDealer(json.optBoolean("isDealer", false));
+
+        List<Card> hand = new ArrayList<>();
+        if (json.has("hand") && !json.isNull("hand")) {
+            JSONArray handArray = json.getJSONArray("hand");
+            for (int i = 0; i < handArray.length(); i++) {
+                hand.add(parseCard(handArray.getJSONObject(i)));
+            }
+        }
+        player.setHand(hand);
+        return player;
+    }
+
+    static Card parseCard(JSONObject json) throws Exception {
+        return Card.of(json.getString("suit"), json.getString("rank"), json.getInt("value"));
+    }
+}
@@ -0,0 +1,52 @@
+plugins {
+    java
+    application
+}
+
+// 机器人跑在虚拟线程上，需要 JDK 21
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+// 与 benchmark 一样直接复用 app 中不依赖 Android 的源码，压测用的就是客户端的协议实现
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/texasholdem/loadtest/**",
+                "com/example/texasholdem/models/**",
+                "com/example/texasholdem/metrics/**",
+                "com/example/texasholdem/network/GameProtocol.java",
+                "com/example/texasholdem/network/GameStateDecoder.java",
+                "com/example/texasholdem/network/StateDelta.java",
+                "com/example/texasholdem/network/BinaryStateCodec.java"
+            )
+        }
+    }
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    // 与 app 保持一致
+    implementation("io.socket:socket.io-client:2.1.0")
+    implementation("com.google.code.gson:gson:2.10.1")
+    // Android 自带 org.json，JVM 上需要单独引入
+    implementation(libs.org.json)
+}
+
+application {
+    mainClass.set("com.example.texasholdem.loadtest.LoadTest")
+    // 机器人本身是虚拟线程，但 OkHttp 给每条 WebSocket 开一个平台写线程，栈调小一些
+    applicationDefaultJvmArgs = listOf("-Xss256k")
+}
+
+// ./gradlew :loadtest:run --args="scenarios/steady.properties bots=5000"
+tasks.named<JavaExec>("run") {
+    workingDir = projectDir
+}
@@ -0,0 +1,392 @@
+package com.example.texasholdem.loadtest;
+
+import com.example.texasholdem.models.GameState;
+import com.example.texasholdem.models.Player;
+import com.example.texasholdem.network.GameProtocol;
+import com.example.texasholdem.network.GameStateDecoder;
+import com.example.texasholdem.network.StateDelta;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import io.socket.engineio.client.transports.WebSocket;
+import okhttp3.OkHttpClient;
+
+/**
+ * 一个机器人玩家，独占一个虚拟线程和一条连接。
+ *
+ * socket.io 的回调全部跑在它唯一的 EventThread 上，上千个机器人共用，所以回调里只记下到达时间、
+ * 把消息放进机器人自己的队列；解码、增量合并（GameProtocol，和客户端同一份代码）和决策都在
+ * 机器人线程上完成，思考时间也只是在这个线程上等待。
+ *
+ * 每个房间由第一个座位的机器人负责开局：满员后开第一局，之后每次摊牌后开下一局。
+ */
+final class Bot implements Runnable {
+
+    // 发出的下注超过这个时间没有带回 actionId（例如无效加注被服务器忽略）就不再等待
+    private static final long ECHO_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    // 队列里表示连接状态变化的伪事件
+    private static final String CONNECTED = "bot:connected";
+    private static final String DISCONNECTED = "bot:disconnected";
+
+    private static final String[] STATE_EVENTS = {
+            GameProtocol.JOINED_ROOM, GameProtocol.PLAYER_JOINED, GameProtocol.PLAYER_LEFT,
+            GameProtocol.GAME_STARTED, GameProtocol.GAME_STATE_UPDATED, GameProtocol.STATE_DELTA
+    };
+
+    private static final class Message {
+        final String event;
+        final Object[] args;
+        final long arrivedNanos;
+
+        Message(String event, Object[] args, long arrivedNanos) {
+            this.event = event;
+            this.args = args;
+            this.arrivedNanos = arrivedNanos;
+        }
+    }
+
+    private final Scenario scenario;
+    private final LoadStats stats;
+    private final OkHttpClient http;
+    private final long deadlineNanos;
+    private final Random random;
+    private final String name;
+    private final String roomId;
+
+    private final BlockingQueue<Message> inbox = new LinkedBlockingQueue<>();
+    private final GameProtocol protocol = new GameProtocol();
+    private Socket socket;
+    private boolean connected;
+
+    // 指向 protocol 内部的基准，每条消息原地更新
+    private GameState state;
+    private String playerId;
+    private String resumeToken;
+    private long lastSeq;
+
+    private int nextActionId = 1;
+    private int pendingActionId;
+    private long pendingSentNanos;
+    // 计划中的下一步（开局或下注）的时间，0 表示没有
+    private long nextMoveAt;
+
+    Bot(int index, Scenario scenario, LoadStats stats, OkHttpClient http, long deadlineNanos) {
+        this.scenario = scenario;
+        this.stats = stats;
+        this.http = http;
+        this.deadlineNanos = deadlineNanos;
+        this.random = new Random(scenario.seed * 1_000_003L + index);
+        this.name = "bot-" + index;
+        this.roomId = scenario.roomPrefix + (index / scenario.roomSize);
+    }
+
+    @Override
+    public void run() {
+        try {
+            socket = createSocket();
+            listen();
+            socket.connect();
+            loop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            stats.error(name, e.toString());
+        } finally {
+            leave();
+        }
+    }
+
+    private Socket createSocket() throws URISyntaxException {
+        IO.Options options = new IO.Options();
+        // 每个机器人一条独立连接，不共用同一地址的 Manager
+        options.forceNew = true;
+        options.transports = new String[]{WebSocket.NAME};
+        options.callFactory = http;
+        options.webSocketFactory = http;
+        // 与 GameSocketManager 相同的退避参数，服务器重启时机器人也会错开重连
+        options.reconnection = true;
+        options.reconnectionAttempts = Integer.MAX_VALUE;
+        options.reconnectionDelay = 1000;
+        options.reconnectionDelayMax = 30000;
+        options.randomizationFactor = 0.5;
+        options.query = GameProtocol.HANDSHAKE_QUERY;
+        return IO.socket(scenario.server, options);
+    }
+
+    private void listen() {
+        socket.on(Socket.EVENT_CONNECT, args -> enqueue(CONNECTED, args));
+        socket.on(Socket.EVENT_DISCONNECT, args -> enqueue(DISCONNECTED, args));
+        socket.on(GameProtocol.SESSION, args -> enqueue(GameProtocol.SESSION, args));
+        socket.on(GameProtocol.SESSION_RESUMED, args -> enqueue(GameProtocol.SESSION_RESUMED, args));
+        for (String event : STATE_EVENTS) {
+            socket.on(event, args -> enqueue(event, args));
+        }
+    }
+
+    private void enqueue(String event, Object[] args) {
+        inbox.add(new Message(event, args, System.nanoTime()));
+    }
+
+    private void loop() throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= deadlineNanos) {
+                return;
+            }
+            long wakeAt = nextMoveAt != 0 ? Math.min(nextMoveAt, deadlineNanos) : deadlineNanos;
+            if (pendingActionId != 0) {
+                wakeAt = Math.min(wakeAt, pendingSentNanos + ECHO_TIMEOUT_NANOS);
+            }
+            Message message = inbox.poll(Math.max(0, wakeAt - now), TimeUnit.NANOSECONDS);
+            if (message != null) {
+                handle(message);
+            }
+
+            now = System.nanoTime();
+            if (pendingActionId != 0 && now - pendingSentNanos > ECHO_TIMEOUT_NANOS) {
+                stats.unanswered.incrementAndGet();
+                pendingActionId = 0;
+                planMove();
+            }
+            if (nextMoveAt != 0 && now >= nextMoveAt) {
+                nextMoveAt = 0;
+                move();
+            }
+        }
+    }
+
+    private void handle(Message message) {
+        switch (message.event) {
+            case CONNECTED:
+                connected = true;
+                stats.connected.incrementAndGet();
+                // 有会话时先尝试恢复，服务器只补发 lastSeq 之后错过的事件
+                if (resumeToken != null) {
+                    socket.emit(GameProtocol.RESUME_SESSION, GameProtocol.resumeSession(resumeToken, lastSeq));
+                } else {
+                    socket.emit(GameProtocol.JOIN_ROOM, GameProtocol.joinRoom(roomId, name));
+                }
+                break;
+            case DISCONNECTED:
+                connected = false;
+                stats.connected.decrementAndGet();
+                protocol.connectionLost();
+                // 补发的消息不带 actionId，断线前的下注不再等回应
+                pendingActionId = 0;
+                nextMoveAt = 0;
+                break;
+            case GameProtocol.SESSION: {
+                JSONObject data = (JSONObject) message.args[0];
+                resumeToken = data.optString("token", null);
+                lastSeq = data.optLong("seq");
+                playerId = data.optString("playerId", playerId);
+                break;
+            }
+            case GameProtocol.SESSION_RESUMED:
+                if (((JSONObject) message.args[0]).optBoolean("success")) {
+                    stats.resumes.incrementAndGet();
+                } else {
+                    // 宽限期已过，重新加入房间
+                    stats.resumesRejected.incrementAndGet();
+                    resumeToken = null;
+                    socket.emit(GameProtocol.JOIN_ROOM, GameProtocol.joinRoom(roomId, name));
+                }
+                break;
+            default:
+                handleState(message);
+                break;
+        }
+    }
+
+    private void handleState(Message message) {
+        stats.eventsReceived.incrementAndGet();
+        long seq = GameProtocol.seqOf(message.args);
+        if (seq >= 0) {
+            lastSeq = seq;
+        }
+        boolean echo = pendingActionId != 0 && GameProtocol.actionIdOf(message.args) == pendingActionId;
+        if (echo) {
+            stats.recordRtt(message.arrivedNanos - pendingSentNanos);
+        }
+
+        try {
+            GameState updated = GameProtocol.STATE_DELTA.equals(message.event)
+                    ? applyDelta(message.args[0])
+                    : applySnapshot(message.event, message.args[0]);
+            if (updated != null) {
+                state = updated;
+            }
+        } catch (IOException e) {
+            stats.error(name, "Error decoding " + message.event + ": " + e.getMessage());
+            // 基准可能只解码了一半，等新快照到了再行动
+            state = null;
+            protocol.invalidate();
+            requestSnapshot();
+        }
+
+        if (echo) {
+            stats.recordApplied(System.nanoTime() - pendingSentNanos);
+            stats.actionsEchoed.incrementAndGet();
+            pendingActionId = 0;
+        }
+        planMove();
+    }
+
+    private GameState applySnapshot(String event, Object payload) throws IOException {
+        GameStateDecoder.Event decoded = protocol.decodeSnapshot(payload);
+        if (GameProtocol.JOINED_ROOM.equals(event)) {
+            if (!decoded.isSuccess()) {
+                stats.error(name, "Failed to join " + roomId + ": " + decoded.getMessage());
+            } else if (decoded.getPlayerId() != null) {
+                playerId = decoded.getPlayerId();
+            }
+        }
+        return decoded.getGameState();
+    }
+
+    private GameState applyDelta(Object payload) throws IOException {
+        StateDelta delta = protocol.decodeDelta(payload);
+        GameState updated = protocol.applyDelta(delta);
+        if (updated == null) {
+            requestSnapshot();
+        }
+        return updated;
+    }
+
+    private void requestSnapshot() {
+        if (connected && protocol.claimSnapshotRequest()) {
+            stats.snapshotRequests.incrementAndGet();
+            socket.emit(GameProtocol.REQUEST_SNAPSHOT);
+        }
+    }
+
+    // 需要开局或轮到自己时，按思考时间安排下一步
+    private void planMove() {
+        if (nextMoveAt != 0 || pendingActionId != 0 || !connected || state == null) {
+            return;
+        }
+        if (wantsToStart() || isMyTurn()) {
+            long thinkMs = scenario.thinkTimeMinMs
+                    + random.nextInt(scenario.thinkTimeMaxMs - scenario.thinkTimeMinMs + 1);
+            nextMoveAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(thinkMs);
+        }
+    }
+
+    private void move() throws InterruptedException {
+        // 思考期间状态可能已经变了，重新判断
+        if (!connected || state == null) {
+            return;
+        }
+        if (wantsToStart()) {
+            socket.emit(GameProtocol.START_GAME, GameProtocol.startGame(roomId));
+            stats.handsStarted.incrementAndGet();
+        } else if (isMyTurn()) {
+            bet();
+        } else {
+            return;
+        }
+        if (scenario.disconnectRate > 0 && random.nextDouble() < scenario.disconnectRate) {
+            dropConnection();
+        }
+    }
+
+    private void bet() {
+        Player me = state.getPlayers().get(mySeat());
+        String action = "call";
+        int amount = 0;
+        double roll = random.nextDouble();
+        if (roll < scenario.foldRate && canFold()) {
+            action = "fold";
+        } else if (roll < scenario.foldRate + scenario.raiseRate && me.getChips() >= 10) {
+            // 服务器要求加注至少 10 且不超过剩余筹码
+            action = "raise";
+            amount = 10 + random.nextInt(Math.min(41, me.getChips() - 9));
+        }
+        // 不会全下：所有人都全下或弃牌时服务器轮转下一个玩家的循环不会结束
+
+        pendingActionId = nextActionId++;
+        pendingSentNanos = System.nanoTime();
+        socket.emit(GameProtocol.MAKE_BET, GameProtocol.makeBet(roomId, action, amount, pendingActionId));
+        stats.actionsSent.incrementAndGet();
+    }
+
+    // 模拟网络中断：断开一段时间后重连，由 resumeSession 拿回座位
+    private void dropConnection() throws InterruptedException {
+        stats.disconnects.incrementAndGet();
+        socket.disconnect();
+        long offlineMs = scenario.offlineMinMs
+                + random.nextInt(scenario.offlineMaxMs - scenario.offlineMinMs + 1);
+        Thread.sleep(offlineMs);
+        socket.connect();
+    }
+
+    private void leave() {
+        if (socket == null) {
+            return;
+        }
+        if (connected) {
+            socket.emit(GameProtocol.LEAVE_ROOM);
+        }
+        socket.disconnect();
+        socket.off();
+    }
+
+    private int mySeat() {
+        List<Player> players = state.getPlayers();
+        if (playerId == null || players == null) {
+            return -1;
+        }
+        for (int i = 0; i < players.size(); i++) {
+            if (playerId.equals(players.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean wantsToStart() {
+        if (mySeat() != 0) {
+            return false;
+        }
+        String phase = state.getGamePhase();
+        int players = state.getPlayers().size();
+        return ("waiting".equals(phase) && players >= scenario.roomSize)
+                || ("showdown".equals(phase) && players >= 2);
+    }
+
+    private boolean isMyTurn() {
+        int seat = mySeat();
+        // 服务器在摊牌阶段也接受下注，这里只在四轮下注中行动
+        if (seat < 0 || seat != state.getCurrentPlayerIndex() || !state.isGameActive()) {
+            return false;
+        }
+        Player me = state.getPlayers().get(seat);
+        return !me.isFolded() && !me.isAllIn();
+    }
+
+    // 每轮下注从庄家开始，庄家弃牌后服务器会停在他身上，所以庄家不弃牌；
+    // 至少留两个人在局里
+    private boolean canFold() {
+        if (mySeat() == state.getDealerIndex()) {
+            return false;
+        }
+        int active = 0;
+        for (Player p : state.getPlayers()) {
+            if (!p.isFolded() && !p.isAllIn()) {
+                active++;
+            }
+        }
+        return active >= 3;
+    }
+}
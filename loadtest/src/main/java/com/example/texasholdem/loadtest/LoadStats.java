@@ -0,0 +1,54 @@
+package com.example.texasholdem.loadtest;
+
+import com.example.texasholdem.metrics.LogHistogram;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 所有机器人共享的计数和延迟直方图（单位微秒）。
+ * rtt 和 applied 覆盖稳定阶段（爬坡结束时清零），intervalRtt 每次报告后清零。
+ */
+final class LoadStats {
+
+    final AtomicInteger connected = new AtomicInteger();
+    final AtomicLong actionsSent = new AtomicLong();
+    final AtomicLong actionsEchoed = new AtomicLong();
+    final AtomicLong unanswered = new AtomicLong();
+    final AtomicLong eventsReceived = new AtomicLong();
+    final AtomicLong handsStarted = new AtomicLong();
+    final AtomicLong disconnects = new AtomicLong();
+    final AtomicLong resumes = new AtomicLong();
+    final AtomicLong resumesRejected = new AtomicLong();
+    final AtomicLong snapshotRequests = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+
+    // 下注发出到带回 actionId 的状态消息到达
+    final LogHistogram rtt = new LogHistogram();
+    final LogHistogram intervalRtt = new LogHistogram();
+    // 下注发出到那条消息在机器人线程上解码、合并完成
+    final LogHistogram applied = new LogHistogram();
+
+    void recordRtt(long nanos) {
+        rtt.record(nanos / 1000);
+        intervalRtt.record(nanos / 1000);
+    }
+
+    void recordApplied(long nanos) {
+        applied.record(nanos / 1000);
+    }
+
+    // 只打印前几个错误，后面的只计数
+    private static final int MAX_PRINTED_ERRORS = 20;
+
+    void error(String bot, String message) {
+        if (errors.incrementAndGet() <= MAX_PRINTED_ERRORS) {
+            System.err.println(bot + ": " + message);
+        }
+    }
+
+    void startSteadyState() {
+        rtt.reset();
+        applied.reset();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.texasholdem.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * 对本地运行的 server.js 做容量压测：按场景在爬坡时间内均匀启动机器人（每个一个虚拟线程），
+ * 每个机器人加入房间、开局、下注，稳定阶段结束后离开。
+ *
+ * 运行中定期打印区间吞吐和延迟，结束时报告稳定阶段的持续下注速率、延迟分位数和服务器内存增长。
+ *
+ * 用法：LoadTest &lt;scenario.properties&gt; [key=value ...]
+ */
+public final class LoadTest {
+
+    // 机器人全部离开后等服务器清理房间和会话再采样一次
+    private static final long CLEANUP_WAIT_MILLIS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadTest <scenario.properties> [key=value ...]");
+            System.exit(2);
+        }
+        Scenario scenario = Scenario.load(args);
+        System.out.println(scenario);
+
+        LoadStats stats = new LoadStats();
+        ServerStats server = new ServerStats(scenario.server);
+        ServerStats.Sample baseline = server.sample();
+        System.out.println("baseline: " + (baseline != null ? baseline : "server stats unavailable"));
+
+        // 所有机器人共用一个 OkHttpClient；默认 Dispatcher 每个主机只允许 5 个并发请求，
+        // 握手请求会排队，所以放开限制并让它在虚拟线程上执行
+        ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        Dispatcher dispatcher = new Dispatcher(httpExecutor);
+        dispatcher.setMaxRequests(Integer.MAX_VALUE);
+        dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+        OkHttpClient http = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .build();
+
+        long startNanos = System.nanoTime();
+        long rampNanos = TimeUnit.SECONDS.toNanos(scenario.rampUpSeconds);
+        long steadyStartNanos = startNanos + rampNanos;
+        long deadlineNanos = steadyStartNanos + TimeUnit.SECONDS.toNanos(scenario.durationSeconds);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "load-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(new Reporter(stats, server, startNanos, scenario.reportIntervalSeconds),
+                scenario.reportIntervalSeconds, scenario.reportIntervalSeconds, TimeUnit.SECONDS);
+
+        List<Thread> bots = new ArrayList<>(scenario.bots);
+        for (int i = 0; i < scenario.bots; i++) {
+            long startAt = startNanos + rampNanos * i / scenario.bots;
+            long wait = startAt - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            Bot bot = new Bot(i, scenario, stats, http, deadlineNanos);
+            bots.add(Thread.ofVirtual().name("bot-" + i).start(bot));
+        }
+
+        long wait = steadyStartNanos - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        // 爬坡结束，之后的统计只覆盖稳定阶段
+        stats.startSteadyState();
+        long steadyNanos = System.nanoTime();
+        long steadyActions = stats.actionsSent.get();
+        long steadyEchoed = stats.actionsEchoed.get();
+        long steadyEvents = stats.eventsReceived.get();
+        ServerStats.Sample steadySample = server.sample();
+        System.out.println("steady state: " + stats.connected.get() + " connected, "
+                + (steadySample != null ? steadySample : "server stats unavailable"));
+
+        for (Thread bot : bots) {
+            bot.join();
+        }
+        long endNanos = System.nanoTime();
+        reporter.shutdownNow();
+        // 机器人刚全部离开时采样，服务器可能还没清理完房间和会话
+        ServerStats.Sample endSample = server.sample();
+
+        Thread.sleep(CLEANUP_WAIT_MILLIS);
+        ServerStats.Sample cleanupSample = server.sample();
+
+        double seconds = (endNanos - steadyNanos) / 1e9;
+        long actions = stats.actionsSent.get() - steadyActions;
+        long echoed = stats.actionsEchoed.get() - steadyEchoed;
+        long events = stats.eventsReceived.get() - steadyEvents;
+
+        System.out.println();
+        System.out.printf(Locale.US, "=== %s: %d bots, %.1fs steady state ===%n", scenario.name, scenario.bots, seconds);
+        System.out.printf(Locale.US, "actions   %d sent, %d echoed, %.1f actions/s sustained%n",
+                actions, echoed, actions / seconds);
+        System.out.printf(Locale.US, "events    %d received, %.1f events/s%n", events, events / seconds);
+        System.out.println("rtt       " + stats.rtt.summaryMillis());
+        System.out.println("applied   " + stats.applied.summaryMillis());
+        System.out.printf("totals    hands=%d unanswered=%d disconnects=%d resumes=%d rejected=%d snapshots=%d errors=%d%n",
+                stats.handsStarted.get(), stats.unanswered.get(), stats.disconnects.get(), stats.resumes.get(),
+                stats.resumesRejected.get(), stats.snapshotRequests.get(), stats.errors.get());
+        System.out.println("memory    steady state: " + ServerStats.growth(steadySample, endSample));
+        System.out.println("memory    after cleanup: " + ServerStats.growth(baseline, cleanupSample));
+        if (cleanupSample != null) {
+            System.out.println("          " + cleanupSample);
+        }
+
+        http.dispatcher().executorService().shutdown();
+        http.connectionPool().evictAll();
+        // socket.io 的重连和心跳定时器线程不一定都已结束，直接退出
+        System.exit(0);
+    }
+
+    /**
+     * 每个报告周期打印一行：区间吞吐、区间延迟和服务器采样。
+     */
+    private static final class Reporter implements Runnable {
+        private final LoadStats stats;
+        private final ServerStats server;
+        private final long startNanos;
+        private final int intervalSeconds;
+        private long lastActions;
+        private long lastEvents;
+
+        Reporter(LoadStats stats, ServerStats server, long startNanos, int intervalSeconds) {
+            this.stats = stats;
+            this.server = server;
+            this.startNanos = startNanos;
+            this.intervalSeconds = intervalSeconds;
+        }
+
+        @Override
+        public void run() {
+            long actions = stats.actionsSent.get();
+            long events = stats.eventsReceived.get();
+            ServerStats.Sample sample = server.sample();
+            System.out.printf(Locale.US, "[%4ds] %d connected, %.1f actions/s, %.1f events/s, rtt %s%s%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos),
+                    stats.connected.get(),
+                    (actions - lastActions) / (double) intervalSeconds,
+                    (events - lastEvents) / (double) intervalSeconds,
+                    stats.intervalRtt.summaryMillis(),
+                    sample != null ? ", " + sample : "");
+            stats.intervalRtt.reset();
+            lastActions = actions;
+            lastEvents = events;
+        }
+    }
+}
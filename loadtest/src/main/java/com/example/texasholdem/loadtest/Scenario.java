@@ -0,0 +1,91 @@
+package com.example.texasholdem.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * 压测场景。从 properties 文件读取，命令行上跟在文件名后面的 key=value 覆盖文件里的值，
+ * 没写的键使用默认值。各键的含义见 scenarios/steady.properties。
+ */
+final class Scenario {
+
+    final String name;
+    final String server;
+    final int bots;
+    final int roomSize;
+    final int rampUpSeconds;
+    final int durationSeconds;
+    final int thinkTimeMinMs;
+    final int thinkTimeMaxMs;
+    final double raiseRate;
+    final double foldRate;
+    final double disconnectRate;
+    final int offlineMinMs;
+    final int offlineMaxMs;
+    final int reportIntervalSeconds;
+    final long seed;
+    final String roomPrefix;
+
+    private Scenario(String name, Properties p) {
+        this.name = name;
+        server = p.getProperty("server", "http://localhost:3000");
+        bots = intValue(p, "bots", 100);
+        roomSize = intValue(p, "roomSize", 6);
+        rampUpSeconds = intValue(p, "rampUpSeconds", 10);
+        durationSeconds = intValue(p, "durationSeconds", 60);
+        thinkTimeMinMs = intValue(p, "thinkTimeMinMs", 500);
+        thinkTimeMaxMs = Math.max(thinkTimeMinMs, intValue(p, "thinkTimeMaxMs", 2000));
+        raiseRate = doubleValue(p, "raiseRate", 0.2);
+        foldRate = doubleValue(p, "foldRate", 0.1);
+        disconnectRate = doubleValue(p, "disconnectRate", 0);
+        offlineMinMs = intValue(p, "offlineMinMs", 1000);
+        offlineMaxMs = Math.max(offlineMinMs, intValue(p, "offlineMaxMs", 5000));
+        reportIntervalSeconds = Math.max(1, intValue(p, "reportIntervalSeconds", 5));
+        seed = Long.parseLong(p.getProperty("seed", "1"));
+        // 默认每次运行用新的房间名，不会和上一次没清理完的房间混在一起
+        roomPrefix = p.getProperty("roomPrefix", "load-" + Long.toString(System.currentTimeMillis(), 36) + "-");
+
+        if (bots <= 0 || roomSize < 2 || roomSize > 8) {
+            throw new IllegalArgumentException("bots must be positive and roomSize must be 2..8");
+        }
+    }
+
+    static Scenario load(String[] args) throws IOException {
+        Properties p = new Properties();
+        Path file = Path.of(args[0]);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            p.load(reader);
+        }
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + args[i]);
+            }
+            p.setProperty(args[i].substring(0, eq), args[i].substring(eq + 1));
+        }
+        String name = file.getFileName().toString().replaceFirst("\\.properties$", "");
+        return new Scenario(name, p);
+    }
+
+    private static int intValue(Properties p, String key, int defaultValue) {
+        String value = p.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static double doubleValue(Properties p, String key, double defaultValue) {
+        String value = p.getProperty(key);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d bots, %d per room, ramp-up %ds, %ds steady, think %d-%dms, "
+                        + "raise %.2f, fold %.2f, disconnect %.3f per action (offline %d-%dms), server %s",
+                name, bots, roomSize, rampUpSeconds, durationSeconds, thinkTimeMinMs, thinkTimeMaxMs,
+                raiseRate, foldRate, disconnectRate, offlineMinMs, offlineMaxMs, server);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.texasholdem.loadtest;
+
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 轮询服务器的 /api/stats。服务器不可达时返回 null，压测照常进行。
+ */
+final class ServerStats {
+
+    static final class Sample {
+        final int connections;
+        final int rooms;
+        final int players;
+        final int sessions;
+        final long rss;
+        final long heapUsed;
+
+        Sample(JSONObject json) {
+            connections = json.optInt("connections");
+            rooms = json.optInt("rooms");
+            players = json.optInt("players");
+            sessions = json.optInt("sessions");
+            JSONObject memory = json.getJSONObject("memory");
+            rss = memory.getLong("rss");
+            heapUsed = memory.getLong("heapUsed");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("server conns=%d rooms=%d players=%d sessions=%d rss=%.1fMB heap=%.1fMB",
+                    connections, rooms, players, sessions, rss / 1048576.0, heapUsed / 1048576.0);
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final URI uri;
+
+    ServerStats(String server) {
+        uri = URI.create(server.replaceAll("/+$", "") + "/api/stats");
+    }
+
+    Sample sample() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            return new Sample(new JSONObject(response.body()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static String growth(Sample before, Sample after) {
+        if (before == null || after == null) {
+            return "server stats unavailable";
+        }
+        return String.format("rss %+.1fMB (%.1f -> %.1f), heap %+.1fMB (%.1f -> %.1f)",
+                (after.rss - before.rss) / 1048576.0, before.rss / 1048576.0, after.rss / 1048576.0,
+                (after.heapUsed - before.heapUsed) / 1048576.0,
+                before.heapUsed / 1048576.0, after.heapUsed / 1048576.0);
+    }
+}
@@ -0,0 +1,378 @@
+// 紧凑二进制状态编码，客户端握手时带上 stateFormat=binary 时使用，
+// 作为 Socket.IO 的二进制附件发送。
+//
+// 消息布局（varint 为无符号 LEB128）：
+//   u8 格式版本  u8 标志位  varint 状态版本号  [DELTA: varint 基准版本号]
+//   varint 当前玩家座位+1（0 表示没有）  varint 新加入玩家座位+1
+//   [MESSAGE: 字符串] [PLAYER_ID: 字符串]
+//   [ROSTER: 房间号, 玩家数, 每人 id 与名字] —— 座位表只在变化时发送
+//   [GAME_STATE: 完整状态] 或 [DELTA: 变化的字段]
+// 牌是一个字节：花色序号 * 13 + (点数 - 2)，与客户端 Card.getCode 一致。
+
+const FORMAT_VERSION = 1;
+
+const FLAG_SUCCESS = 1;
+const FLAG_ROSTER = 1 << 1;
+const FLAG_MESSAGE = 1 << 2;
+const FLAG_PLAYER_ID = 1 << 3;
+const FLAG_GAME_STATE = 1 << 4;
+const FLAG_DELTA = 1 << 5;
+
+// 玩家状态位，完整状态和增量共用
+const PLAYER_FOLDED = 1;
+const PLAYER_ALL_IN = 1 << 1;
+const PLAYER_CURRENT = 1 << 2;
+const PLAYER_DEALER = 1 << 3;
+
+// 增量中顶层字段的变化位，与客户端 StateDelta 一致
+const CHANGE_POT = 1;
+const CHANGE_CURRENT_BET = 1 << 1;
+const CHANGE_CURRENT_PLAYER_INDEX = 1 << 2;
+const CHANGE_GAME_PHASE = 1 << 3;
+const CHANGE_DEALER_INDEX = 1 << 4;
+const CHANGE_COMMUNITY_CARDS = 1 << 5;
+
+// 增量中单个座位的变化位
+const PATCH_CHIPS = 1;
+const PATCH_BET = 1 << 1;
+const PATCH_FOLDED = 1 << 2;
+const PATCH_ALL_IN = 1 << 3;
+const PATCH_CURRENT = 1 << 4;
+const PATCH_DEALER = 1 << 5;
+const PATCH_HAND = 1 << 6;
+const PATCH_FLAGS = PATCH_FOLDED | PATCH_ALL_IN | PATCH_CURRENT | PATCH_DEALER;
+
+const PHASES = ['waiting', 'preflop', 'flop', 'turn', 'river', 'showdown'];
+const SUITS = ['hearts', 'diamonds', 'clubs', 'spades'];
+const RANKS = ['2', '3', '4', '5', '6', '7', '8', '9', '10', 'J', 'Q', 'K', 'A'];
+
+class Writer {
+  constructor() {
+    this.buf = Buffer.allocUnsafe(128);
+    this.pos = 0;
+  }
+
+  ensure(n) {
+    if (this.pos + n > this.buf.length) {
+      const bigger = Buffer.allocUnsafe(Math.max(this.buf.length * 2, this.pos + n));
+      this.buf.copy(bigger, 0, 0, this.pos);
+      this.buf = bigger;
+    }
+  }
+
+  u8(value) {
+    this.ensure(1);
+    this.buf[this.pos++] = value & 0xFF;
+  }
+
+  varint(value) {
+    if (!Number.isInteger(value) || value < 0) {
+      throw new RangeError(`varint out of range: ${value}`);
+    }
+    this.ensure(8);
+    while (value > 0x7F) {
+      this.buf[this.pos++] = (value % 0x80) | 0x80;
+      value = Math.floor(value / 0x80);
+    }
+    this.buf[this.pos++] = value;
+  }
+
+  string(value) {
+    const length = Buffer.byteLength(value, 'utf8');
+    this.varint(length);
+    this.ensure(length);
+    this.buf.write(value, this.pos, length, 'utf8');
+    this.pos += length;
+  }
+
+  cards(cards) {
+    this.u8(cards.length);
+    cards.forEach(card => this.u8(cardCode(card)));
+  }
+
+  toBuffer() {
+    return this.buf.subarray(0, this.pos);
+  }
+}
+
+class Reader {
+  constructor(buf) {
+    this.buf = buf;
+    this.pos = 0;
+  }
+
+  u8() {
+    if (this.pos >= this.buf.length) {
+      throw new RangeError('Truncated binary state');
+    }
+    return this.buf[this.pos++];
+  }
+
+  varint() {
+    let value = 0;
+    let scale = 1;
+    for (;;) {
+      const b = this.u8();
+      value += (b & 0x7F) * scale;
+      if ((b & 0x80) === 0) return value;
+      scale *= 0x80;
+    }
+  }
+
+  string() {
+    const length = this.varint();
+    if (this.pos + length > this.buf.length) {
+      throw new RangeError('Truncated binary state');
+    }
+    const value = this.buf.toString('utf8', this.pos, this.pos + length);
+    this.pos += length;
+    return value;
+  }
+
+  cards() {
+    const count = this.u8();
+    const cards = [];
+    for (let i = 0; i < count; i++) {
+      cards.push(cardFromCode(this.u8()));
+    }
+    return cards;
+  }
+}
+
+function cardCode(card) {
+  return SUITS.indexOf(card.suit) * 13 + (card.value - 2);
+}
+
+function cardFromCode(code) {
+  return { suit: SUITS[Math.floor(code / 13)], rank: RANKS[code % 13], value: code % 13 + 2 };
+}
+
+function phaseCode(phase) {
+  const index = PHASES.indexOf(phase);
+  return index < 0 ? 0 : index;
+}
+
+function playerFlags(p) {
+  return (p.folded ? PLAYER_FOLDED : 0) | (p.allIn ? PLAYER_ALL_IN : 0) |
+    (p.isCurrentPlayer ? PLAYER_CURRENT : 0) | (p.isDealer ? PLAYER_DEALER : 0);
+}
+
+// 每个连接一份，记录对方已经知道的座位表
+function createSession() {
+  return { roomId: null, ids: [], names: [] };
+}
+
+function rosterChanged(session, gameState) {
+  if (session.roomId !== gameState.roomId || session.ids.length !== gameState.players.length) {
+    return true;
+  }
+  return gameState.players.some((p, i) => p.id !== session.ids[i] || p.name !== session.names[i]);
+}
+
+function seatOf(session, playerId) {
+  return playerId ? session.ids.indexOf(playerId) + 1 : 0;
+}
+
+// 把与 JSON 协议相同结构的消息编码成 Buffer；增量消息以 baseVersion 区分
+function encode(session, payload) {
+  const w = new Writer();
+  const isDelta = payload.baseVersion !== undefined;
+  const gameState = isDelta ? null : payload.gameState;
+
+  let flags = 0;
+  if (payload.success) flags |= FLAG_SUCCESS;
+  if (payload.message) flags |= FLAG_MESSAGE;
+  if (payload.playerId) flags |= FLAG_PLAYER_ID;
+  if (gameState) {
+    flags |= FLAG_GAME_STATE;
+    if (rosterChanged(session, gameState)) {
+      flags |= FLAG_ROSTER;
+      session.roomId = gameState.roomId;
+      session.ids = gameState.players.map(p => p.id);
+      session.names = gameState.players.map(p => p.name);
+    }
+  }
+  if (isDelta) flags |= FLAG_DELTA;
+
+  w.u8(FORMAT_VERSION);
+  w.u8(flags);
+  w.varint(payload.version || 0);
+  if (isDelta) w.varint(payload.baseVersion);
+  w.varint(seatOf(session, payload.currentPlayerId));
+  w.varint(payload.player ? seatOf(session, payload.player.id) : 0);
+  if (flags & FLAG_MESSAGE) w.string(payload.message);
+  if (flags & FLAG_PLAYER_ID) w.string(payload.playerId);
+
+  if (flags & FLAG_ROSTER) {
+    w.string(session.roomId);
+    w.u8(session.ids.length);
+    for (let i = 0; i < session.ids.length; i++) {
+      w.string(session.ids[i]);
+      w.string(session.names[i]);
+    }
+  }
+
+  if (gameState) {
+    writeGameState(w, gameState);
+  } else if (isDelta) {
+    writeDelta(w, payload);
+  }
+  return w.toBuffer();
+}
+
+function writeGameState(w, gameState) {
+  w.varint(gameState.pot);
+  w.varint(gameState.currentBet);
+  w.u8(gameState.currentPlayerIndex);
+  w.u8(gameState.dealerIndex);
+  w.u8(phaseCode(gameState.gamePhase));
+  w.cards(gameState.communityCards);
+  w.u8(gameState.players.length);
+  gameState.players.forEach(p => {
+    w.u8(playerFlags(p));
+    w.varint(p.chips);
+    w.varint(p.bet);
+    w.cards(p.hand || []);
+  });
+}
+
+function writeDelta(w, payload) {
+  const changes = payload.changes || {};
+  let changed = 0;
+  if ('pot' in changes) changed |= CHANGE_POT;
+  if ('currentBet' in changes) changed |= CHANGE_CURRENT_BET;
+  if ('currentPlayerIndex' in changes) changed |= CHANGE_CURRENT_PLAYER_INDEX;
+  if ('gamePhase' in changes) changed |= CHANGE_GAME_PHASE;
+  if ('dealerIndex' in changes) changed |= CHANGE_DEALER_INDEX;
+  if ('communityCards' in changes) changed |= CHANGE_COMMUNITY_CARDS;
+
+  w.u8(changed);
+  if (changed & CHANGE_POT) w.varint(changes.pot);
+  if (changed & CHANGE_CURRENT_BET) w.varint(changes.currentBet);
+  if (changed & CHANGE_CURRENT_PLAYER_INDEX) w.u8(changes.currentPlayerIndex);
+  if (changed & CHANGE_GAME_PHASE) w.u8(phaseCode(changes.gamePhase));
+  if (changed & CHANGE_DEALER_INDEX) w.u8(changes.dealerIndex);
+  if (changed & CHANGE_COMMUNITY_CARDS) w.cards(changes.communityCards);
+
+  const patches = payload.players || [];
+  w.u8(patches.length);
+  patches.forEach(patch => {
+    let mask = 0;
+    if ('chips' in patch) mask |= PATCH_CHIPS;
+    if ('bet' in patch) mask |= PATCH_BET;
+    if ('folded' in patch) mask |= PATCH_FOLDED;
+    if ('allIn' in patch) mask |= PATCH_ALL_IN;
+    if ('isCurrentPlayer' in patch) mask |= PATCH_CURRENT;
+    if ('isDealer' in patch) mask |= PATCH_DEALER;
+    if ('hand' in patch) mask |= PATCH_HAND;
+
+    w.u8(patch.index);
+    w.u8(mask);
+    if (mask & PATCH_CHIPS) w.varint(patch.chips);
+    if (mask & PATCH_BET) w.varint(patch.bet);
+    // 变化的布尔字段的新值放在同一个字节里
+    if (mask & PATCH_FLAGS) w.u8(playerFlags(patch));
+    if (mask & PATCH_HAND) w.cards(patch.hand);
+  });
+}
+
+// 解码回与 JSON 协议相同结构的对象，主要用于测试
+function decode(session, buf) {
+  const r = new Reader(buf);
+  const format = r.u8();
+  if (format !== FORMAT_VERSION) {
+    throw new RangeError(`Unsupported binary state format: ${format}`);
+  }
+  const flags = r.u8();
+  const payload = { version: r.varint() };
+  if (flags & FLAG_DELTA) payload.baseVersion = r.varint();
+  const currentSeat = r.varint();
+  const joinedSeat = r.varint();
+  if (flags & FLAG_SUCCESS) payload.success = true;
+  if (flags & FLAG_MESSAGE) payload.message = r.string();
+  if (flags & FLAG_PLAYER_ID) payload.playerId = r.string();
+
+  if (flags & FLAG_ROSTER) {
+    session.roomId = r.string();
+    const count = r.u8();
+    session.ids = [];
+    session.names = [];
+    for (let i = 0; i < count; i++) {
+      session.ids.push(r.string());
+      session.names.push(r.string());
+    }
+  }
+  if (currentSeat > 0) payload.currentPlayerId = session.ids[currentSeat - 1];
+
+  if (flags & FLAG_GAME_STATE) {
+    payload.gameState = readGameState(r, session);
+    if (joinedSeat > 0) payload.player = payload.gameState.players[joinedSeat - 1];
+  } else if (flags & FLAG_DELTA) {
+    readDelta(r, payload);
+  }
+  return payload;
+}
+
+function readGameState(r, session) {
+  const gameState = {
+    roomId: session.roomId,
+    pot: r.varint(),
+    currentBet: r.varint(),
+    currentPlayerIndex: r.u8(),
+    dealerIndex: r.u8(),
+    gamePhase: PHASES[r.u8()],
+    communityCards: r.cards(),
+    players: []
+  };
+  const count = r.u8();
+  if (count !== session.ids.length) {
+    throw new RangeError(`Player count ${count} does not match roster ${session.ids.length}`);
+  }
+  for (let i = 0; i < count; i++) {
+    const flags = r.u8();
+    gameState.players.push({
+      id: session.ids[i],
+      name: session.names[i],
+      chips: r.varint(),
+      bet: r.varint(),
+      folded: (flags & PLAYER_FOLDED) !== 0,
+      allIn: (flags & PLAYER_ALL_IN) !== 0,
+      hand: r.cards(),
+      isCurrentPlayer: (flags & PLAYER_CURRENT) !== 0,
+      isDealer: (flags & PLAYER_DEALER) !== 0
+    });
+  }
+  return gameState;
+}
+
+function readDelta(r, payload) {
+  const changed = r.u8();
+  const changes = {};
+  if (changed & CHANGE_POT) changes.pot = r.varint();
+  if (changed & CHANGE_CURRENT_BET) changes.currentBet = r.varint();
+  if (changed & CHANGE_CURRENT_PLAYER_INDEX) changes.currentPlayerIndex = r.u8();
+  if (changed & CHANGE_GAME_PHASE) changes.gamePhase = PHASES[r.u8()];
+  if (changed & CHANGE_DEALER_INDEX) changes.dealerIndex = r.u8();
+  if (changed & CHANGE_COMMUNITY_CARDS) changes.communityCards = r.cards();
+  payload.changes = changes;
+
+  const count = r.u8();
+  payload.players = [];
+  for (let i = 0; i < count; i++) {
+    const patch = { index: r.u8() };
+    const mask = r.u8();
+    if (mask & PATCH_CHIPS) patch.chips = r.varint();
+    if (mask & PATCH_BET) patch.bet = r.varint();
+    if (mask & PATCH_FLAGS) {
+      const flags = r.u8();
+      if (mask & PATCH_FOLDED) patch.folded = (flags & PLAYER_FOLDED) !== 0;
+      if (mask & PATCH_ALL_IN) patch.allIn = (flags & PLAYER_ALL_IN) !== 0;
+      if (mask & PATCH_CURRENT) patch.isCurrentPlayer = (flags & PLAYER_CURRENT) !== 0;
+      if (mask & PATCH_DEALER) patch.isDealer = (flags & PLAYER_DEALER) !== 0;
+    }
+    if (mask & PATCH_HAND) patch.hand = r.cards();
+    payload.players.push(patch);
+  }
+}
+
+module.exports = { FORMAT_VERSION, createSession, encode, decode };
@@ -0,0 +1,141 @@
+// 测试脚本：二进制状态编码的往返与体积
+const assert = require('assert');
+const binaryCodec = require('./binaryCodec');
+
+function card(suit, rank, value) {
+  return { suit, rank, value };
+}
+
+// 8 人桌，翻牌圈，只有自己的手牌可见
+function eightPlayerState() {
+  const players = [];
+  for (let i = 0; i < 8; i++) {
+    players.push({
+      id: `player_${1700000000000 + i}_${(i * 7919).toString(36).padStart(9, 'x')}`,
+      name: `Player${i + 1}`,
+      chips: 1000 - i * 35,
+      bet: i % 3 === 0 ? 0 : 40,
+      folded: i === 5,
+      allIn: false,
+      hand: i === 2 ? [card('spades', 'A', 14), card('hearts', 'K', 13)] : [],
+      isCurrentPlayer: i === 3,
+      isDealer: i === 0
+    });
+  }
+  return {
+    roomId: 'room_42',
+    players,
+    communityCards: [card('clubs', '10', 10), card('diamonds', '2', 2), card('hearts', 'J', 11)],
+    pot: 1240,
+    currentBet: 40,
+    currentPlayerIndex: 3,
+    gamePhase: 'flop',
+    dealerIndex: 0
+  };
+}
+
+let passed = 0;
+function test(name, fn) {
+  fn();
+  passed++;
+  console.log(`ok - ${name}`);
+}
+
+test('snapshot round trip keeps every field the client reads', () => {
+  const state = eightPlayerState();
+  const payload = { gameState: state, currentPlayerId: state.players[2].id, version: 7 };
+  const buf = binaryCodec.encode(binaryCodec.createSession(), payload);
+  const decoded = binaryCodec.decode(binaryCodec.createSession(), buf);
+
+  assert.strictEqual(decoded.version, 7);
+  assert.strictEqual(decoded.currentPlayerId, state.players[2].id);
+  assert.deepStrictEqual(decoded.gameState, state);
+});
+
+test('roster is only sent when it changes', () => {
+  const state = eightPlayerState();
+  const encoder = binaryCodec.createSession();
+  const decoder = binaryCodec.createSession();
+
+  const first = binaryCodec.encode(encoder, { gameState: state, currentPlayerId: state.players[2].id, version: 1 });
+  state.pot += 40;
+  const second = binaryCodec.encode(encoder, { gameState: state, currentPlayerId: state.players[2].id, version: 2 });
+
+  binaryCodec.decode(decoder, first);
+  const decoded = binaryCodec.decode(decoder, second);
+  assert.deepStrictEqual(decoded.gameState, state);
+  assert.ok(second.length < first.length);
+  console.log(`  8 players: ${first.length} bytes with roster, ${second.length} bytes without`);
+  console.log(`  JSON: ${Buffer.byteLength(JSON.stringify({ gameState: state, version: 2 }))} bytes`);
+  assert.ok(second.length < 200);
+});
+
+test('delta round trip', () => {
+  const state = eightPlayerState();
+  const encoder = binaryCodec.createSession();
+  const decoder = binaryCodec.createSession();
+  binaryCodec.decode(decoder, binaryCodec.encode(encoder, { gameState: state, version: 1 }));
+
+  const delta = {
+    baseVersion: 1,
+    version: 2,
+    currentPlayerId: state.players[2].id,
+    changes: { pot: 1280, currentPlayerIndex: 4, communityCards: state.communityCards.concat([card('spades', '9', 9)]) },
+    players: [
+      { index: 3, chips: 900, bet: 80, isCurrentPlayer: false },
+      { index: 4, isCurrentPlayer: true, folded: false }
+    ]
+  };
+  const buf = binaryCodec.encode(encoder, delta);
+  assert.deepStrictEqual(binaryCodec.decode(decoder, buf), delta);
+  console.log(`  delta: ${buf.length} bytes`);
+});
+
+test('failed join without game state', () => {
+  const payload = { success: false, message: 'Room is full or player already exists', version: 3 };
+  const decoded = binaryCodec.decode(binaryCodec.createSession(),
+    binaryCodec.encode(binaryCodec.createSession(), payload));
+  assert.strictEqual(decoded.success, undefined);
+  assert.strictEqual(decoded.message, payload.message);
+  assert.strictEqual(decoded.gameState, undefined);
+});
+
+test('playerJoined refers to the joined player by seat', () => {
+  const state = eightPlayerState();
+  const payload = { player: state.players[7], gameState: state, version: 1 };
+  const decoded = binaryCodec.decode(binaryCodec.createSession(),
+    binaryCodec.encode(binaryCodec.createSession(), payload));
+  assert.deepStrictEqual(decoded.player, state.players[7]);
+});
+
+test('large chip counts use multi-byte varints', () => {
+  const state = eightPlayerState();
+  state.pot = 3000000000;
+  state.players[0].chips = 16384;
+  const decoded = binaryCodec.decode(binaryCodec.createSession(),
+    binaryCodec.encode(binaryCodec.createSession(), { gameState: state, version: 1 }));
+  assert.strictEqual(decoded.gameState.pot, 3000000000);
+  assert.strictEqual(decoded.gameState.players[0].chips, 16384);
+});
+
+// 打印客户端单元测试用的固定样例（BinaryStateCodecTest）
+if (process.argv.includes('--fixtures')) {
+  const state = eightPlayerState();
+  state.players = state.players.slice(0, 2);
+  state.players[0].hand = [card('spades', 'A', 14), card('hearts', 'K', 13)];
+  state.players[1].isCurrentPlayer = true;
+  state.currentPlayerIndex = 1;
+  const session = binaryCodec.createSession();
+  const snapshot = binaryCodec.encode(session, { gameState: state, currentPlayerId: state.players[0].id, version: 5 });
+  const delta = binaryCodec.encode(session, {
+    baseVersion: 5,
+    version: 6,
+    currentPlayerId: state.players[0].id,
+    changes: { pot: 1280, currentPlayerIndex: 0, communityCards: state.communityCards.concat([card('spades', '9', 9)]) },
+    players: [{ index: 0, isCurrentPlayer: true }, { index: 1, chips: 925, bet: 80, isCurrentPlayer: false }]
+  });
+  console.log(`snapshot: ${snapshot.toString('hex')}`);
+  console.log(`delta: ${delta.toString('hex')}`);
+}
+
+console.log(`${passed} tests passed`);
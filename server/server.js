@@ -2,6 +2,8 @@ const express = require('express');
 const http = require('http');
 const socketIo = require('socket.io');
 const cors = require('cors');
+const crypto = require('crypto');
+const binaryCodec = require('./binaryCodec');
 
 const app = express();
 const server = http.createServer(app);
@@ -29,6 +31,12 @@ class Game {
     this.gamePhase = 'waiting'; // waiting, preflop, flop, turn, river, showdown
     this.minPlayers = 2;
     this.maxPlayers = 8;
+    // 房间事件序号，发给玩家的每条状态消息都带上
+    this.seq = 0;
+  }
+
+  nextSeq() {
+    return ++this.seq;
   }
 
   addPlayer(player) {
@@ -334,12 +342,251 @@ const rooms = new Map();
 // 玩家连接映射
 const playerConnections = new Map(); // socketId -> { roomId, playerName }
 
+// 断线后保留座位的时间，期间凭 resumeToken 重连可以拿回座位并补收错过的事件
+const RESUME_GRACE_MS = 60000;
+// 每个会话最多保留的待补发事件，错过更多时改为补发一份全量快照
+const OUTBOX_LIMIT = 64;
+// 玩家会话：playerId -> { token, roomId, deltaSync, stateVersion, lastState, outbox, droppedSeq, graceTimer }
+const sessions = new Map();
+// resumeToken -> playerId
+const resumeTokens = new Map();
+
+// 发送带游戏状态的事件。客户端在握手时带上 stateFormat=text 时，
+// 整个消息预先序列化成字符串发送，客户端可以直接流式解析，不必先建 JSON 树；
+// stateFormat=binary 时用 binaryCodec 编码，作为二进制附件发送。
+// seq 是房间事件序号，有的话作为第二个参数发送；actionId 是客户端给这次下注的编号，
+// 只在发给下注者本人、反映这次下注的消息里作为第三个参数带回，用来测量操作延迟
+function emitState(socket, event, payload, seq, actionId) {
+  let data = payload;
+  if (socket.data.stateFormat === 'binary') {
+    data = binaryCodec.encode(socket.data.binarySession, payload);
+  } else if (socket.data.stateFormat === 'text') {
+    data = JSON.stringify(payload);
+  }
+  if (seq === undefined) {
+    socket.emit(event, data);
+  } else if (actionId === undefined) {
+    socket.emit(event, data, seq);
+  } else {
+    socket.emit(event, data, seq, actionId);
+  }
+}
+
+// 增量同步时逐个比较的字段
+const DELTA_FIELDS = ['pot', 'currentBet', 'currentPlayerIndex', 'gamePhase', 'dealerIndex'];
+const PLAYER_DELTA_FIELDS = ['chips', 'bet', 'folded', 'allIn', 'isCurrentPlayer', 'isDealer'];
+
+function sameCards(a, b) {
+  if (a.length !== b.length) return false;
+  for (let i = 0; i < a.length; i++) {
+    if (a[i].suit !== b[i].suit || a[i].value !== b[i].value) return false;
+  }
+  return true;
+}
+
+// 保存发出去的视图。公共牌数组会被 push 原地修改，必须复制一份
+function cloneView(gameState) {
+  return {
+    ...gameState,
+    communityCards: gameState.communityCards.slice(),
+    players: gameState.players.map(p => ({ ...p, hand: p.hand.slice() }))
+  };
+}
+
+// 计算两次视图之间的变化；房间或玩家列表变了返回 null，改发全量快照
+function diffGameState(prev, next) {
+  if (prev.roomId !== next.roomId || prev.players.length !== next.players.length) {
+    return null;
+  }
+
+  const changes = {};
+  DELTA_FIELDS.forEach(field => {
+    if (prev[field] !== next[field]) changes[field] = next[field];
+  });
+  if (!sameCards(prev.communityCards, next.communityCards)) {
+    changes.communityCards = next.communityCards;
+  }
+
+  const players = [];
+  for (let i = 0; i < next.players.length; i++) {
+    const before = prev.players[i];
+    const after = next.players[i];
+    if (before.id !== after.id) return null;
+
+    const patch = { index: i };
+    let changed = false;
+    PLAYER_DELTA_FIELDS.forEach(field => {
+      if (before[field] !== after[field]) {
+        patch[field] = after[field];
+        changed = true;
+      }
+    });
+    if (!sameCards(before.hand, after.hand)) {
+      patch.hand = after.hand;
+      changed = true;
+    }
+    if (changed) players.push(patch);
+  }
+
+  return { changes, players };
+}
+
+// 发给某个玩家：先记入会话的待补发队列，玩家在线时立即发送。
+// 房间事件序号作为第二个参数，客户端重连时凭它说明收到了哪里
+function sendToPlayer(player, event, payload, seq, actionId) {
+  const session = sessions.get(player.id);
+  if (session) {
+    session.outbox.push({ seq, event, payload });
+    if (session.outbox.length > OUTBOX_LIMIT) {
+      session.droppedSeq = session.outbox.shift().seq;
+    }
+  }
+  const socket = io.sockets.sockets.get(player.socketId);
+  if (socket) {
+    emitState(socket, event, payload, seq, actionId);
+  }
+}
+
+// 发送全量快照：带上该玩家的状态版本号，并记下这次的视图作为之后增量的基准。
+// 版本号跟着会话走，恢复会话后增量可以接着之前的版本继续
+function emitSnapshot(player, event, payload, seq, actionId) {
+  const session = sessions.get(player.id);
+  session.stateVersion++;
+  session.lastState = payload.gameState ? cloneView(payload.gameState) : null;
+  payload.version = session.stateVersion;
+  sendToPlayer(player, event, payload, seq, actionId);
+}
+
+// 发送状态更新：开启增量同步的玩家只收到相对上个版本变化的字段
+function emitUpdate(game, player, seq, actionId) {
+  const session = sessions.get(player.id);
+  const gameState = game.getGameStateForPlayer(player.socketId);
+  const prev = session.lastState;
+  const delta = session.deltaSync && prev ? diffGameState(prev, gameState) : null;
+
+  if (!delta) {
+    emitSnapshot(player, 'gameStateUpdated', { gameState, currentPlayerId: player.id }, seq, actionId);
+    return;
+  }
+
+  const baseVersion = session.stateVersion++;
+  session.lastState = cloneView(gameState);
+  sendToPlayer(player, 'stateDelta', {
+    baseVersion,
+    version: session.stateVersion,
+    currentPlayerId: player.id,
+    changes: delta.changes,
+    players: delta.players
+  }, seq, actionId);
+}
+
+// 给房间里每个玩家发送一次状态更新，整轮共用一个事件序号。
+// 由某个玩家的下注引起时，把他的 actionId 带回给他
+function broadcastUpdate(game, actor, actionId) {
+  const seq = game.nextSeq();
+  game.players.forEach(p => emitUpdate(game, p, seq, p === actor ? actionId : undefined));
+}
+
+// 新玩家入座时建立会话，resumeToken 只发给玩家自己
+function startSession(socket, game, player) {
+  const token = crypto.randomBytes(16).toString('hex');
+  sessions.set(player.id, {
+    token,
+    roomId: game.roomId,
+    deltaSync: socket.data.sync === 'delta',
+    stateVersion: 0,
+    lastState: null,
+    outbox: [],
+    droppedSeq: 0,
+    graceTimer: null
+  });
+  resumeTokens.set(token, player.id);
+}
+
+// 换一个新的 resumeToken，旧的立即失效
+function rotateToken(player) {
+  const session = sessions.get(player.id);
+  resumeTokens.delete(session.token);
+  session.token = crypto.randomBytes(16).toString('hex');
+  resumeTokens.set(session.token, player.id);
+}
+
+function endSession(playerId) {
+  const session = sessions.get(playerId);
+  if (!session) return;
+  clearTimeout(session.graceTimer);
+  resumeTokens.delete(session.token);
+  sessions.delete(playerId);
+}
+
+// 告诉客户端它的 resumeToken 和当前的房间事件序号，之后的事件从这个序号往后数
+function sendSession(socket, game, player) {
+  const session = sessions.get(player.id);
+  socket.emit('session', { token: session.token, playerId: player.id, seq: game.seq });
+}
+
+// 断线宽限期内的玩家仍然占着座位，清理时跳过
+function isStale(player) {
+  const session = sessions.get(player.id);
+  return !io.sockets.sockets.has(player.socketId) && !(session && session.graceTimer);
+}
+
+// 把玩家移出房间并结束会话，通知房间内其他玩家；房间空了就删除
+function removeFromRoom(game, player) {
+  const index = game.players.indexOf(player);
+  if (index === -1) return;
+  game.players.splice(index, 1);
+  endSession(player.id);
+  console.log(`Player ${player.name} left room ${game.roomId}`);
+
+  // 通知房间内其他玩家
+  const seq = game.nextSeq();
+  game.players.forEach(p => {
+    emitSnapshot(p, 'playerLeft', {
+      playerId: player.socketId,
+      gameState: game.getGameStateForPlayer(p.socketId)
+    }, seq);
+  });
+
+  // 如果房间空了，删除房间
+  if (game.players.length === 0) {
+    rooms.delete(game.roomId);
+    console.log(`Room ${game.roomId} deleted (empty)`);
+  } else {
+    console.log(`Room ${game.roomId} now has ${game.players.length} players`);
+  }
+}
+
+// 把连接对应的玩家移出所在房间
+function leaveCurrentRoom(socket) {
+  // 获取玩家连接信息
+  const connectionInfo = playerConnections.get(socket.id);
+  if (!connectionInfo) return;
+  
+  const { roomId } = connectionInfo;
+  const game = rooms.get(roomId);
+  const player = game && game.getPlayerBySocketId(socket.id);
+  if (player) {
+    removeFromRoom(game, player);
+  }
+  
+  socket.leave(roomId);
+  // 清理连接信息
+  playerConnections.delete(socket.id);
+}
+
 // Socket.IO 连接处理
 io.on('connection', (socket) => {
   console.log('User connected:', socket.id);
+  // 不认识的格式一律退回 JSON
+  const stateFormat = socket.handshake.query.stateFormat;
+  socket.data.stateFormat = stateFormat === 'text' || stateFormat === 'binary' ? stateFormat : 'json';
+  socket.data.binarySession = binaryCodec.createSession();
+  // sync=delta 的客户端在下注过程中只收到增量，版本不连续时用 requestSnapshot 要全量
+  socket.data.sync = socket.handshake.query.sync === 'delta' ? 'delta' : 'full';
 
   socket.on('joinRoom', (data) => {
-    const { roomId, playerName } = data;
+    const { roomId, playerName, token } = data;
     
     console.log(`Player ${playerName} (${socket.id}) attempting to join room ${roomId}`);
     
@@ -353,11 +600,33 @@ io.on('connection', (socket) => {
     // 检查玩家是否已经在该房间中
     const existingPlayer = game.players.find(p => p.name === playerName);
     if (existingPlayer) {
+      // 名字不是凭证：同一个连接重复加入或带着 resumeToken 才能拿回座位；
+      // 座位的连接还在或仍在断线宽限期内时，拒绝别的连接按名字接管
+      const session = sessions.get(existingPlayer.id);
+      const sameSocket = existingPlayer.socketId === socket.id;
+      const hasToken = typeof token === 'string' && token === session.token;
+      const live = io.sockets.sockets.has(existingPlayer.socketId) || session.graceTimer;
+      if (!sameSocket && !hasToken && live) {
+        emitState(socket, 'joinedRoom', {
+          success: false,
+          message: 'Player name is already taken'
+        });
+        console.log(`Rejected takeover of ${playerName} in room ${roomId} by ${socket.id}`);
+        return;
+      }
       console.log(`Player ${playerName} already in room ${roomId}. Updating connection.`);
       
-      // 更新现有玩家的socketId
+      // 旧连接让出座位，更新现有玩家的socketId
+      if (!sameSocket) {
+        playerConnections.delete(existingPlayer.socketId);
+      }
       existingPlayer.socketId = socket.id;
       
+      // 按名字重新加入同样结束断线宽限期；旧的 resumeToken 作废，新的只发给这个连接
+      clearTimeout(session.graceTimer);
+      session.graceTimer = null;
+      session.deltaSync = socket.data.sync === 'delta';
+      
       // 更新玩家连接映射
       playerConnections.set(socket.id, { roomId, playerName });
       
@@ -365,12 +634,14 @@ io.on('connection', (socket) => {
       socket.join(roomId);
       
       // 发送成功消息给重新连接的玩家
-      socket.emit('joinedRoom', { 
+      rotateToken(existingPlayer);
+      sendSession(socket, game, existingPlayer);
+      emitSnapshot(existingPlayer, 'joinedRoom', { 
         success: true, 
         gameState: game.getGameStateForPlayer(socket.id),
         playerId: existingPlayer.id,
         currentPlayerId: existingPlayer.id
-      });
+      }, game.nextSeq());
       
       console.log(`Player ${playerName} reconnected to room ${roomId}`);
       return;
@@ -392,24 +663,32 @@ io.on('connection', (socket) => {
       socket.join(roomId);
       
       // 发送成功消息给新玩家
-      socket.emit('joinedRoom', { 
+      const joinedPlayer = game.players.find(p => p.socketId === socket.id);
+      startSession(socket, game, joinedPlayer);
+      sendSession(socket, game, joinedPlayer);
+      emitSnapshot(joinedPlayer, 'joinedRoom', { 
         success: true, 
         gameState: game.getGameStateForPlayer(socket.id),
         playerId: playerId,
         currentPlayerId: playerId
-      });
+      }, game.nextSeq());
       
-      // 通知房间内所有其他玩家有新玩家加入
-      socket.to(roomId).emit('playerJoined', { 
-        player: game.players.find(p => p.socketId === socket.id), 
-        gameState: game.getGameStateForPlayer(socket.id)
+      // 通知房间内所有其他玩家有新玩家加入（每人收到自己视角的状态）
+      const seq = game.nextSeq();
+      game.players.forEach(p => {
+        if (p !== joinedPlayer) {
+          emitSnapshot(p, 'playerJoined', { 
+            player: joinedPlayer, 
+            gameState: game.getGameStateForPlayer(p.socketId)
+          }, seq);
+        }
       });
       
       // 不需要额外发送gameStateUpdated，因为joinedRoom和playerJoined已经包含了最新的游戏状态
       console.log(`Player ${playerName} (${playerId}) successfully joined room ${roomId}`);
       console.log(`Room ${roomId} now has ${game.players.length} players`);
     } else {
-      socket.emit('joinedRoom', { 
+      emitState(socket, 'joinedRoom', { 
         success: false, 
         message: 'Room is full or player already exists' 
       });
@@ -428,18 +707,16 @@ io.on('connection', (socket) => {
       
       console.log(`Game started successfully. Broadcasting to all players.`);
       
-      // 为每个玩家发送个性化的游戏状态
+      // 为每个玩家发送个性化的游戏状态（断线中的玩家记入待补发队列）
+      const seq = game.nextSeq();
       game.players.forEach(p => {
-        const playerSocket = io.sockets.sockets.get(p.socketId);
-        if (playerSocket) {
-          const gameState = game.getGameStateForPlayer(p.socketId);
-          console.log(`Sending gameStarted to player ${p.name} with ${gameState.players.length} players`);
-          
-          playerSocket.emit('gameStarted', { 
-            gameState: gameState,
-            currentPlayerId: p.id
-          });
-        }
+        const gameState = game.getGameStateForPlayer(p.socketId);
+        console.log(`Sending gameStarted to player ${p.name} with ${gameState.players.length} players`);
+        
+        emitSnapshot(p, 'gameStarted', { 
+          gameState: gameState,
+          currentPlayerId: p.id
+        }, seq);
       });
       
       console.log(`Game started in room ${roomId}`);
@@ -449,7 +726,7 @@ io.on('connection', (socket) => {
   });
 
   socket.on('makeBet', (data) => {
-    const { roomId, action, amount } = data;
+    const { roomId, action, amount, actionId } = data;
     const game = rooms.get(roomId);
     
     console.log(`Player ${socket.id} making bet: ${action} ${amount || ''} in room ${roomId}`);
@@ -512,15 +789,7 @@ io.on('connection', (socket) => {
         }
         
         // 为每个玩家发送个性化的游戏状态
-        game.players.forEach(p => {
-          const playerSocket = io.sockets.sockets.get(p.socketId);
-          if (playerSocket) {
-            playerSocket.emit('gameStateUpdated', { 
-              gameState: game.getGameStateForPlayer(p.socketId),
-              currentPlayerId: p.id
-            });
-          }
-        });
+        broadcastUpdate(game, player, typeof actionId === 'number' ? actionId : undefined);
       } else {
         console.log(`Player ${socket.id} cannot make bet: folded=${player?.folded}, allIn=${player?.allIn}`);
       }
@@ -529,66 +798,98 @@ io.on('connection', (socket) => {
     }
   });
 
+  // 客户端发现版本不连续时请求全量快照
+  socket.on('requestSnapshot', () => {
+    const connectionInfo = playerConnections.get(socket.id);
+    const game = connectionInfo && rooms.get(connectionInfo.roomId);
+    const player = game && game.getPlayerBySocketId(socket.id);
+    if (!player) {
+      console.log(`Snapshot requested by ${socket.id} but player is not in a room`);
+      return;
+    }
+
+    emitSnapshot(player, 'gameStateUpdated', {
+      gameState: game.getGameStateForPlayer(socket.id),
+      currentPlayerId: player.id
+    }, game.nextSeq());
+  });
+
+  // 断线重连的客户端凭 resumeToken 拿回座位，lastSeq 是它收到的最后一个房间事件序号
+  socket.on('resumeSession', (data) => {
+    const { token, lastSeq } = data || {};
+    const playerId = resumeTokens.get(token);
+    const session = playerId && sessions.get(playerId);
+    const game = session && rooms.get(session.roomId);
+    const player = game && game.players.find(p => p.id === playerId);
+    if (!player) {
+      // 宽限期已过或服务器重启过，客户端改为重新加入
+      console.log(`Resume rejected for socket ${socket.id}`);
+      socket.emit('sessionResumed', { success: false });
+      return;
+    }
+
+    clearTimeout(session.graceTimer);
+    session.graceTimer = null;
+    session.deltaSync = socket.data.sync === 'delta';
+    // 旧连接可能还没被发现断开，让它让出座位
+    if (player.socketId !== socket.id) {
+      playerConnections.delete(player.socketId);
+    }
+    player.socketId = socket.id;
+    playerConnections.set(socket.id, { roomId: game.roomId, playerName: player.name });
+    socket.join(game.roomId);
+    socket.emit('sessionResumed', { success: true, playerId: player.id });
+
+    if (typeof lastSeq === 'number' && lastSeq >= session.droppedSeq) {
+      // 只补发错过的事件，增量的版本号也接得上
+      const missed = session.outbox.filter(entry => entry.seq > lastSeq);
+      missed.forEach(entry => emitState(socket, entry.event, entry.payload, entry.seq));
+      console.log(`Player ${player.name} resumed in room ${game.roomId}, replayed ${missed.length} events`);
+    } else {
+      // 错过的事件已经不在队列里了，直接给一份全量快照
+      emitSnapshot(player, 'gameStateUpdated', {
+        gameState: game.getGameStateForPlayer(socket.id),
+        currentPlayerId: player.id
+      }, game.nextSeq());
+      console.log(`Player ${player.name} resumed in room ${game.roomId} with a fresh snapshot`);
+    }
+  });
+
+  // 客户端保持连接、只离开房间（切回大厅时使用）
+  socket.on('leaveRoom', () => {
+    console.log(`Player ${socket.id} leaving room`);
+    leaveCurrentRoom(socket);
+  });
+
   socket.on('disconnect', () => {
     console.log('User disconnected:', socket.id);
     
-    // 获取玩家连接信息
+    // 不立即移出房间：宽限期内凭 resumeToken 重连可以拿回座位
     const connectionInfo = playerConnections.get(socket.id);
-    if (connectionInfo) {
-      const { roomId } = connectionInfo;
-      const game = rooms.get(roomId);
-      
-      if (game) {
-        // 从房间中移除玩家
-        if (game.removePlayer(socket.id)) {
-          console.log(`Player ${connectionInfo.playerName} left room ${roomId}`);
-          
-          // 通知房间内其他玩家
-          const remainingPlayers = game.players.filter(p => p.socketId !== socket.id);
-          remainingPlayers.forEach(p => {
-            const playerSocket = io.sockets.sockets.get(p.socketId);
-            if (playerSocket) {
-              playerSocket.emit('playerLeft', { 
-                playerId: socket.id, 
-                gameState: game.getGameStateForPlayer(p.socketId)
-              });
-            }
-          });
-          
-          // 如果房间空了，删除房间
-          if (game.players.length === 0) {
-            rooms.delete(roomId);
-            console.log(`Room ${roomId} deleted (empty)`);
-          } else {
-            console.log(`Room ${roomId} now has ${game.players.length} players`);
-          }
-        }
-      }
-      
-      // 清理连接信息
-      playerConnections.delete(socket.id);
+    playerConnections.delete(socket.id);
+    const game = connectionInfo && rooms.get(connectionInfo.roomId);
+    const player = game && game.getPlayerBySocketId(socket.id);
+    if (player) {
+      const session = sessions.get(player.id);
+      session.graceTimer = setTimeout(() => {
+        console.log(`Session of ${player.name} expired after ${RESUME_GRACE_MS}ms`);
+        removeFromRoom(game, player);
+      }, RESUME_GRACE_MS);
     }
     
     // 清理所有房间中可能存在的无效socketId
     rooms.forEach((game, roomId) => {
-      const invalidPlayers = game.players.filter(p => !io.sockets.sockets.has(p.socketId));
+      const invalidPlayers = game.players.filter(isStale);
       if (invalidPlayers.length > 0) {
         console.log(`Cleaning up ${invalidPlayers.length} invalid players in room ${roomId}`);
         invalidPlayers.forEach(p => {
           game.removePlayer(p.socketId);
+          endSession(p.id);
           console.log(`Removed invalid player: ${p.name} (${p.socketId})`);
         });
         
         // 通知房间内其他玩家
-        game.players.forEach(p => {
-          const playerSocket = io.sockets.sockets.get(p.socketId);
-          if (playerSocket) {
-            playerSocket.emit('gameStateUpdated', { 
-              gameState: game.getGameStateForPlayer(p.socketId),
-              currentPlayerId: p.id
-            });
-          }
-        });
+        broadcastUpdate(game);
       }
     });
   });
@@ -625,6 +926,20 @@ app.get('/api/rooms/:roomId', (req, res) => {
   }
 });
 
+// 服务器负载概况，压测工具据此观察内存增长
+app.get('/api/stats', (req, res) => {
+  let players = 0;
+  rooms.forEach(game => players += game.players.length);
+  res.json({
+    uptimeSeconds: Math.round(process.uptime()),
+    connections: io.engine.clientsCount,
+    rooms: rooms.size,
+    players,
+    sessions: sessions.size,
+    memory: process.memoryUsage()
+  });
+});
+
 const PORT = process.env.PORT || 3000;
 server.listen(PORT, () => {
   console.log(`Texas Hold'em Server running on port ${PORT}`);
@@ -634,24 +949,18 @@ server.listen(PORT, () => {
   setInterval(() => {
     console.log('Running periodic cleanup...');
     rooms.forEach((game, roomId) => {
-      const invalidPlayers = game.players.filter(p => !io.sockets.sockets.has(p.socketId));
+      // 断线宽限期内的玩家由各自的计时器处理
+      const invalidPlayers = game.players.filter(isStale);
       if (invalidPlayers.length > 0) {
         console.log(`Periodic cleanup: removing ${invalidPlayers.length} invalid players in room ${roomId}`);
         invalidPlayers.forEach(p => {
           game.removePlayer(p.socketId);
+          endSession(p.id);
           console.log(`Periodic cleanup: removed invalid player: ${p.name} (${p.socketId})`);
         });
         
         // 通知房间内其他玩家
-        game.players.forEach(p => {
-          const playerSocket = io.sockets.sockets.get(p.socketId);
-          if (playerSocket) {
-            playerSocket.emit('gameStateUpdated', { 
-              gameState: game.getGameStateForPlayer(p.socketId),
-              currentPlayerId: p.id
-            });
-          }
-        });
+        broadcastUpdate(game);
       }
     });
   }, 30000); // 每30秒清理一次
@@ -21,4 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "TestEnvironment"
 include(":app")
+include(":benchmark")
+include(":loadtest")
  
\ No newline at end of file